@@ -0,0 +1,61 @@
+package pl.myproject.kanbanproject2.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id sequences of Task, SubTask, TaskColumnHistory and Chat past the ids that
+ * identity columns handed out before those entities switched to pooled sequences. Runs
+ * once at startup, before the web server accepts requests, so the first block of ids a
+ * node allocates after an upgrade cannot collide with existing rows.
+ */
+@Component
+public class IdSequenceAlignment {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAlignment.class);
+
+    // Musi być równe allocationSize w @SequenceGenerator encji
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "task_seq", "task",
+            "subtasks_seq", "subtasks",
+            "task_column_history_seq", "task_column_history",
+            "chat_messages_seq", "chat_messages"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    @Autowired
+    public IdSequenceAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String sequence, String table) {
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        long nextValue = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+
+        // Optymalizator pooled przydziela identyfikatory (wartość - ALLOCATION_SIZE, wartość]
+        if (nextValue < maxId + ALLOCATION_SIZE) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + ALLOCATION_SIZE));
+            log.info("Sequence {} restarted after existing ids in {} (max id {})", sequence, table, maxId);
+        }
+    }
+}
@@ -77,8 +77,8 @@ public class SecurityConfiguration {
                 "http://app:8080"
         ));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Accept"));
-        configuration.setExposedHeaders(List.of("Authorization")); // Allow frontend to read the Authorization header
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Accept", "If-None-Match"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag")); // Allow frontend to read the Authorization and ETag headers
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,35 @@
+package pl.myproject.kanbanproject2.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.myproject.kanbanproject2.dto.BoardConsistencyDTO;
+import pl.myproject.kanbanproject2.dto.BoardDTO;
+import pl.myproject.kanbanproject2.service.BoardReadModel;
+import pl.myproject.kanbanproject2.service.BoardService;
+
+@RestController
+@RequestMapping("/board")
+public class BoardController {
+
+    private final BoardService boardService;
+    private final BoardReadModel boardReadModel;
+
+    @Autowired
+    public BoardController(BoardService boardService, BoardReadModel boardReadModel) {
+        this.boardService = boardService;
+        this.boardReadModel = boardReadModel;
+    }
+
+    @GetMapping
+    public ResponseEntity<BoardDTO> getBoard() {
+        return ResponseEntity.ok(boardService.getBoard());
+    }
+
+    @GetMapping("/consistency")
+    public ResponseEntity<BoardConsistencyDTO> checkConsistency() {
+        return ResponseEntity.ok(boardReadModel.checkConsistency());
+    }
+}
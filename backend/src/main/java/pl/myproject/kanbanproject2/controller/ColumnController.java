@@ -1,11 +1,15 @@
 package pl.myproject.kanbanproject2.controller;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import pl.myproject.kanbanproject2.dto.ColumnDTO;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
 import pl.myproject.kanbanproject2.model.Column;
 import pl.myproject.kanbanproject2.service.ColumnService;
+import pl.myproject.kanbanproject2.service.VersionTags;
 import java.util.List;
 
 @RestController
@@ -19,8 +23,12 @@ public class ColumnController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ColumnDTO>> getAllColumns() {
-        return ResponseEntity.ok(columnService.getAllColumns());
+    public ResponseEntity<List<ColumnDTO>> getAllColumns(WebRequest webRequest) {
+        String eTag = columnService.getColumnsETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(columnService.getAllColumns());
     }
 
     @PostMapping
@@ -29,25 +37,37 @@ public class ColumnController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<ColumnDTO> patchColumn(@RequestBody ColumnDTO column, @PathVariable Integer id) {
-        return ResponseEntity.ok(columnService.patchColumn(column, id));
+    public ResponseEntity<ColumnDTO> patchColumn(@RequestBody ColumnDTO column, @PathVariable Integer id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ColumnDTO patched = columnService.patchColumn(column, id, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(patched.version())).body(patched);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteColumn(@PathVariable Integer id) {
-        columnService.deleteColumn(id);
+    public ResponseEntity<Void> deleteColumn(@PathVariable Integer id,
+                                             @RequestParam(required = false) Integer moveTasksTo) {
+        columnService.deleteColumn(id, moveTasksTo);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ColumnDTO> getColumnById(@PathVariable Integer id) {
-        return ResponseEntity.ok(columnService.getColumnById(id));
+        ColumnDTO column = columnService.getColumnById(id);
+        return ResponseEntity.ok().eTag(VersionTags.of(column.version())).body(column);
+    }
+
+    @PatchMapping("/positions")
+    public ResponseEntity<Void> reorderColumns(@RequestBody List<PositionDTO> positions) {
+        columnService.reorderColumns(positions);
+        return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/{id}/position/{position}")
     public ResponseEntity<ColumnDTO> updateColumnPosition(
             @PathVariable Integer id,
-            @PathVariable Integer position) {
-        return ResponseEntity.ok(columnService.updateColumnPosition(id, position));
+            @PathVariable Integer position,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ColumnDTO column = columnService.updateColumnPosition(id, position, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(column.version())).body(column);
     }
 }
\ No newline at end of file
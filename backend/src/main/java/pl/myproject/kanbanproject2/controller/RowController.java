@@ -1,11 +1,15 @@
 package pl.myproject.kanbanproject2.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
 import pl.myproject.kanbanproject2.dto.RowDTO;
 import pl.myproject.kanbanproject2.model.Row;
 import pl.myproject.kanbanproject2.service.RowService;
+import pl.myproject.kanbanproject2.service.VersionTags;
 
 import java.util.List;
 
@@ -21,13 +25,18 @@ public class RowController {
     }
 
     @GetMapping
-    public ResponseEntity<List<RowDTO>> getAllRows() {
-        return ResponseEntity.ok(rowService.getAllRows());
+    public ResponseEntity<List<RowDTO>> getAllRows(WebRequest webRequest) {
+        String eTag = rowService.getRowsETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(rowService.getAllRows());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<RowDTO> getRowById(@PathVariable Integer id) {
-        return ResponseEntity.ok(rowService.getRowById(id));
+        RowDTO row = rowService.getRowById(id);
+        return ResponseEntity.ok().eTag(VersionTags.of(row.version())).body(row);
     }
 
     @PostMapping
@@ -36,8 +45,10 @@ public class RowController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<RowDTO> updateRow(@RequestBody RowDTO row, @PathVariable Integer id) {
-        return ResponseEntity.ok(rowService.patchRow(row, id));
+    public ResponseEntity<RowDTO> updateRow(@RequestBody RowDTO row, @PathVariable Integer id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        RowDTO patched = rowService.patchRow(row, id, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(patched.version())).body(patched);
     }
 
     @DeleteMapping("/{id}")
@@ -46,10 +57,18 @@ public class RowController {
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping("/positions")
+    public ResponseEntity<Void> reorderRows(@RequestBody List<PositionDTO> positions) {
+        rowService.reorderRows(positions);
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/{id}/position/{position}")
     public ResponseEntity<RowDTO> updateRowPosition(
             @PathVariable Integer id,
-            @PathVariable Integer position) {
-        return ResponseEntity.ok(rowService.updateRowPosition(id, position));
+            @PathVariable Integer position,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        RowDTO row = rowService.updateRowPosition(id, position, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(row.version())).body(row);
     }
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package pl.myproject.kanbanproject2.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import pl.myproject.kanbanproject2.dto.SubTaskDTO;
 import pl.myproject.kanbanproject2.model.SubTask;
 import pl.myproject.kanbanproject2.service.SubTaskService;
+import pl.myproject.kanbanproject2.service.VersionTags;
 
 import java.util.List;
 
@@ -33,12 +35,15 @@ public class SubTaskController {
 
     @GetMapping("/{id}")
     public ResponseEntity<SubTaskDTO> getSubTaskById(@PathVariable Integer id) {
-        return ResponseEntity.ok(subTaskService.getSubTaskById(id));
+        SubTaskDTO subTask = subTaskService.getSubTaskById(id);
+        return ResponseEntity.ok().eTag(VersionTags.of(subTask.version())).body(subTask);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<SubTaskDTO> patchSubTask(@PathVariable Integer id, @RequestBody SubTask subTask) {
-        return ResponseEntity.ok(subTaskService.patchSubTask(id, subTask));
+    public ResponseEntity<SubTaskDTO> patchSubTask(@PathVariable Integer id, @RequestBody SubTask subTask,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        SubTaskDTO patched = subTaskService.patchSubTask(id, subTask, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(patched.version())).body(patched);
     }
 
     @PostMapping
@@ -62,7 +67,9 @@ public class SubTaskController {
     }
 
     @PatchMapping("/{id}/position/{position}")
-    public ResponseEntity<SubTaskDTO> updateSubTaskPosition(@PathVariable Integer id, @PathVariable Integer position) {
-        return ResponseEntity.ok(subTaskService.updateSubTaskPosition(id, position));
+    public ResponseEntity<SubTaskDTO> updateSubTaskPosition(@PathVariable Integer id, @PathVariable Integer position,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        SubTaskDTO subTask = subTaskService.updateSubTaskPosition(id, position, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(subTask.version())).body(subTask);
     }
 }
\ No newline at end of file
@@ -1,11 +1,28 @@
 package pl.myproject.kanbanproject2.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import pl.myproject.kanbanproject2.dto.BoardChangesDTO;
+import pl.myproject.kanbanproject2.dto.BulkTaskRequestDTO;
+import pl.myproject.kanbanproject2.dto.BulkTaskResultDTO;
+import pl.myproject.kanbanproject2.dto.LabelUsageDTO;
+import pl.myproject.kanbanproject2.dto.MoveTaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskCompletionDTO;
 import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskDependencyDTO;
+import pl.myproject.kanbanproject2.dto.TaskDependencyGraphDTO;
+import pl.myproject.kanbanproject2.dto.TaskFilter;
+import pl.myproject.kanbanproject2.dto.TaskMovedDTO;
+import pl.myproject.kanbanproject2.dto.TaskPositionDTO;
+import pl.myproject.kanbanproject2.dto.TaskTreeDTO;
 import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.service.TaskBulkService;
+import pl.myproject.kanbanproject2.service.TaskDependencyService;
 import pl.myproject.kanbanproject2.service.TaskService;
+import pl.myproject.kanbanproject2.service.VersionTags;
 
 import java.util.List;
 import java.util.Set;
@@ -15,15 +32,36 @@ import java.util.Set;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskBulkService taskBulkService;
+    private final TaskDependencyService taskDependencyService;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskBulkService taskBulkService,
+                          TaskDependencyService taskDependencyService) {
         this.taskService = taskService;
+        this.taskBulkService = taskBulkService;
+        this.taskDependencyService = taskDependencyService;
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<?> getAllTasks(@ModelAttribute TaskFilter filter,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest webRequest) {
+        String eTag = taskService.getTasksETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        // Bez parametrów zwracamy całą listę, jak dotychczas
+        if (filter.isEmpty() && cursor == null && limit == null) {
+            return ResponseEntity.ok().eTag(eTag).body(taskService.getAllTasks());
+        }
+        return ResponseEntity.ok().eTag(eTag).body(taskService.getTaskPage(filter, cursor, limit));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<BoardChangesDTO> getChanges(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(taskService.getChangesSince(since));
     }
 
     @DeleteMapping("/{id}")
@@ -34,12 +72,15 @@ public class TaskController {
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskDTO> getTaskById(@PathVariable Integer id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+        TaskDTO task = taskService.getTaskById(id);
+        return ResponseEntity.ok().eTag(VersionTags.of(task.version())).body(task);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<TaskDTO> patchTask(@PathVariable Integer id, @RequestBody Task task) {
-        return ResponseEntity.ok(taskService.patchTask(id, task));
+    public ResponseEntity<TaskDTO> patchTask(@PathVariable Integer id, @RequestBody Task task,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO patched = taskService.patchTask(id, task, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(patched.version())).body(patched);
     }
 
     @PostMapping
@@ -47,6 +88,16 @@ public class TaskController {
         return ResponseEntity.ok(taskService.addTask(task));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskDTO>> createTasks(@RequestBody List<Task> tasks) {
+        return ResponseEntity.ok(taskService.addTasks(tasks));
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkTaskResultDTO>> applyBulkOperation(@RequestBody BulkTaskRequestDTO request) {
+        return ResponseEntity.ok(taskBulkService.apply(request));
+    }
+
     @PutMapping("/{taskId}/user/{userId}")
     public ResponseEntity<TaskDTO> assignUserToTask(@PathVariable Integer taskId, @PathVariable Integer userId) {
         return ResponseEntity.ok(taskService.assignUserToTask(taskId, userId));
@@ -60,8 +111,29 @@ public class TaskController {
     @PatchMapping("/{id}/position/{position}")
     public ResponseEntity<TaskDTO> updateTaskPosition(
             @PathVariable Integer id,
-            @PathVariable Integer position) {
-        return ResponseEntity.ok(taskService.updateTaskPosition(id, position));
+            @PathVariable Integer position,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO task = taskService.updateTaskPosition(id, position, VersionTags.parse(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(task.version())).body(task);
+    }
+
+    @PatchMapping("/positions")
+    public ResponseEntity<Void> reorderTasks(@RequestBody List<TaskPositionDTO> positions) {
+        taskService.reorderTasks(positions);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/move")
+    public ResponseEntity<TaskMovedDTO> moveTask(@PathVariable Integer id, @RequestBody MoveTaskDTO move) {
+        return ResponseEntity.ok(taskService.moveTask(id, move));
+    }
+
+    @PatchMapping("/{id}/rank")
+    public ResponseEntity<TaskDTO> rankTask(
+            @PathVariable Integer id,
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(required = false) Integer beforeId) {
+        return ResponseEntity.ok(taskService.rankTask(id, afterId, beforeId));
     }
 
     @PutMapping("/{taskId}/label/{label}")
@@ -82,9 +154,22 @@ public class TaskController {
     }
 
     @GetMapping("/get/all/labels")
-    public ResponseEntity<Set<String>> getAllLabels() {
+    public ResponseEntity<Set<String>> getAllLabels(WebRequest webRequest) {
+        String eTag = taskService.getLabelsETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         Set<String> labels = taskService.getAllLabels();
-        return ResponseEntity.ok(labels);
+        return ResponseEntity.ok().eTag(eTag).body(labels);
+    }
+
+    @GetMapping("/labels/usage")
+    public ResponseEntity<List<LabelUsageDTO>> getLabelUsage(WebRequest webRequest) {
+        String eTag = taskService.getLabelsETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(taskService.getLabelUsage());
     }
     @PutMapping("/{childTaskId}/parent/{parentTaskId}")
     public ResponseEntity<TaskDTO> assignParentTask(@PathVariable Integer childTaskId, @PathVariable Integer parentTaskId) {
@@ -101,13 +186,35 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getChildTasks(taskId));
     }
 
+    @GetMapping("/{taskId}/tree")
+    public ResponseEntity<TaskTreeDTO> getTaskTree(@PathVariable Integer taskId,
+                                                   @RequestParam(required = false) Integer depth) {
+        return ResponseEntity.ok(taskService.getTaskTree(taskId, depth));
+    }
+
+    @GetMapping("/dependencies")
+    public ResponseEntity<TaskDependencyGraphDTO> getDependencyGraph() {
+        return ResponseEntity.ok(taskDependencyService.getDependencyGraph());
+    }
+
+    @PutMapping("/{taskId}/blocker/{blockerId}")
+    public ResponseEntity<TaskDependencyDTO> addBlocker(@PathVariable Integer taskId, @PathVariable Integer blockerId) {
+        return ResponseEntity.ok(taskDependencyService.addBlocker(taskId, blockerId));
+    }
+
+    @DeleteMapping("/{taskId}/blocker/{blockerId}")
+    public ResponseEntity<Void> removeBlocker(@PathVariable Integer taskId, @PathVariable Integer blockerId) {
+        taskDependencyService.removeBlocker(taskId, blockerId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{taskId}/parent")
     public ResponseEntity<TaskDTO> getParentTask(@PathVariable Integer taskId) {
         return ResponseEntity.ok(taskService.getParentTask(taskId));
     }
 
     @PatchMapping("/{taskId}/complete/{status}")
-    public ResponseEntity<TaskDTO> updateTaskCompletion(@PathVariable Integer taskId, @PathVariable boolean status) {
+    public ResponseEntity<TaskCompletionDTO> updateTaskCompletion(@PathVariable Integer taskId, @PathVariable boolean status) {
         return ResponseEntity.ok(taskService.updateTaskCompletion(taskId, status));
     }
 
@@ -8,7 +8,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import pl.myproject.kanbanproject2.dto.UserDTO;
+import pl.myproject.kanbanproject2.dto.UserSummaryDTO;
 import pl.myproject.kanbanproject2.model.User;
 import pl.myproject.kanbanproject2.service.UserService;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,9 +28,18 @@ public class UserController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String expand, WebRequest webRequest) {
+        String eTag = userService.getUsersETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        // Pełna lista z zadaniami tylko na żądanie
+        if ("tasks".equals(expand)) {
+            List<UserDTO> users = userService.getAllUsers();
+            return ResponseEntity.ok().eTag(eTag).body(users);
+        }
+        List<UserSummaryDTO> users = userService.getUserSummaries();
+        return ResponseEntity.ok().eTag(eTag).body(users);
     }
 
     @GetMapping("/me")
@@ -0,0 +1,17 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.List;
+import java.util.Set;
+
+public record BoardChangesDTO(
+        String revision,
+        boolean fullSnapshot,
+        List<TaskDTO> tasks,
+        List<ColumnDTO> columns,
+        List<RowDTO> rows,
+        List<SubTaskDTO> subTasks,
+        Set<Integer> deletedTaskIds,
+        Set<Integer> deletedColumnIds,
+        Set<Integer> deletedRowIds,
+        Set<Integer> deletedSubTaskIds
+) {}
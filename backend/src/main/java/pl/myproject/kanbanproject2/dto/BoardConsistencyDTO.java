@@ -0,0 +1,11 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.Set;
+
+public record BoardConsistencyDTO(
+        boolean consistent,
+        Set<Integer> mismatchedTaskIds,
+        Set<Integer> mismatchedColumnIds,
+        Set<Integer> mismatchedRowIds,
+        Set<Integer> mismatchedSubTaskIds
+) {}
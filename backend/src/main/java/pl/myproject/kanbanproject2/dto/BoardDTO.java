@@ -0,0 +1,10 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.List;
+
+public record BoardDTO(
+        List<ColumnDTO> columns,
+        List<RowDTO> rows,
+        List<TaskDTO> tasks,
+        List<SubTaskProgressDTO> subTaskProgress
+) {}
@@ -0,0 +1,16 @@
+package pl.myproject.kanbanproject2.dto;
+
+/**
+ * Operations accepted by the bulk task endpoint; each one reads the argument fields of
+ * {@link BulkTaskRequestDTO} it needs and ignores the rest.
+ */
+public enum BulkTaskOperation {
+    ADD_LABEL,
+    REMOVE_LABEL,
+    ASSIGN_USER,
+    UNASSIGN_USER,
+    SET_COMPLETED,
+    MOVE,
+    SET_DEADLINE,
+    DELETE
+}
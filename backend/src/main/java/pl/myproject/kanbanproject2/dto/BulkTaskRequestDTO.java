@@ -0,0 +1,21 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * One operation applied to a set of tasks. {@code label} is used by the label operations,
+ * {@code userId} by the assignment ones, {@code completed} by SET_COMPLETED,
+ * {@code columnId}/{@code rowId} by MOVE (a missing one keeps the task's current value)
+ * and {@code deadline} by SET_DEADLINE, where null clears the deadline.
+ */
+public record BulkTaskRequestDTO(
+        Set<Integer> taskIds,
+        BulkTaskOperation operation,
+        String label,
+        Integer userId,
+        Boolean completed,
+        Integer columnId,
+        Integer rowId,
+        LocalDateTime deadline
+) {}
@@ -0,0 +1,16 @@
+package pl.myproject.kanbanproject2.dto;
+
+/**
+ * Outcome of a bulk operation for a single task id. REJECTED marks a task the operation
+ * is not allowed for, e.g. completing a task whose parent is still open.
+ */
+public record BulkTaskResultDTO(Integer taskId, Status status) {
+
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        DELETED,
+        REJECTED,
+        NOT_FOUND
+    }
+}
@@ -1,4 +1,8 @@
 package pl.myproject.kanbanproject2.dto;
 
-public record ColumnDTO(Integer id, String name, Integer position, Integer wipLimit, java.util.List<TaskDTO> taskDTO) {
+public record ColumnDTO(Integer id, String name, Integer position, Integer wipLimit, java.util.List<TaskDTO> taskDTO,
+                        Long version) {
+    public ColumnDTO(Integer id, String name, Integer position, Integer wipLimit, java.util.List<TaskDTO> taskDTO) {
+        this(id, name, position, wipLimit, taskDTO, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package pl.myproject.kanbanproject2.dto;
+
+public record LabelUsageDTO(
+        String label,
+        Long taskCount
+) {}
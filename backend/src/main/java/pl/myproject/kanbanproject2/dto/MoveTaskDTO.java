@@ -0,0 +1,8 @@
+package pl.myproject.kanbanproject2.dto;
+
+/**
+ * Target of a task move. The task lands directly after {@code afterId} and before
+ * {@code beforeId}; either may be null at the start or end of the lane. A missing
+ * {@code rowId} keeps the task's current row.
+ */
+public record MoveTaskDTO(Integer columnId, Integer rowId, Integer afterId, Integer beforeId) {}
@@ -0,0 +1,30 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One entry of a batch column or row reorder.
+ */
+public record PositionDTO(Integer id, Integer position) {
+
+    /**
+     * Ids of a whole batch, rejecting an empty batch, missing values and repeated ids.
+     */
+    public static Set<Integer> ids(List<PositionDTO> positions) {
+        if (positions == null || positions.isEmpty()) {
+            throw new IllegalArgumentException("Lista pozycji nie może być pusta");
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (PositionDTO position : positions) {
+            if (position.id() == null || position.position() == null) {
+                throw new IllegalArgumentException("Każda pozycja musi mieć id i pozycję");
+            }
+            if (!ids.add(position.id())) {
+                throw new IllegalArgumentException("Id " + position.id() + " występuje w liście więcej niż raz");
+            }
+        }
+        return ids;
+    }
+}
@@ -5,5 +5,10 @@ public record SubTaskDTO(
         String description,
         boolean completed,
         Integer position,
-        Integer taskId
-) {}
\ No newline at end of file
+        Integer taskId,
+        Long version
+) {
+    public SubTaskDTO(Integer id, String title, String description, boolean completed, Integer position, Integer taskId) {
+        this(id, title, description, completed, position, taskId, null);
+    }
+}
\ No newline at end of file
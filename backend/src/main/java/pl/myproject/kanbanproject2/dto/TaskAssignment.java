@@ -0,0 +1,4 @@
+package pl.myproject.kanbanproject2.dto;
+
+public record TaskAssignment(Integer taskId, Integer userId) {
+}
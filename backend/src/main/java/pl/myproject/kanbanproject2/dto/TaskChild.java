@@ -0,0 +1,3 @@
+package pl.myproject.kanbanproject2.dto;
+
+public record TaskChild(Integer parentTaskId, Integer taskId) {}
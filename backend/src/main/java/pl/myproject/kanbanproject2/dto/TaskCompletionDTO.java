@@ -0,0 +1,12 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.List;
+
+/**
+ * Result of completing or reopening a task: the task itself and the ids of its descendants
+ * that were reopened together with it, so the client can mark those cards without refetching.
+ */
+public record TaskCompletionDTO(
+        TaskDTO task,
+        List<Integer> reopenedTaskIds
+) {}
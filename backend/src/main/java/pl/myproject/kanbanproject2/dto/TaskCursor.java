@@ -0,0 +1,33 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last task on a page. Tasks without a position sort last and
+ * are keyed with a {@code null} position. Encoded as an opaque url-safe token.
+ */
+public record TaskCursor(Integer position, int id) {
+
+    public static TaskCursor of(TaskRow taskRow) {
+        return new TaskCursor(taskRow.position(), taskRow.id());
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Nieprawidłowy kursor");
+            }
+            Integer position = parts[0].isEmpty() ? null : Integer.parseInt(parts[0]);
+            return new TaskCursor(position, Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nieprawidłowy kursor", e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(((position != null ? position : "") + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -16,5 +16,30 @@ public record TaskDTO(
         Integer parentTaskId,
         Set<Integer> childTaskIds,
         LocalDateTime deadline,
-        boolean expired
-) {}
\ No newline at end of file
+        boolean expired,
+        String rankKey,
+        Long version,
+        int subtasksTotal,
+        int subtasksCompleted
+) {
+    public TaskDTO(Integer id, String title, Integer position, Integer columnId, Integer rowId, Set<Integer> userIds,
+                   Set<String> labels, boolean completed, String description, Integer parentTaskId,
+                   Set<Integer> childTaskIds, LocalDateTime deadline, boolean expired) {
+        this(id, title, position, columnId, rowId, userIds, labels, completed, description, parentTaskId,
+                childTaskIds, deadline, expired, null, null, 0, 0);
+    }
+
+    public TaskDTO(Integer id, String title, Integer position, Integer columnId, Integer rowId, Set<Integer> userIds,
+                   Set<String> labels, boolean completed, String description, Integer parentTaskId,
+                   Set<Integer> childTaskIds, LocalDateTime deadline, boolean expired, String rankKey) {
+        this(id, title, position, columnId, rowId, userIds, labels, completed, description, parentTaskId,
+                childTaskIds, deadline, expired, rankKey, null, 0, 0);
+    }
+
+    public TaskDTO(Integer id, String title, Integer position, Integer columnId, Integer rowId, Set<Integer> userIds,
+                   Set<String> labels, boolean completed, String description, Integer parentTaskId,
+                   Set<Integer> childTaskIds, LocalDateTime deadline, boolean expired, String rankKey, Long version) {
+        this(id, title, position, columnId, rowId, userIds, labels, completed, description, parentTaskId,
+                childTaskIds, deadline, expired, rankKey, version, 0, 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * All "blocks" edges with the open tasks that have an open blocker and the longest chain of
+ * open tasks blocking one another, first blocker first.
+ */
+public record TaskDependencyGraphDTO(
+        List<TaskDependencyDTO> dependencies,
+        Set<Integer> blockedTaskIds,
+        List<Integer> criticalPath
+) {}
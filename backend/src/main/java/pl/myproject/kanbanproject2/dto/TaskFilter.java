@@ -0,0 +1,25 @@
+package pl.myproject.kanbanproject2.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+public record TaskFilter(
+        Integer columnId,
+        Integer rowId,
+        Integer userId,
+        String label,
+        Boolean completed,
+        Boolean expired,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineTo
+) {
+    public static TaskFilter none() {
+        return new TaskFilter(null, null, null, null, null, null, null, null);
+    }
+
+    public boolean isEmpty() {
+        return columnId == null && rowId == null && userId == null && label == null
+                && completed == null && expired == null && deadlineFrom == null && deadlineTo == null;
+    }
+}
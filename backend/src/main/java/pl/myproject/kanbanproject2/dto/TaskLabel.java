@@ -0,0 +1,4 @@
+package pl.myproject.kanbanproject2.dto;
+
+public record TaskLabel(Integer taskId, String label) {
+}
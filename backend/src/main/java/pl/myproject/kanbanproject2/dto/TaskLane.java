@@ -0,0 +1,6 @@
+package pl.myproject.kanbanproject2.dto;
+
+/**
+ * Column and row pair that scopes task rank keys.
+ */
+public record TaskLane(Integer columnId, Integer rowId) {}
@@ -0,0 +1,14 @@
+package pl.myproject.kanbanproject2.dto;
+
+/**
+ * Minimal diff of a move: enough for the client to take the card out of its old lane
+ * and insert it into the new one by rank key.
+ */
+public record TaskMovedDTO(
+        Integer id,
+        Integer fromColumnId,
+        Integer fromRowId,
+        Integer columnId,
+        Integer rowId,
+        String rankKey
+) {}
@@ -0,0 +1,8 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.List;
+
+public record TaskPageDTO(
+        List<TaskDTO> tasks,
+        String nextCursor
+) {}
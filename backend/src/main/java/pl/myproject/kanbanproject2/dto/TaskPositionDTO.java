@@ -0,0 +1,6 @@
+package pl.myproject.kanbanproject2.dto;
+
+/**
+ * One entry of a batch reorder: where the task should end up.
+ */
+public record TaskPositionDTO(Integer taskId, Integer columnId, Integer rowId, Integer position) {}
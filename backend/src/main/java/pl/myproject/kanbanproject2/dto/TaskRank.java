@@ -0,0 +1,10 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.Objects;
+
+public record TaskRank(Integer id, Integer columnId, Integer rowId, Integer position, String rankKey) {
+
+    public boolean inLane(Integer columnId, Integer rowId) {
+        return Objects.equals(this.columnId, columnId) && Objects.equals(this.rowId, rowId);
+    }
+}
@@ -0,0 +1,20 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.time.LocalDateTime;
+
+public record TaskRow(
+        Integer id,
+        String title,
+        Integer position,
+        Integer columnId,
+        Integer rowId,
+        boolean completed,
+        String description,
+        Integer parentTaskId,
+        LocalDateTime deadline,
+        boolean expired,
+        String rankKey,
+        Long version,
+        int subtasksTotal,
+        int subtasksCompleted
+) {}
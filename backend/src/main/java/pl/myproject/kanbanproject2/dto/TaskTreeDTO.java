@@ -0,0 +1,22 @@
+package pl.myproject.kanbanproject2.dto;
+
+import java.util.List;
+
+/**
+ * A task with its children down to the requested depth. The descendant and subtask counts
+ * cover the whole subtree, also below that depth, so a collapsed node can still show its
+ * progress. Subtask counts include the task's own subtasks.
+ */
+public record TaskTreeDTO(
+        Integer id,
+        String title,
+        boolean completed,
+        Integer columnId,
+        Integer rowId,
+        int depth,
+        int descendantsTotal,
+        int descendantsCompleted,
+        int subtasksTotal,
+        int subtasksCompleted,
+        List<TaskTreeDTO> children
+) {}
@@ -0,0 +1,18 @@
+package pl.myproject.kanbanproject2.dto;
+
+/**
+ * One node of a task subtree with counts rolled up over the node and all its descendants.
+ */
+public record TaskTreeRow(
+        Integer id,
+        String title,
+        boolean completed,
+        Integer columnId,
+        Integer rowId,
+        Integer parentTaskId,
+        int depth,
+        int descendantsTotal,
+        int descendantsCompleted,
+        int subtasksTotal,
+        int subtasksCompleted
+) {}
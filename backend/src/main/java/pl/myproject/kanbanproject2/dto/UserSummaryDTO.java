@@ -0,0 +1,18 @@
+package pl.myproject.kanbanproject2.dto;
+
+public record UserSummaryDTO(
+        Integer id,
+        String name,
+        String email,
+        Integer wipLimit,
+        Long activeTaskCount,
+        String avatarVersion
+) {
+    /**
+     * Used by the aggregate query; every avatar upload creates a new file row,
+     * so its id is enough to tell clients when to refetch the image.
+     */
+    public UserSummaryDTO(Integer id, String name, String email, Integer wipLimit, Long activeTaskCount, Long avatarId) {
+        this(id, name, email, wipLimit, activeTaskCount, avatarId != null ? Long.toString(avatarId, 36) : null);
+    }
+}
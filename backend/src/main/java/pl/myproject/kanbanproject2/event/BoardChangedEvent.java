@@ -0,0 +1,41 @@
+package pl.myproject.kanbanproject2.event;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published by the services inside the writing transaction and consumed after commit.
+ * An event of type {@link BoardEntityType#BOARD} means the change could not be described
+ * by ids and listeners should reload everything.
+ */
+public record BoardChangedEvent(BoardEntityType entityType, Set<Integer> upsertedIds, Set<Integer> deletedIds) {
+
+    public static BoardChangedEvent upserted(BoardEntityType entityType, Integer... ids) {
+        return upserted(entityType, Arrays.asList(ids));
+    }
+
+    public static BoardChangedEvent upserted(BoardEntityType entityType, Collection<Integer> ids) {
+        return new BoardChangedEvent(entityType, toSet(ids), Set.of());
+    }
+
+    public static BoardChangedEvent deleted(BoardEntityType entityType, Integer... ids) {
+        return deleted(entityType, Arrays.asList(ids));
+    }
+
+    public static BoardChangedEvent deleted(BoardEntityType entityType, Collection<Integer> ids) {
+        return new BoardChangedEvent(entityType, Set.of(), toSet(ids));
+    }
+
+    public static BoardChangedEvent reloaded() {
+        return new BoardChangedEvent(BoardEntityType.BOARD, Set.of(), Set.of());
+    }
+
+    private static Set<Integer> toSet(Collection<Integer> ids) {
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
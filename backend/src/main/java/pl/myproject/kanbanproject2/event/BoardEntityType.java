@@ -0,0 +1,10 @@
+package pl.myproject.kanbanproject2.event;
+
+public enum BoardEntityType {
+    BOARD,
+    TASK,
+    COLUMN,
+    ROW,
+    SUBTASK,
+    USER
+}
@@ -0,0 +1,16 @@
+package pl.myproject.kanbanproject2.event;
+
+/**
+ * A "blocks" edge added or removed by one write, consumed after commit by the dependency
+ * graph so that it changes only the tasks the edge reaches instead of reloading all edges.
+ */
+public record TaskDependencyChangedEvent(Integer blockerId, Integer blockedId, boolean added) {
+
+    public static TaskDependencyChangedEvent added(Integer blockerId, Integer blockedId) {
+        return new TaskDependencyChangedEvent(blockerId, blockedId, true);
+    }
+
+    public static TaskDependencyChangedEvent removed(Integer blockerId, Integer blockedId) {
+        return new TaskDependencyChangedEvent(blockerId, blockedId, false);
+    }
+}
@@ -0,0 +1,27 @@
+package pl.myproject.kanbanproject2.event;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Labels added to and removed from a single task by one write, consumed after commit
+ * by the label catalogue to keep usage counts current without rescanning task_labels.
+ */
+public record TaskLabelsChangedEvent(Set<String> added, Set<String> removed) {
+
+    public static TaskLabelsChangedEvent of(Set<String> before, Set<String> after) {
+        Set<String> added = after != null ? new HashSet<>(after) : new HashSet<>();
+        Set<String> removed = before != null ? new HashSet<>(before) : new HashSet<>();
+        if (before != null) {
+            added.removeAll(before);
+        }
+        if (after != null) {
+            removed.removeAll(after);
+        }
+        return new TaskLabelsChangedEvent(Set.copyOf(added), Set.copyOf(removed));
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+}
@@ -0,0 +1,8 @@
+package pl.myproject.kanbanproject2.event;
+
+/**
+ * Published when tasks entered a column or row past its WIP limit because limits are
+ * configured as soft. The write itself goes through; the event only flags the violation.
+ */
+public record WipLimitExceededEvent(BoardEntityType entityType, Integer id, int enteringTasks) {
+}
@@ -34,7 +34,23 @@ public class ColumnMapper implements Function<Column, ColumnDTO> {
                 column.getName(),
                 column.getPosition(),
                 column.getWipLimit(),
-                taskDTOs
+                taskDTOs,
+                column.getVersion()
         );
     }
-}
\ No newline at end of file
+
+    public ColumnDTO toSummary(Column column) {
+        if (column == null) {
+            return null;
+        }
+
+        return new ColumnDTO(
+                column.getId(),
+                column.getName(),
+                column.getPosition(),
+                column.getWipLimit(),
+                null,
+                column.getVersion()
+        );
+    }
+}
@@ -33,7 +33,23 @@ public class RowMapper implements Function<Row, RowDTO> {
                 row.getName(),
                 row.getPosition(),
                 row.getWipLimit(),
-                taskDTOs
+                taskDTOs,
+                row.getVersion()
         );
     }
-}
\ No newline at end of file
+
+    public RowDTO toSummary(Row row) {
+        if (row == null) {
+            return null;
+        }
+
+        return new RowDTO(
+                row.getId(),
+                row.getName(),
+                row.getPosition(),
+                row.getWipLimit(),
+                null,
+                row.getVersion()
+        );
+    }
+}
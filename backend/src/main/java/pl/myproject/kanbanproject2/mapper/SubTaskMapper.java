@@ -31,7 +31,8 @@ public class SubTaskMapper {
                 entity.getDescription(),
                 entity.isCompleted(),
                 entity.getPosition(),
-                entity.getTask() != null ? entity.getTask().getId() : null
+                entity.getTask() != null ? entity.getTask().getId() : null,
+                entity.getVersion()
         );
     }
 
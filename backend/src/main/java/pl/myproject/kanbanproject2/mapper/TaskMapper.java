@@ -2,6 +2,7 @@ package pl.myproject.kanbanproject2.mapper;
 
 import org.springframework.stereotype.Component;
 import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskRow;
 import pl.myproject.kanbanproject2.model.Task;
 import pl.myproject.kanbanproject2.model.User;
 
@@ -63,7 +64,37 @@ public class TaskMapper implements Function<Task, TaskDTO> {
                 parentTaskId,
                 childTaskIds,
                 task.getDeadline(),
-                task.isExpired()
+                task.isExpired(),
+                task.getRankKey(),
+                task.getVersion(),
+                task.getSubtasksTotal(),
+                task.getSubtasksCompleted()
         );
     }
-}
\ No newline at end of file
+
+    public TaskDTO apply(TaskRow row, Set<Integer> userIds, Set<String> labels, Set<Integer> childTaskIds) {
+        if (row == null) {
+            return null;
+        }
+
+        return new TaskDTO(
+                row.id(),
+                row.title(),
+                row.position(),
+                row.columnId(),
+                row.rowId(),
+                userIds != null ? userIds : new HashSet<>(),
+                labels != null ? labels : new HashSet<>(),
+                row.completed(),
+                row.description(),
+                row.parentTaskId(),
+                childTaskIds != null && !childTaskIds.isEmpty() ? childTaskIds : null,
+                row.deadline(),
+                row.expired(),
+                row.rankKey(),
+                row.version(),
+                row.subtasksTotal(),
+                row.subtasksCompleted()
+        );
+    }
+}
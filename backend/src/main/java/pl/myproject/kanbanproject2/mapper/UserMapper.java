@@ -5,6 +5,8 @@ import org.springframework.stereotype.Component;
 import pl.myproject.kanbanproject2.dto.UserDTO;
 import pl.myproject.kanbanproject2.dto.TaskDTO;
 import pl.myproject.kanbanproject2.model.User;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.function.Function;
 
@@ -32,4 +34,20 @@ public class UserMapper implements Function<User, UserDTO> {
                 user.getWipLimit()
         );
     }
+
+    /**
+     * Maps a user with tasks that were already mapped elsewhere (the board read model),
+     * without touching the lazy task collection.
+     */
+    public UserDTO apply(User user, Set<TaskDTO> tasks) {
+        if (user == null) return null;
+
+        return new UserDTO(
+                user.getId(),
+                user.getEmail(),
+                user.getName(),
+                tasks != null ? tasks : new HashSet<>(),
+                user.getWipLimit()
+        );
+    }
 }
@@ -1,6 +1,9 @@
 package pl.myproject.kanbanproject2.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,14 +16,25 @@ import java.util.List;
 @Getter
 @Entity
 @Table(name = "columns")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "columns")
 public class Column {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
+    @Version
+    @jakarta.persistence.Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     private String name;
     private Integer position;
     @jakarta.persistence.Column(name = "wip_limit")
     private Integer wipLimit;
-    @OneToMany(mappedBy = "column",cascade = CascadeType.ALL)
+    // Licznik niezakończonych zadań; zmienia go tylko WipCounters warunkowym UPDATE, Hibernate go nie zapisuje
+    @jakarta.persistence.Column(name = "active_task_count", insertable = false, updatable = false,
+            columnDefinition = "integer default 0 not null")
+    private Integer activeTaskCount;
+    // Bez kaskady: usunięcie kolumny usuwa albo przenosi zadania zbiorczo (ColumnService)
+    @OneToMany(mappedBy = "column")
+    @BatchSize(size = 50)
     List<Task> tasks;
 }
@@ -2,6 +2,9 @@ package pl.myproject.kanbanproject2.model;
 
 import jakarta.persistence.*;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 import java.util.List;
@@ -11,17 +14,27 @@ import java.util.List;
 @Getter
 @Entity
 @Table(name = "rows")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rows")
 public class Row {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
     private Integer id;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     @Column(name = "name")
     private String name;
     private Integer position;
     @Column(name = "wip_limit")
     private Integer wipLimit;
+    // Licznik niezakończonych zadań; zmienia go tylko WipCounters warunkowym UPDATE, Hibernate go nie zapisuje
+    @Column(name = "active_task_count", insertable = false, updatable = false,
+            columnDefinition = "integer default 0 not null")
+    private Integer activeTaskCount;
     @OneToMany(mappedBy = "row", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @BatchSize(size = 50)
     List<Task> tasks;
 
 }
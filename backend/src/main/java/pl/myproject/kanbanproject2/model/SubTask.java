@@ -15,8 +15,12 @@ import lombok.Setter;
 @Table(name = "subtasks")
 public class SubTask {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subtasks_seq")
+    @SequenceGenerator(name = "subtasks_seq", sequenceName = "subtasks_seq", allocationSize = 50)
     private Integer id;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     @Column(columnDefinition = "TEXT")
     private String title;
     private String description;
@@ -6,6 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,19 +23,62 @@ import java.util.Set;
 @Setter
 @Getter
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_lane_rank", columnList = "column_id, row_id, rank_key"),
+        @Index(name = "idx_task_position", columnList = "position, id")
+})
+@NamedEntityGraph(name = Task.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("column"),
+        @NamedAttributeNode("row"),
+        @NamedAttributeNode("parentTask"),
+        @NamedAttributeNode("labels")
+})
+@NamedEntityGraph(name = Task.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("column"),
+        @NamedAttributeNode("row"),
+        @NamedAttributeNode("parentTask"),
+        @NamedAttributeNode("labels"),
+        @NamedAttributeNode("users"),
+        @NamedAttributeNode("childTasks")
+})
+@NamedEntityGraph(name = Task.HIERARCHY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("parentTask"),
+        @NamedAttributeNode("childTasks")
+})
 public class Task {
+    // Plany pobierania: lista (pozostałe kolekcje ładowane wsadowo), szczegóły, hierarchia
+    public static final String LIST_GRAPH = "Task.list";
+    public static final String DETAIL_GRAPH = "Task.detail";
+    public static final String HIERARCHY_GRAPH = "Task.hierarchy";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Identyfikatory z puli sekwencji, dzięki czemu INSERT-y mogą iść wsadowo (IDENTITY to wyklucza)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Integer id;
+    // Wersja do optymistycznej blokady; wystawiana klientom jako ETag, domyślna wartość uzupełnia istniejące wiersze
+    @Version
+    @jakarta.persistence.Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     private String title;
     private Integer position;
+    // Klucz kolejności w obrębie kolumny i wiersza (RankKey); nadawany przez serwer
+    @jakarta.persistence.Column(name = "rank_key")
+    private String rankKey;
     private boolean completed;
     private String description;
     @jakarta.persistence.Column(name = "deadline")
     private LocalDateTime deadline;
     @jakarta.persistence.Column(name = "expired")
     private boolean expired = false;
+    // Postęp podzadań; przy tworzeniu liczony z listy, później zmienia go tylko SubTaskService pojedynczym UPDATE
+    @jakarta.persistence.Column(name = "subtasks_total", updatable = false, columnDefinition = "integer default 0 not null")
+    private int subtasksTotal;
+    @jakarta.persistence.Column(name = "subtasks_completed", updatable = false, columnDefinition = "integer default 0 not null")
+    private int subtasksCompleted;
     @ElementCollection
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task-labels")
     @CollectionTable(name = "task_labels", joinColumns = @JoinColumn(name = "task_id"))
     @jakarta.persistence.Column(name = "label")
     private Set<String> labels;
@@ -43,6 +89,7 @@ public class Task {
     @JoinColumn(name = "row_id", nullable = true)
     private Row row;
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "user_task",
             joinColumns = @JoinColumn(name = "task_id"),
@@ -52,6 +99,7 @@ public class Task {
     private Set<User> users = new HashSet<>();
 
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<SubTask> subTasks = new ArrayList<>();
     @ManyToOne
     @JoinColumn(name = "parent_task_id")
@@ -59,6 +107,7 @@ public class Task {
     private Task parentTask;
 
     @OneToMany(mappedBy = "parentTask", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @BatchSize(size = 50)
     @JsonIgnoreProperties("parentTask")
     private Set<Task> childTasks = new HashSet<>();
     public boolean isExpired() {
@@ -0,0 +1,47 @@
+package pl.myproject.kanbanproject2.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * One ancestor/descendant pair of the parent-child task hierarchy, for every pair and not
+ * only direct parents, so that ancestors, descendants and cycle checks are single indexed
+ * lookups. A task is not stored as its own ancestor. The rows are written only with set-based
+ * JDBC statements of {@link pl.myproject.kanbanproject2.repository.TaskClosureRepositoryCustom}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Entity
+@IdClass(TaskClosure.Key.class)
+@Table(name = "task_closure",
+        indexes = @Index(name = "idx_task_closure_descendant", columnList = "descendant_id, depth"))
+public class TaskClosure {
+
+    @Id
+    @jakarta.persistence.Column(name = "ancestor_id")
+    private Integer ancestorId;
+
+    @Id
+    @jakarta.persistence.Column(name = "descendant_id")
+    private Integer descendantId;
+
+    // 1 dla bezpośredniego rodzica, 2 dla dziadka itd.
+    @jakarta.persistence.Column(nullable = false)
+    private int depth;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer ancestorId;
+        private Integer descendantId;
+    }
+}
@@ -11,10 +11,12 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @Entity
-@Table(name = "task_column_history")
+@Table(name = "task_column_history",
+        indexes = @Index(name = "idx_task_column_history_order", columnList = "task_id, history_order"))
 public class TaskColumnHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_column_history_seq")
+    @SequenceGenerator(name = "task_column_history_seq", sequenceName = "task_column_history_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne
@@ -0,0 +1,42 @@
+package pl.myproject.kanbanproject2.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * A "blocks" edge between two tasks: the blocked task should not be worked on until the
+ * blocker is completed. The edges form a directed acyclic graph kept in memory by
+ * {@link pl.myproject.kanbanproject2.service.TaskDependencyGraph}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Entity
+@IdClass(TaskDependency.Key.class)
+@Table(name = "task_dependency",
+        indexes = @Index(name = "idx_task_dependency_blocked", columnList = "blocked_id"))
+public class TaskDependency {
+
+    @Id
+    @jakarta.persistence.Column(name = "blocker_id")
+    private Integer blockerId;
+
+    @Id
+    @jakarta.persistence.Column(name = "blocked_id")
+    private Integer blockedId;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer blockerId;
+        private Integer blockedId;
+    }
+}
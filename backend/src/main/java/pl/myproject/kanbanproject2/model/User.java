@@ -7,6 +7,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
@@ -25,6 +28,8 @@ import java.util.Set;
 @Getter
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User implements UserDetails {
 
     @Id
@@ -41,7 +46,12 @@ public class User implements UserDetails {
     @Column(name = "verification_expiration")
     private LocalDateTime verificationCodeExpiresAt;
     private Integer wipLimit;
+    // Liczba przypisań do niezakończonych zadań; zmienia ją tylko WipCounters warunkowym UPDATE
+    @Column(name = "active_task_count", insertable = false, updatable = false,
+            columnDefinition = "integer default 0 not null")
+    private Integer activeTaskCount;
     @ManyToMany(mappedBy = "users", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     @JsonIgnore
     private Set<Task> tasks = new HashSet<>();
     @OneToOne(cascade = CascadeType.ALL)
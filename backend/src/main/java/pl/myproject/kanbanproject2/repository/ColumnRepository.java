@@ -1,7 +1,27 @@
 package pl.myproject.kanbanproject2.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import pl.myproject.kanbanproject2.model.Column;
 
-public interface ColumnRepository extends JpaRepository<Column, Integer> {
+import java.util.List;
+import java.util.Optional;
+
+public interface ColumnRepository extends JpaRepository<Column, Integer>, ColumnRepositoryCustom {
+    List<Column> findAllByOrderByPositionAscIdAsc();
+
+    @Override
+    @EntityGraph(attributePaths = "tasks")
+    Optional<Column> findById(Integer id);
+
+    // Sama kolumna, bez zadań dociąganych przez graf findById
+    @Query("select c from Column c where c.id = :id")
+    Optional<Column> findWithoutTasksById(Integer id);
+
+    // deleteById wczytałby kolumnę przez findById razem ze wszystkimi zadaniami
+    @Modifying
+    @Query("delete from Column c where c.id = :id")
+    void bulkDeleteById(Integer id);
 }
@@ -0,0 +1,36 @@
+package pl.myproject.kanbanproject2.repository;
+
+import pl.myproject.kanbanproject2.dto.PositionDTO;
+
+import java.util.List;
+
+public interface ColumnRepositoryCustom {
+
+    /**
+     * Writes positions of many columns with one JDBC batch and evicts them from the
+     * second-level cache, which does not see JDBC writes.
+     */
+    void batchUpdatePositions(List<PositionDTO> positions);
+
+    /**
+     * Adds {@code count} active tasks to the column's counter unless that would take it over
+     * the column's WIP limit ({@code null} or {@code 0} means no limit). The check and the write
+     * are one conditional UPDATE, so concurrent callers cannot overshoot the limit together.
+     *
+     * @return whether the counter was incremented
+     */
+    boolean admitActiveTasks(Integer id, int count);
+
+    /**
+     * Changes the column's active task counter by {@code delta} regardless of the WIP limit,
+     * never below zero.
+     */
+    void adjustActiveTaskCount(Integer id, int delta);
+
+    /**
+     * Recomputes the active task counters of all columns from the task table.
+     *
+     * @return number of columns whose counter was wrong
+     */
+    int recountActiveTasks();
+}
@@ -0,0 +1,58 @@
+package pl.myproject.kanbanproject2.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
+import pl.myproject.kanbanproject2.model.Column;
+
+import java.util.List;
+
+public class ColumnRepositoryImpl implements ColumnRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchUpdatePositions(List<PositionDTO> positions) {
+        jdbcTemplate.batchUpdate("update columns set position = ?, version = version + 1 where id = ?",
+                positions.stream()
+                        .map(p -> new Object[]{p.position(), p.id()})
+                        .toList());
+
+        var cache = entityManager.getEntityManagerFactory().getCache();
+        positions.forEach(p -> cache.evict(Column.class, p.id()));
+    }
+
+    @Override
+    public boolean admitActiveTasks(Integer id, int count) {
+        // Limit 0 oznacza w interfejsie brak limitu, tak jak null
+        int updated = jdbcTemplate.update("update columns set active_task_count = active_task_count + ? " +
+                "where id = ? and (wip_limit is null or wip_limit <= 0 or active_task_count + ? <= wip_limit)", count, id, count);
+        evict(id);
+        return updated > 0;
+    }
+
+    @Override
+    public void adjustActiveTaskCount(Integer id, int delta) {
+        jdbcTemplate.update("update columns set active_task_count = greatest(active_task_count + ?, 0) where id = ?", delta, id);
+        evict(id);
+    }
+
+    @Override
+    public int recountActiveTasks() {
+        String actual = "(select count(*) from task t where t.column_id = columns.id and t.completed = false)";
+        int fixed = jdbcTemplate.update("update columns set active_task_count = " + actual +
+                " where active_task_count <> " + actual);
+        entityManager.getEntityManagerFactory().getCache().evict(Column.class);
+        return fixed;
+    }
+
+    private void evict(Integer id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Column.class, id);
+    }
+}
@@ -1,8 +1,22 @@
 package pl.myproject.kanbanproject2.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import pl.myproject.kanbanproject2.model.Row;
 
-public interface RowRepository extends JpaRepository<Row, Integer> {
+import java.util.List;
+import java.util.Optional;
+
+public interface RowRepository extends JpaRepository<Row, Integer>, RowRepositoryCustom {
+    List<Row> findAllByOrderByPositionAscIdAsc();
+
+    @Override
+    @EntityGraph(attributePaths = "tasks")
+    Optional<Row> findById(Integer id);
+
+    // Sam wiersz, bez zadań dociąganych przez graf findById
+    @Query("select r from Row r where r.id = :id")
+    Optional<Row> findWithoutTasksById(Integer id);
 }
@@ -0,0 +1,42 @@
+package pl.myproject.kanbanproject2.repository;
+
+import pl.myproject.kanbanproject2.dto.PositionDTO;
+
+import java.util.List;
+
+public interface RowRepositoryCustom {
+
+    /**
+     * Writes positions of many rows with one JDBC batch and evicts them from the
+     * second-level cache, which does not see JDBC writes.
+     */
+    void batchUpdatePositions(List<PositionDTO> positions);
+
+    /**
+     * Adds {@code count} active tasks to the row's counter unless that would take it over
+     * the row's WIP limit ({@code null} or {@code 0} means no limit). The check and the write
+     * are one conditional UPDATE, so concurrent callers cannot overshoot the limit together.
+     *
+     * @return whether the counter was incremented
+     */
+    boolean admitActiveTasks(Integer id, int count);
+
+    /**
+     * Changes the row's active task counter by {@code delta} regardless of the WIP limit,
+     * never below zero.
+     */
+    void adjustActiveTaskCount(Integer id, int delta);
+
+    /**
+     * Takes the active tasks of a column off the counters of their rows, in one statement,
+     * before the column is deleted together with its tasks.
+     */
+    void releaseActiveTasksOfColumn(Integer columnId);
+
+    /**
+     * Recomputes the active task counters of all rows from the task table.
+     *
+     * @return number of rows whose counter was wrong
+     */
+    int recountActiveTasks();
+}
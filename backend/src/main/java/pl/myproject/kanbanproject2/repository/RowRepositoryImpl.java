@@ -0,0 +1,66 @@
+package pl.myproject.kanbanproject2.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
+import pl.myproject.kanbanproject2.model.Row;
+
+import java.util.List;
+
+public class RowRepositoryImpl implements RowRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchUpdatePositions(List<PositionDTO> positions) {
+        jdbcTemplate.batchUpdate("update rows set position = ?, version = version + 1 where id = ?",
+                positions.stream()
+                        .map(p -> new Object[]{p.position(), p.id()})
+                        .toList());
+
+        var cache = entityManager.getEntityManagerFactory().getCache();
+        positions.forEach(p -> cache.evict(Row.class, p.id()));
+    }
+
+    @Override
+    public boolean admitActiveTasks(Integer id, int count) {
+        // Limit 0 oznacza w interfejsie brak limitu, tak jak null
+        int updated = jdbcTemplate.update("update rows set active_task_count = active_task_count + ? " +
+                "where id = ? and (wip_limit is null or wip_limit <= 0 or active_task_count + ? <= wip_limit)", count, id, count);
+        evict(id);
+        return updated > 0;
+    }
+
+    @Override
+    public void adjustActiveTaskCount(Integer id, int delta) {
+        jdbcTemplate.update("update rows set active_task_count = greatest(active_task_count + ?, 0) where id = ?", delta, id);
+        evict(id);
+    }
+
+    @Override
+    public void releaseActiveTasksOfColumn(Integer columnId) {
+        jdbcTemplate.update("update rows set active_task_count = greatest(active_task_count - " +
+                "(select count(*) from task t where t.row_id = rows.id and t.column_id = ? and t.completed = false), 0) " +
+                "where id in (select t.row_id from task t where t.column_id = ? and t.completed = false)", columnId, columnId);
+        entityManager.getEntityManagerFactory().getCache().evict(Row.class);
+    }
+
+    @Override
+    public int recountActiveTasks() {
+        String actual = "(select count(*) from task t where t.row_id = rows.id and t.completed = false)";
+        int fixed = jdbcTemplate.update("update rows set active_task_count = " + actual +
+                " where active_task_count <> " + actual);
+        entityManager.getEntityManagerFactory().getCache().evict(Row.class);
+        return fixed;
+    }
+
+    private void evict(Integer id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Row.class, id);
+    }
+}
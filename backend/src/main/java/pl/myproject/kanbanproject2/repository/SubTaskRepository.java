@@ -1,7 +1,25 @@
 package pl.myproject.kanbanproject2.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import pl.myproject.kanbanproject2.dto.SubTaskDTO;
 import pl.myproject.kanbanproject2.model.SubTask;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface SubTaskRepository extends JpaRepository<SubTask, Integer> {
+
+    @Override
+    @EntityGraph(attributePaths = "task")
+    List<SubTask> findAll();
+
+    @Query("select new pl.myproject.kanbanproject2.dto.SubTaskDTO(s.id, s.title, s.description, s.completed, " +
+            "s.position, t.id, s.version) from SubTask s left join s.task t")
+    List<SubTaskDTO> findAllSubTaskDTOs();
+
+    @Query("select new pl.myproject.kanbanproject2.dto.SubTaskDTO(s.id, s.title, s.description, s.completed, " +
+            "s.position, t.id, s.version) from SubTask s left join s.task t where s.id in :ids")
+    List<SubTaskDTO> findSubTaskDTOsByIdIn(Collection<Integer> ids);
 }
@@ -0,0 +1,20 @@
+package pl.myproject.kanbanproject2.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import pl.myproject.kanbanproject2.model.TaskClosure;
+
+import java.util.List;
+
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosure.Key>, TaskClosureRepositoryCustom {
+
+    boolean existsByAncestorIdAndDescendantId(Integer ancestorId, Integer descendantId);
+
+    // Od rodzica do korzenia
+    @Query("select c.ancestorId from TaskClosure c where c.descendantId = :taskId order by c.depth")
+    List<Integer> findAncestorIds(Integer taskId);
+
+    // Poziomami: najpierw dzieci, potem wnuki itd.
+    @Query("select c.descendantId from TaskClosure c where c.ancestorId = :taskId order by c.depth, c.descendantId")
+    List<Integer> findDescendantIds(Integer taskId);
+}
@@ -0,0 +1,36 @@
+package pl.myproject.kanbanproject2.repository;
+
+import pl.myproject.kanbanproject2.dto.TaskChild;
+
+import java.util.List;
+
+public interface TaskClosureRepositoryCustom {
+
+    /**
+     * Puts the subtree of {@code childId} under {@code parentId}: pairs every ancestor of the
+     * parent (and the parent) with every descendant of the child (and the child) in one
+     * INSERT ... SELECT. The child must not have a parent at that moment.
+     */
+    void link(Integer childId, Integer parentId);
+
+    /**
+     * Links newly created tasks, which have no descendants yet, to their parents with one
+     * JDBC batch.
+     */
+    void linkLeaves(List<TaskChild> children);
+
+    /**
+     * Detaches the subtree of {@code childId} from all ancestors of the child with one DELETE;
+     * pairs inside the subtree stay.
+     */
+    void unlink(Integer childId);
+
+    /**
+     * Rebuilds the whole table from {@code task.parent_task_id} when the number of direct
+     * parent pairs differs from the number of tasks with a parent, e.g. on the first start
+     * after the table was added.
+     *
+     * @return whether the table was rebuilt
+     */
+    boolean rebuildIfOutOfSync();
+}
@@ -0,0 +1,69 @@
+package pl.myproject.kanbanproject2.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+
+import java.util.List;
+
+public class TaskClosureRepositoryImpl implements TaskClosureRepositoryCustom {
+
+    // Poddrzewo zadania razem z nim samym (głębokość 0)
+    private static final String SUBTREE = "select descendant_id, depth from task_closure where ancestor_id = ? " +
+            "union all select cast(? as integer), 0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void link(Integer childId, Integer parentId) {
+        jdbcTemplate.update("insert into task_closure (ancestor_id, descendant_id, depth) " +
+                        "select a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                        "from (select ancestor_id, depth from task_closure where descendant_id = ? " +
+                        "union all select cast(? as integer), 0) a " +
+                        "cross join (" + SUBTREE + ") d",
+                parentId, parentId, childId, childId);
+    }
+
+    @Override
+    public void linkLeaves(List<TaskChild> children) {
+        jdbcTemplate.batchUpdate("insert into task_closure (ancestor_id, descendant_id, depth) " +
+                        "select ancestor_id, cast(? as integer), depth + 1 from task_closure where descendant_id = ? " +
+                        "union all select cast(? as integer), cast(? as integer), 1",
+                children.stream()
+                        .map(child -> new Object[]{child.taskId(), child.parentTaskId(), child.parentTaskId(), child.taskId()})
+                        .toList());
+    }
+
+    @Override
+    public void unlink(Integer childId) {
+        String subtree = "select descendant_id from task_closure where ancestor_id = ? union all select cast(? as integer)";
+        jdbcTemplate.update("delete from task_closure where descendant_id in (" + subtree + ") " +
+                "and ancestor_id not in (" + subtree + ")", childId, childId, childId, childId);
+    }
+
+    @Override
+    public boolean rebuildIfOutOfSync() {
+        Integer missing = jdbcTemplate.queryForObject("select count(*) from task t where t.parent_task_id is not null " +
+                "and not exists (select 1 from task_closure c where c.ancestor_id = t.parent_task_id " +
+                "and c.descendant_id = t.id and c.depth = 1)", Integer.class);
+        Integer stale = jdbcTemplate.queryForObject("select count(*) from task_closure c where c.depth = 1 " +
+                "and not exists (select 1 from task t where t.id = c.descendant_id and t.parent_task_id = c.ancestor_id)",
+                Integer.class);
+        if (missing == 0 && stale == 0) {
+            return false;
+        }
+
+        jdbcTemplate.update("delete from task_closure");
+        int inserted = jdbcTemplate.update("insert into task_closure (ancestor_id, descendant_id, depth) " +
+                "select parent_task_id, id, 1 from task where parent_task_id is not null");
+        // Jeden poziom na zapytanie; warunek not exists zatrzymuje pętlę także przy cyklu w starych danych
+        for (int depth = 1; inserted > 0; depth++) {
+            inserted = jdbcTemplate.update("insert into task_closure (ancestor_id, descendant_id, depth) " +
+                    "select c.ancestor_id, t.id, c.depth + 1 from task_closure c join task t on t.parent_task_id = c.descendant_id " +
+                    "where c.depth = ? and t.id <> c.ancestor_id and not exists (select 1 from task_closure x " +
+                    "where x.ancestor_id = c.ancestor_id and x.descendant_id = t.id)", depth);
+        }
+        return true;
+    }
+}
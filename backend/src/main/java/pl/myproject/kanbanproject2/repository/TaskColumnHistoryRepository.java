@@ -1,14 +1,35 @@
 package pl.myproject.kanbanproject2.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import pl.myproject.kanbanproject2.dto.TaskHistoryOrder;
 import pl.myproject.kanbanproject2.model.Task;
 import pl.myproject.kanbanproject2.model.TaskColumnHistory;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskColumnHistoryRepository extends JpaRepository<TaskColumnHistory, Integer> {
     List<TaskColumnHistory> findByTaskOrderByChangedAtDesc(Task task);
     List<TaskColumnHistory> findByTaskIdOrderByChangedAtDesc(Integer taskId);
+
+    @Query("select max(h.historyOrder) from TaskColumnHistory h where h.task = :task")
+    Optional<Integer> findMaxHistoryOrder(Task task);
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskHistoryOrder(h.task.id, max(h.historyOrder)) " +
+            "from TaskColumnHistory h where h.task.id in :taskIds group by h.task.id")
+    List<TaskHistoryOrder> findMaxHistoryOrders(Collection<Integer> taskIds);
+
+    @Modifying
+    @Query("delete from TaskColumnHistory h where h.column.id = :columnId")
+    void deleteAllByColumnId(Integer columnId);
+
+    // Wpisy zachowują zapisaną nazwę kolumny, zmienia się tylko klucz obcy
+    @Modifying
+    @Query("update TaskColumnHistory h set h.column.id = :targetColumnId where h.column.id = :columnId")
+    void reassignColumn(Integer columnId, Integer targetColumnId);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package pl.myproject.kanbanproject2.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import pl.myproject.kanbanproject2.dto.TaskDependencyDTO;
+import pl.myproject.kanbanproject2.model.TaskDependency;
+
+import java.util.List;
+
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, TaskDependency.Key> {
+
+    boolean existsByBlockerIdAndBlockedId(Integer blockerId, Integer blockedId);
+
+    // Tabela nie ma kluczy obcych: krawędzie do usuniętych zadań pomijamy, zamiast tworzyć dla nich węzły
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskDependencyDTO(d.blockerId, d.blockedId) " +
+            "from TaskDependency d join Task blocker on blocker.id = d.blockerId " +
+            "join Task blocked on blocked.id = d.blockedId order by d.blockerId, d.blockedId")
+    List<TaskDependencyDTO> findAllDependencies();
+
+    @Modifying
+    @Query("delete from TaskDependency d where d.blockerId = :blockerId and d.blockedId = :blockedId")
+    int deleteDependency(Integer blockerId, Integer blockedId);
+}
@@ -1,11 +1,128 @@
 package pl.myproject.kanbanproject2.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import pl.myproject.kanbanproject2.dto.LabelUsageDTO;
+import pl.myproject.kanbanproject2.dto.TaskAssignment;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+import pl.myproject.kanbanproject2.dto.TaskLabel;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.dto.TaskRow;
 import pl.myproject.kanbanproject2.model.Task;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+public interface TaskRepository extends JpaRepository<Task, Integer>, TaskRepositoryCustom {
+    @Override
+    @EntityGraph(Task.DETAIL_GRAPH)
+    Optional<Task> findById(Integer id);
+
+    @EntityGraph(Task.HIERARCHY_GRAPH)
+    Optional<Task> findWithHierarchyById(Integer id);
+
+    @Override
+    @EntityGraph(Task.LIST_GRAPH)
+    List<Task> findAll();
+
+    // Etykiety dzieci nie są dociągane wsadowo przez graf hierarchii, więc lista dzieci ma własny plan
+    @EntityGraph(Task.LIST_GRAPH)
+    List<Task> findAllByParentTaskId(Integer parentTaskId);
+
+    // Zadanie terminowe potrzebuje tylko własnych pól; relacje EAGER pobieramy złączeniem
+    @EntityGraph(attributePaths = {"column", "row", "parentTask"})
     List<Task> findAllByDeadlineIsNotNull();
 
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskRow(t.id, t.title, t.position, c.id, r.id, " +
+            "t.completed, t.description, p.id, t.deadline, t.expired, t.rankKey, t.version, " +
+            "t.subtasksTotal, t.subtasksCompleted) " +
+            "from Task t left join t.column c left join t.row r left join t.parentTask p " +
+            "order by t.position, t.id")
+    List<TaskRow> findAllTaskRows();
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskRow(t.id, t.title, t.position, c.id, r.id, " +
+            "t.completed, t.description, p.id, t.deadline, t.expired, t.rankKey, t.version, " +
+            "t.subtasksTotal, t.subtasksCompleted) " +
+            "from Task t left join t.column c left join t.row r left join t.parentTask p " +
+            "where t.id in :ids")
+    List<TaskRow> findTaskRowsByIdIn(Collection<Integer> ids);
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskLabel(t.id, l) from Task t join t.labels l")
+    List<TaskLabel> findAllTaskLabels();
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskLabel(t.id, l) from Task t join t.labels l where t.id in :ids")
+    List<TaskLabel> findTaskLabelsByTaskIdIn(Collection<Integer> ids);
+
+    @Query("select new pl.myproject.kanbanproject2.dto.LabelUsageDTO(l, count(t)) from Task t join t.labels l " +
+            "group by l order by l")
+    List<LabelUsageDTO> findLabelUsage();
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskAssignment(t.id, u.id) from Task t join t.users u")
+    List<TaskAssignment> findAllTaskAssignments();
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskAssignment(t.id, u.id) from Task t join t.users u where t.id in :ids")
+    List<TaskAssignment> findTaskAssignmentsByTaskIdIn(Collection<Integer> ids);
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskChild(p.id, t.id) from Task t join t.parentTask p where p.id in :ids")
+    List<TaskChild> findTaskChildrenByParentIdIn(Collection<Integer> ids);
+
+    @Query("select t.id from Task t where t.column.id = :columnId")
+    List<Integer> findIdsByColumnId(Integer columnId);
+
+    @Query("select t.id from Task t join t.users u where u.id = :userId")
+    List<Integer> findIdsByUserId(Integer userId);
+
+    // Dzieci zadań z kolumny, które same są poza nią (tracą rodzica przy usuwaniu kolumny)
+    @Query("select t.id from Task t join t.parentTask p left join t.column c " +
+            "where p.column.id = :columnId and (c.id is null or c.id <> :columnId)")
+    List<Integer> findIdsOfChildrenOutsideColumn(Integer columnId);
+
+    @Query("select t.id from Task t where t.id in :ids and t.completed = :completed")
+    List<Integer> findIdsByIdInAndCompleted(Collection<Integer> ids, boolean completed);
+
+    // Pasy niezakończonych zadań, po jednym wpisie na zadanie (dla liczników WIP)
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskLane(c.id, r.id) " +
+            "from Task t left join t.column c left join t.row r where t.id in :ids and t.completed = false")
+    List<TaskLane> findActiveLanesByIdIn(Collection<Integer> ids);
+
+    // Zakończeni potomkowie zadania, poziomami; jedno zapytanie po tabeli domknięcia zamiast rekurencji
+    @Query("select t.id from TaskClosure c join Task t on t.id = c.descendantId " +
+            "where c.ancestorId = :taskId and t.completed = true order by c.depth, t.id")
+    List<Integer> findCompletedDescendantIds(Integer taskId);
+
+    @Query("select distinct t.id from TaskClosure c join Task t on t.id = c.descendantId " +
+            "where c.ancestorId in :taskIds and t.completed = true")
+    List<Integer> findCompletedDescendantIdsByAncestorIdIn(Collection<Integer> taskIds);
+
+    @Query("select t.id from Task t join t.parentTask p where t.id in :ids and p.completed = false")
+    List<Integer> findIdsWithOpenParentByIdIn(Collection<Integer> ids);
+
+    // Przypisani użytkownicy, po jednym wpisie na przypisanie (dla liczników WIP użytkowników)
+    @Query("select u.id from Task t join t.users u where t.id in :ids and t.completed = :completed")
+    List<Integer> findAssigneeIdsByIdInAndCompleted(Collection<Integer> ids, boolean completed);
+
+    // Klucze rangi: pas to para (kolumna, wiersz), obie mogą być puste
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskRank(t.id, c.id, r.id, t.position, t.rankKey) " +
+            "from Task t left join t.column c left join t.row r where t.id in :ids")
+    List<TaskRank> findTaskRanksByIdIn(Collection<Integer> ids);
+
+    @Query("select new pl.myproject.kanbanproject2.dto.TaskRank(t.id, c.id, r.id, t.position, t.rankKey) " +
+            "from Task t left join t.column c left join t.row r " +
+            "where (c.id = :columnId or (:columnId is null and c.id is null)) " +
+            "and (r.id = :rowId or (:rowId is null and r.id is null)) " +
+            "order by t.rankKey nulls last, t.position nulls last, t.id")
+    List<TaskRank> findLaneRanks(Integer columnId, Integer rowId);
+
+    @Query("select max(t.rankKey) from Task t left join t.column c left join t.row r " +
+            "where (c.id = :columnId or (:columnId is null and c.id is null)) " +
+            "and (r.id = :rowId or (:rowId is null and r.id is null))")
+    String findLastRankKey(Integer columnId, Integer rowId);
+
+    @Query("select distinct new pl.myproject.kanbanproject2.dto.TaskLane(c.id, r.id) " +
+            "from Task t left join t.column c left join t.row r " +
+            "where t.rankKey is null or length(t.rankKey) > :maxLength")
+    List<TaskLane> findLanesToRebalance(int maxLength);
 }
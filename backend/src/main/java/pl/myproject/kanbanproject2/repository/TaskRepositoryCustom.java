@@ -0,0 +1,88 @@
+package pl.myproject.kanbanproject2.repository;
+
+import pl.myproject.kanbanproject2.dto.TaskCursor;
+import pl.myproject.kanbanproject2.dto.TaskFilter;
+import pl.myproject.kanbanproject2.dto.TaskPositionDTO;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.dto.TaskRow;
+import pl.myproject.kanbanproject2.dto.TaskTreeRow;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Filtered task rows ordered by (position, id), starting strictly after the cursor.
+     */
+    List<TaskRow> findTaskRows(TaskFilter filter, TaskCursor after, int limit);
+
+    /**
+     * The task and its descendants down to {@code maxDepth} levels, ordered by depth and rank,
+     * with descendant and subtask counts rolled up over each node's whole subtree. One query
+     * over the hierarchy closure table; empty when the task does not exist.
+     */
+    List<TaskTreeRow> findTaskTree(Integer rootId, int maxDepth);
+
+    /**
+     * Writes column, row and position of many tasks with one JDBC batch. Entities already
+     * loaded in the persistence context are not refreshed.
+     */
+    void batchUpdatePositions(List<TaskPositionDTO> positions);
+
+    /**
+     * Writes rank keys of many tasks with one JDBC batch. Versions stay as they are: re-spacing
+     * keeps the order of a lane, so it must not fail a client's If-Match on those tasks.
+     */
+    void batchUpdateRankKeys(Map<Integer, String> rankKeys);
+
+    /**
+     * Writes column, row and rank key of many tasks with one JDBC batch.
+     */
+    void batchUpdateLanes(List<TaskRank> lanes);
+
+    /**
+     * Adds the label to every given task with one JDBC batch; the tasks must not have it yet.
+     */
+    void insertLabel(Collection<Integer> taskIds, String label);
+
+    void deleteLabel(Collection<Integer> taskIds, String label);
+
+    /**
+     * Assigns the user to every given task with one JDBC batch; the tasks must not have the
+     * user assigned yet.
+     */
+    void insertAssignments(Collection<Integer> taskIds, Integer userId);
+
+    void deleteAssignments(Collection<Integer> taskIds, Integer userId);
+
+    void updateCompleted(Collection<Integer> taskIds, boolean completed);
+
+    /**
+     * Changes the task's subtask counters by the given deltas with one UPDATE, never below zero.
+     * The version stays as it is: a subtask edit must not fail a client's If-Match on the task.
+     */
+    void adjustSubtaskCounts(Integer taskId, int totalDelta, int completedDelta);
+
+    /**
+     * Recomputes the subtask counters of all tasks from the subtask table.
+     *
+     * @return number of tasks whose counters were wrong
+     */
+    int recountSubtasks();
+
+    void updateDeadline(Collection<Integer> taskIds, LocalDateTime deadline, boolean expired);
+
+    /**
+     * Deletes the tasks with their subtasks, labels, assignments, dependencies and column
+     * history using one statement per table; children of deleted tasks outside the set are detached.
+     */
+    void deleteAllWithDependents(Collection<Integer> taskIds);
+
+    /**
+     * Same as {@link #deleteAllWithDependents(Collection)} for every task of a column.
+     */
+    void deleteAllByColumnIdWithDependents(Integer columnId);
+}
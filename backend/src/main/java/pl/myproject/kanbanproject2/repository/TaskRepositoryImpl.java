@@ -0,0 +1,279 @@
+package pl.myproject.kanbanproject2.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import pl.myproject.kanbanproject2.dto.TaskCursor;
+import pl.myproject.kanbanproject2.dto.TaskFilter;
+import pl.myproject.kanbanproject2.dto.TaskPositionDTO;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.dto.TaskRow;
+import pl.myproject.kanbanproject2.dto.TaskTreeRow;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Override
+    public List<TaskRow> findTaskRows(TaskFilter filter, TaskCursor after, int limit) {
+        // Kryteria Hibernate, bo standardowe JPA nie pozwala wskazać kolejności nulli
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<TaskRow> query = cb.createQuery(TaskRow.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, Column> column = task.join("column", JoinType.LEFT);
+        Join<Task, Row> row = task.join("row", JoinType.LEFT);
+        Join<Task, Task> parent = task.join("parentTask", JoinType.LEFT);
+
+        // Bez coalesce, żeby sortowanie i kursor mogły korzystać z indeksu (position, id)
+        Expression<Integer> position = task.get("position");
+        Expression<Integer> id = task.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.columnId() != null) {
+            predicates.add(cb.equal(column.get("id"), filter.columnId()));
+        }
+        if (filter.rowId() != null) {
+            predicates.add(cb.equal(row.get("id"), filter.rowId()));
+        }
+        if (filter.userId() != null) {
+            Subquery<Integer> assigned = query.subquery(Integer.class);
+            Root<Task> assignedTask = assigned.from(Task.class);
+            Join<Task, User> user = assignedTask.join("users");
+            assigned.select(assignedTask.get("id"))
+                    .where(cb.equal(assignedTask.get("id"), id), cb.equal(user.get("id"), filter.userId()));
+            predicates.add(cb.exists(assigned));
+        }
+        if (filter.label() != null) {
+            Subquery<Integer> labelled = query.subquery(Integer.class);
+            Root<Task> labelledTask = labelled.from(Task.class);
+            Join<Task, String> label = labelledTask.join("labels");
+            labelled.select(labelledTask.get("id"))
+                    .where(cb.equal(labelledTask.get("id"), id), cb.equal(label, filter.label()));
+            predicates.add(cb.exists(labelled));
+        }
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(task.get("completed"), filter.completed()));
+        }
+        if (filter.expired() != null) {
+            predicates.add(cb.equal(task.get("expired"), filter.expired()));
+        }
+        if (filter.deadlineFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("deadline"), filter.deadlineFrom()));
+        }
+        if (filter.deadlineTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.<LocalDateTime>get("deadline"), filter.deadlineTo()));
+        }
+        if (after != null && after.position() == null) {
+            // Zadania bez pozycji są na końcu, więc po nich zostają tylko kolejne bez pozycji
+            predicates.add(cb.and(cb.isNull(position), cb.greaterThan(id, after.id())));
+        } else if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(position, after.position()),
+                    cb.and(cb.equal(position, after.position()), cb.greaterThan(id, after.id())),
+                    cb.isNull(position)));
+        }
+
+        query.select(cb.construct(TaskRow.class,
+                        id, task.get("title"), task.get("position"), column.get("id"), row.get("id"),
+                        task.get("completed"), task.get("description"), parent.get("id"),
+                        task.get("deadline"), task.get("expired"), task.get("rankKey"), task.get("version"),
+                        task.get("subtasksTotal"), task.get("subtasksCompleted")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(position, false), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TaskTreeRow> findTaskTree(Integer rootId, int maxDepth) {
+        // members: każdy węzeł drzewa razem z całym swoim poddrzewem, także poniżej maxDepth
+        return jdbcTemplate.query("with nodes (id, depth) as (" +
+                        "select cast(? as integer), 0 " +
+                        "union all select descendant_id, depth from task_closure where ancestor_id = ? and depth <= ?), " +
+                        "members (node_id, member_id) as (" +
+                        "select id, id from nodes " +
+                        "union all select n.id, c.descendant_id from nodes n join task_closure c on c.ancestor_id = n.id) " +
+                        "select t.id, t.title, t.completed, t.column_id, t.row_id, t.parent_task_id, n.depth, " +
+                        "count(*) - 1 as descendants_total, " +
+                        "count(case when d.completed and d.id <> t.id then 1 end) as descendants_completed, " +
+                        "sum(d.subtasks_total) as subtasks_total, " +
+                        "sum(d.subtasks_completed) as subtasks_completed " +
+                        "from nodes n join task t on t.id = n.id " +
+                        "join members m on m.node_id = n.id " +
+                        "join task d on d.id = m.member_id " +
+                        "group by t.id, t.title, t.completed, t.column_id, t.row_id, t.parent_task_id, t.rank_key, n.depth " +
+                        "order by n.depth, t.rank_key, t.id",
+                (rs, rowNum) -> new TaskTreeRow(
+                        rs.getInt("id"),
+                        rs.getString("title"),
+                        rs.getBoolean("completed"),
+                        rs.getObject("column_id", Integer.class),
+                        rs.getObject("row_id", Integer.class),
+                        rs.getObject("parent_task_id", Integer.class),
+                        rs.getInt("depth"),
+                        rs.getInt("descendants_total"),
+                        rs.getInt("descendants_completed"),
+                        rs.getInt("subtasks_total"),
+                        rs.getInt("subtasks_completed")),
+                rootId, rootId, maxDepth);
+    }
+
+    @Override
+    public void batchUpdatePositions(List<TaskPositionDTO> positions) {
+        jdbcTemplate.batchUpdate("update task set column_id = ?, row_id = ?, position = ?, version = version + 1 where id = ?",
+                positions.stream()
+                        .map(p -> new Object[]{p.columnId(), p.rowId(), p.position(), p.taskId()})
+                        .toList());
+    }
+
+    @Override
+    public void batchUpdateRankKeys(Map<Integer, String> rankKeys) {
+        if (rankKeys.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("update task set rank_key = ? where id = ?",
+                rankKeys.entrySet().stream()
+                        .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                        .toList());
+    }
+
+    @Override
+    public void batchUpdateLanes(List<TaskRank> lanes) {
+        jdbcTemplate.batchUpdate("update task set column_id = ?, row_id = ?, rank_key = ?, version = version + 1 where id = ?",
+                lanes.stream()
+                        .map(lane -> new Object[]{lane.columnId(), lane.rowId(), lane.rankKey(), lane.id()})
+                        .toList());
+    }
+
+    @Override
+    public void insertLabel(Collection<Integer> taskIds, String label) {
+        jdbcTemplate.batchUpdate("insert into task_labels (task_id, label) values (?, ?)",
+                taskIds.stream().map(id -> new Object[]{id, label}).toList());
+        incrementVersions(taskIds);
+        evictLabels(taskIds);
+    }
+
+    @Override
+    public void deleteLabel(Collection<Integer> taskIds, String label) {
+        namedJdbcTemplate.update("delete from task_labels where label = :label and task_id in (:ids)",
+                new MapSqlParameterSource("ids", taskIds).addValue("label", label));
+        incrementVersions(taskIds);
+        evictLabels(taskIds);
+    }
+
+    @Override
+    public void insertAssignments(Collection<Integer> taskIds, Integer userId) {
+        jdbcTemplate.batchUpdate("insert into user_task (task_id, user_id) values (?, ?)",
+                taskIds.stream().map(id -> new Object[]{id, userId}).toList());
+        incrementVersions(taskIds);
+    }
+
+    @Override
+    public void deleteAssignments(Collection<Integer> taskIds, Integer userId) {
+        namedJdbcTemplate.update("delete from user_task where user_id = :userId and task_id in (:ids)",
+                new MapSqlParameterSource("ids", taskIds).addValue("userId", userId));
+        incrementVersions(taskIds);
+    }
+
+    @Override
+    public void updateCompleted(Collection<Integer> taskIds, boolean completed) {
+        namedJdbcTemplate.update("update task set completed = :completed, version = version + 1 where id in (:ids)",
+                new MapSqlParameterSource("ids", taskIds).addValue("completed", completed));
+    }
+
+    @Override
+    public void adjustSubtaskCounts(Integer taskId, int totalDelta, int completedDelta) {
+        jdbcTemplate.update("update task set subtasks_total = greatest(subtasks_total + ?, 0), " +
+                "subtasks_completed = greatest(subtasks_completed + ?, 0) where id = ?", totalDelta, completedDelta, taskId);
+    }
+
+    @Override
+    public int recountSubtasks() {
+        String total = "(select count(*) from subtasks s where s.task_id = task.id)";
+        String completed = "(select count(*) from subtasks s where s.task_id = task.id and s.completed = true)";
+        return jdbcTemplate.update("update task set subtasks_total = " + total + ", subtasks_completed = " + completed +
+                " where subtasks_total <> " + total + " or subtasks_completed <> " + completed);
+    }
+
+    @Override
+    public void updateDeadline(Collection<Integer> taskIds, LocalDateTime deadline, boolean expired) {
+        namedJdbcTemplate.update("update task set deadline = :deadline, expired = :expired, version = version + 1 where id in (:ids)",
+                new MapSqlParameterSource("ids", taskIds).addValue("deadline", deadline).addValue("expired", expired));
+    }
+
+    @Override
+    public void deleteAllWithDependents(Collection<Integer> taskIds) {
+        deleteWithDependents(":ids", new MapSqlParameterSource("ids", taskIds));
+        evictLabels(taskIds);
+    }
+
+    @Override
+    public void deleteAllByColumnIdWithDependents(Integer columnId) {
+        // Podzapytanie zamiast listy id: kolumna może mieć więcej zadań niż limit parametrów
+        deleteWithDependents("select id from task where column_id = :columnId",
+                new MapSqlParameterSource("columnId", columnId));
+        entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class)
+                .evictCollectionData(Task.class.getName() + ".labels");
+    }
+
+    private void deleteWithDependents(String taskIds, MapSqlParameterSource params) {
+        // Najpierw pary przodek-potomek prowadzące przez usuwane zadania (dzieci zostają korzeniami), potem ich własne
+        namedJdbcTemplate.update("delete from task_closure where exists (select 1 from task_closure up " +
+                "join task_closure down on down.ancestor_id = up.descendant_id where up.descendant_id in (" + taskIds + ") " +
+                "and up.ancestor_id = task_closure.ancestor_id and down.descendant_id = task_closure.descendant_id)", params);
+        namedJdbcTemplate.update("delete from task_closure where ancestor_id in (" + taskIds + ") " +
+                "or descendant_id in (" + taskIds + ")", params);
+        namedJdbcTemplate.update("delete from task_dependency where blocker_id in (" + taskIds + ") " +
+                "or blocked_id in (" + taskIds + ")", params);
+        namedJdbcTemplate.update("update task set parent_task_id = null, version = version + 1 where parent_task_id in (" + taskIds + ")", params);
+        namedJdbcTemplate.update("delete from task_column_history where task_id in (" + taskIds + ")", params);
+        namedJdbcTemplate.update("delete from subtasks where task_id in (" + taskIds + ")", params);
+        namedJdbcTemplate.update("delete from task_labels where task_id in (" + taskIds + ")", params);
+        namedJdbcTemplate.update("delete from user_task where task_id in (" + taskIds + ")", params);
+        namedJdbcTemplate.update("delete from task where id in (" + taskIds + ")", params);
+    }
+
+    // Zmiana kolekcji zadania zmienia jego wersję, tak jak przy zapisie przez Hibernate
+    private void incrementVersions(Collection<Integer> taskIds) {
+        namedJdbcTemplate.update("update task set version = version + 1 where id in (:ids)",
+                new MapSqlParameterSource("ids", taskIds));
+    }
+
+    // Etykiety są w cache drugiego poziomu, a zapisy JDBC go omijają
+    private void evictLabels(Collection<Integer> taskIds) {
+        var cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        taskIds.forEach(id -> cache.evictCollectionData(Task.class.getName() + ".labels", id));
+    }
+}
@@ -1,11 +1,26 @@
 package pl.myproject.kanbanproject2.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import pl.myproject.kanbanproject2.dto.UserSummaryDTO;
 import pl.myproject.kanbanproject2.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
     Optional<User> findByVerificationCode(String verificationCode);
+    // Wywoływane przy każdym żądaniu przez filtr JWT
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+
+    @Query("select new pl.myproject.kanbanproject2.dto.UserSummaryDTO(u.id, u.name, u.email, u.wipLimit, " +
+            "sum(case when t.id is not null and t.completed = false then 1L else 0L end), a.id) " +
+            "from User u left join u.tasks t left join u.avatar a " +
+            "group by u.id, u.name, u.email, u.wipLimit, a.id " +
+            "order by u.id")
+    List<UserSummaryDTO> findAllUserSummaries();
 }
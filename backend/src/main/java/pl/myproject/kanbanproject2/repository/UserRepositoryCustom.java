@@ -0,0 +1,36 @@
+package pl.myproject.kanbanproject2.repository;
+
+import java.util.List;
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Adds assignments of active tasks to the counters of users, given as user id to number
+     * of assignments, unless that would take a user over their WIP limit. Each check and
+     * write is one conditional UPDATE, so concurrent assignments cannot overshoot the limit
+     * together; the updates of all users go in one JDBC batch.
+     *
+     * @return ids of the users whose counter was not incremented
+     */
+    List<Integer> admitActiveTasks(Map<Integer, Integer> counts);
+
+    /**
+     * Changes the active task counters of users, given as user id to delta, regardless of
+     * their WIP limits and never below zero, with one JDBC batch.
+     */
+    void adjustActiveTaskCounts(Map<Integer, Integer> deltas);
+
+    /**
+     * Takes the active tasks of a column off the counters of their assignees, in one
+     * statement, before the column is deleted together with its tasks.
+     */
+    void releaseActiveTasksOfColumn(Integer columnId);
+
+    /**
+     * Recomputes the active task counters of all users from their assignments.
+     *
+     * @return number of users whose counter was wrong
+     */
+    int recountActiveTasks();
+}
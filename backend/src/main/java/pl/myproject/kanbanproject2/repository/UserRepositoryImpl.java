@@ -0,0 +1,74 @@
+package pl.myproject.kanbanproject2.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.myproject.kanbanproject2.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Integer> admitActiveTasks(Map<Integer, Integer> counts) {
+        List<Map.Entry<Integer, Integer>> entries = List.copyOf(counts.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate("update users set active_task_count = active_task_count + ? " +
+                        "where id = ? and (wip_limit is null or active_task_count + ? <= wip_limit)",
+                entries.stream()
+                        .map(e -> new Object[]{e.getValue(), e.getKey(), e.getValue()})
+                        .toList());
+        evict(counts.keySet());
+
+        List<Integer> rejected = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public void adjustActiveTaskCounts(Map<Integer, Integer> deltas) {
+        jdbcTemplate.batchUpdate("update users set active_task_count = greatest(active_task_count + ?, 0) where id = ?",
+                deltas.entrySet().stream()
+                        .map(e -> new Object[]{e.getValue(), e.getKey()})
+                        .toList());
+        evict(deltas.keySet());
+    }
+
+    @Override
+    public void releaseActiveTasksOfColumn(Integer columnId) {
+        jdbcTemplate.update("update users set active_task_count = greatest(active_task_count - " +
+                "(select count(*) from user_task ut join task t on t.id = ut.task_id " +
+                "where ut.user_id = users.id and t.column_id = ? and t.completed = false), 0) " +
+                "where id in (select ut.user_id from user_task ut join task t on t.id = ut.task_id " +
+                "where t.column_id = ? and t.completed = false)", columnId, columnId);
+        entityManager.getEntityManagerFactory().getCache().evict(User.class);
+    }
+
+    @Override
+    public int recountActiveTasks() {
+        String actual = "(select count(*) from user_task ut join task t on t.id = ut.task_id " +
+                "where ut.user_id = users.id and t.completed = false)";
+        int fixed = jdbcTemplate.update("update users set active_task_count = " + actual +
+                " where active_task_count <> " + actual);
+        entityManager.getEntityManagerFactory().getCache().evict(User.class);
+        return fixed;
+    }
+
+    private void evict(Collection<Integer> ids) {
+        var cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(User.class, id));
+    }
+}
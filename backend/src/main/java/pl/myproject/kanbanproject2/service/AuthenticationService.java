@@ -1,6 +1,7 @@
 package pl.myproject.kanbanproject2.service;
 import io.jsonwebtoken.Jwt;
 import jakarta.mail.MessagingException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -8,6 +9,8 @@ import org.springframework.stereotype.Service;
 import pl.myproject.kanbanproject2.dto.RegisterUserDto;
 import pl.myproject.kanbanproject2.dto.LoginUserDto;
 import pl.myproject.kanbanproject2.dto.VerifyUserDto;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.repository.UserRepository;
 import pl.myproject.kanbanproject2.model.User;
 import pl.myproject.kanbanproject2.response.LoginResponse;
@@ -23,19 +26,22 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final JwtService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthenticationService(
             UserRepository userRepository,
             AuthenticationManager authenticationManager,
             PasswordEncoder passwordEncoder,
             EmailService emailService,
-            JwtService jwtService
+            JwtService jwtService,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
         this.jwtService = jwtService;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -49,7 +55,9 @@ public class AuthenticationService {
         user.setVerificationCodeExpiresAt(LocalDateTime.now().plusMinutes(15));
         user.setEnabled(false);
         sendVerificationEmail(user);
-        return userRepository.save(user);
+        var savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.USER, savedUser.getId()));
+        return savedUser;
     }
 
 
@@ -0,0 +1,618 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.myproject.kanbanproject2.dto.BoardChangesDTO;
+import pl.myproject.kanbanproject2.dto.BoardConsistencyDTO;
+import pl.myproject.kanbanproject2.dto.ColumnDTO;
+import pl.myproject.kanbanproject2.dto.RowDTO;
+import pl.myproject.kanbanproject2.dto.SubTaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory projection of the board serving the list endpoints. It is rebuilt from the
+ * database on startup and kept current by {@link BoardChangedEvent}s, which are applied
+ * after the writing transaction commits by re-reading only the changed ids. The database is
+ * read before the write lock is taken, so readers wait only while the fresh entries are swapped in.
+ * <p>
+ * Every applied event bumps the board revision. The ids touched at each revision are kept
+ * in a bounded log so clients can ask for the changes since the revision they last saw.
+ * Revision tokens are qualified with a boot epoch ({@code "<epoch>-<n>"}), so a token
+ * issued by a previous process always gets a full snapshot instead of a partial delta.
+ */
+@Component
+public class BoardReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardReadModel.class);
+
+    private static final int CHANGE_LOG_CAPACITY = 10000;
+
+    private static final Comparator<TaskDTO> TASK_ORDER = Comparator
+            .comparing(TaskDTO::position, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskDTO::id);
+
+    // Kolejność na tablicy wyznacza klucz rangi; zadania bez klucza (przed wyrównaniem) trafiają na koniec
+    private static final Comparator<TaskDTO> RANK_ORDER = Comparator
+            .comparing(TaskDTO::rankKey, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TASK_ORDER);
+
+    private static final Comparator<ColumnDTO> COLUMN_ORDER = Comparator
+            .comparing(ColumnDTO::position, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ColumnDTO::id);
+
+    private static final Comparator<RowDTO> ROW_ORDER = Comparator
+            .comparing(RowDTO::position, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RowDTO::id);
+
+    private final BoardService boardService;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Szeregowanie przebudów i zdarzeń; czytelników blokuje tylko krótka podmiana pod blokadą zapisu
+    private final Object updates = new Object();
+
+    private final Map<Integer, TaskDTO> tasks = new HashMap<>();
+    private final Map<Integer, ColumnDTO> columns = new HashMap<>();
+    private final Map<Integer, RowDTO> rows = new HashMap<>();
+    private final Map<Integer, SubTaskDTO> subTasks = new HashMap<>();
+    private final Map<Integer, NavigableSet<TaskDTO>> tasksByColumn = new HashMap<>();
+    private final Map<Integer, NavigableSet<TaskDTO>> tasksByRow = new HashMap<>();
+    private final Map<Integer, Set<Integer>> childrenByParent = new HashMap<>();
+    private final Map<Integer, Set<Integer>> subTasksByTask = new HashMap<>();
+    private final Deque<BoardChange> changeLog = new ArrayDeque<>();
+    private volatile boolean loaded = false;
+    // Licznik rewizji zaczyna się od zera po każdym starcie, więc token niesie też epokę procesu
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private long revision = 0;
+    private long oldestRevision = 0;
+
+    @Autowired
+    public BoardReadModel(BoardService boardService) {
+        this.boardService = boardService;
+    }
+
+    public List<TaskDTO> getAllTasks() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return tasks.values().stream()
+                    .sorted(TASK_ORDER)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ColumnDTO> getAllColumns() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return columns.values().stream()
+                    .sorted(COLUMN_ORDER)
+                    .map(column -> new ColumnDTO(column.id(), column.name(), column.position(), column.wipLimit(),
+                            new ArrayList<>(tasksByColumn.getOrDefault(column.id(), Collections.emptyNavigableSet())), column.version()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<RowDTO> getAllRows() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return rows.values().stream()
+                    .sorted(ROW_ORDER)
+                    .map(row -> new RowDTO(row.id(), row.name(), row.position(), row.wipLimit(),
+                            new ArrayList<>(tasksByRow.getOrDefault(row.id(), Collections.emptyNavigableSet())), row.version()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<ColumnDTO> getColumn(Integer id) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(columns.get(id))
+                    .map(column -> new ColumnDTO(column.id(), column.name(), column.position(), column.wipLimit(),
+                            new ArrayList<>(tasksByColumn.getOrDefault(id, Collections.emptyNavigableSet())), column.version()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<RowDTO> getRow(Integer id) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(rows.get(id))
+                    .map(row -> new RowDTO(row.id(), row.name(), row.position(), row.wipLimit(),
+                            new ArrayList<>(tasksByRow.getOrDefault(id, Collections.emptyNavigableSet())), row.version()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tasks grouped by assigned user. Computed with one pass over the projection, so
+     * mapping users with their tasks never touches the database.
+     */
+    public Map<Integer, Set<TaskDTO>> getTasksByUser() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Set<TaskDTO>> tasksByUser = new HashMap<>();
+            for (TaskDTO task : tasks.values()) {
+                if (task.userIds() != null) {
+                    task.userIds().forEach(userId -> tasksByUser.computeIfAbsent(userId, id -> new HashSet<>()).add(task));
+                }
+            }
+            return tasksByUser;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getRevision() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return revisionToken();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BoardChangesDTO getChangesSince(String sinceToken) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            long since = parseRevision(sinceToken);
+            if (since < oldestRevision || since > revision) {
+                return new BoardChangesDTO(revisionToken(), true,
+                        tasks.values().stream().sorted(TASK_ORDER).collect(Collectors.toList()),
+                        columns.values().stream().sorted(COLUMN_ORDER).collect(Collectors.toList()),
+                        rows.values().stream().sorted(ROW_ORDER).collect(Collectors.toList()),
+                        new ArrayList<>(subTasks.values()),
+                        Set.of(), Set.of(), Set.of(), Set.of());
+            }
+
+            Map<BoardEntityType, Set<Integer>> touched = touchedSince(since);
+            Set<Integer> taskIds = touched.getOrDefault(BoardEntityType.TASK, Set.of());
+            Set<Integer> columnIds = touched.getOrDefault(BoardEntityType.COLUMN, Set.of());
+            Set<Integer> rowIds = touched.getOrDefault(BoardEntityType.ROW, Set.of());
+            Set<Integer> subTaskIds = touched.getOrDefault(BoardEntityType.SUBTASK, Set.of());
+
+            return new BoardChangesDTO(revisionToken(), false,
+                    present(tasks, taskIds), present(columns, columnIds),
+                    present(rows, rowIds), present(subTasks, subTaskIds),
+                    absent(tasks, taskIds), absent(columns, columnIds),
+                    absent(rows, rowIds), absent(subTasks, subTaskIds));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Wywoływane pod blokadą odczytu
+    private Map<BoardEntityType, Set<Integer>> touchedSince(long since) {
+        Map<BoardEntityType, Set<Integer>> touched = new EnumMap<>(BoardEntityType.class);
+        Iterator<BoardChange> newestFirst = changeLog.descendingIterator();
+        while (newestFirst.hasNext()) {
+            BoardChange change = newestFirst.next();
+            if (change.revision() <= since) {
+                break;
+            }
+            touched.computeIfAbsent(change.entityType(), type -> new HashSet<>()).add(change.id());
+        }
+        return touched;
+    }
+
+    private String revisionToken() {
+        return epoch + "-" + revision;
+    }
+
+    /**
+     * Returns the revision number carried by the token, or -1 (forcing a full snapshot)
+     * when the token is missing, malformed or was issued by another process.
+     */
+    private long parseRevision(String token) {
+        if (token == null) {
+            return -1;
+        }
+        int separator = token.lastIndexOf('-');
+        if (separator <= 0 || !token.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (updates) {
+            // Zapytania poza blokadą zapisu; czytelnicy widzą poprzedni stan aż do podmiany
+            List<ColumnDTO> freshColumns = boardService.getColumnSummaries();
+            List<RowDTO> freshRows = boardService.getRowSummaries();
+            List<TaskDTO> freshTasks = boardService.getAllTaskDTOs();
+            List<SubTaskDTO> freshSubTasks = boardService.getAllSubTaskDTOs();
+
+            lock.writeLock().lock();
+            try {
+                tasks.clear();
+                columns.clear();
+                rows.clear();
+                subTasks.clear();
+                tasksByColumn.clear();
+                tasksByRow.clear();
+                childrenByParent.clear();
+                subTasksByTask.clear();
+
+                freshColumns.forEach(column -> columns.put(column.id(), column));
+                freshRows.forEach(row -> rows.put(row.id(), row));
+                freshTasks.forEach(this::putTask);
+                freshSubTasks.forEach(this::putSubTask);
+
+                // Po przebudowie klienci ze starszą rewizją dostają pełny stan
+                revision++;
+                oldestRevision = revision;
+                changeLog.clear();
+                loaded = true;
+                log.info("Board read model rebuilt: {} tasks, {} columns, {} rows, {} subtasks",
+                        tasks.size(), columns.size(), rows.size(), subTasks.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent event) {
+        // Użytkownicy nie są częścią modelu tablicy
+        if (!loaded || event.entityType() == BoardEntityType.USER) {
+            return;
+        }
+        if (event.entityType() == BoardEntityType.BOARD) {
+            rebuild();
+            return;
+        }
+        // Zdarzenia są stosowane po kolei, więc stan odczytany później nigdy nie nadpisze nowszego
+        synchronized (updates) {
+            try {
+                FreshEntities fresh = load(event);
+                lock.writeLock().lock();
+                try {
+                    revision++;
+                    switch (event.entityType()) {
+                        case TASK -> applyTaskChanges(event.upsertedIds(), event.deletedIds(), fresh.tasks());
+                        case COLUMN -> applyColumnChanges(event.upsertedIds(), event.deletedIds(), fresh.columns());
+                        case ROW -> applyRowChanges(event.upsertedIds(), event.deletedIds(), fresh);
+                        case SUBTASK -> applySubTaskChanges(event.upsertedIds(), event.deletedIds(), fresh.subTasks());
+                        default -> {
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not apply {} to the board read model, rebuilding", event, e);
+                rebuild();
+            }
+        }
+    }
+
+    // Odczyt zmienionych encji z bazy przed wzięciem blokady zapisu
+    private FreshEntities load(BoardChangedEvent event) {
+        Set<Integer> upsertedIds = event.upsertedIds();
+        return switch (event.entityType()) {
+            case TASK -> new FreshEntities(upsertedIds, tasksOf(upsertedIds), List.of(), List.of(), List.of());
+            case COLUMN -> new FreshEntities(Set.of(), List.of(),
+                    upsertedIds.isEmpty() ? List.of() : boardService.getColumnSummaries(upsertedIds), List.of(), List.of());
+            case ROW -> {
+                // Zadania usuwanego wiersza tracą go, więc wczytujemy je ponownie
+                Set<Integer> rowTaskIds = tasksInRows(event.deletedIds());
+                yield new FreshEntities(rowTaskIds, tasksOf(rowTaskIds), List.of(),
+                        upsertedIds.isEmpty() ? List.of() : boardService.getRowSummaries(upsertedIds), List.of());
+            }
+            case SUBTASK -> new FreshEntities(Set.of(), List.of(), List.of(), List.of(),
+                    upsertedIds.isEmpty() ? List.of() : boardService.getSubTaskDTOs(upsertedIds));
+            default -> new FreshEntities(Set.of(), List.of(), List.of(), List.of(), List.of());
+        };
+    }
+
+    private List<TaskDTO> tasksOf(Set<Integer> taskIds) {
+        return taskIds.isEmpty() ? List.of() : boardService.getTaskDTOs(taskIds);
+    }
+
+    private Set<Integer> tasksInRows(Set<Integer> rowIds) {
+        lock.readLock().lock();
+        try {
+            return rowIds.stream()
+                    .flatMap(id -> tasksByRow.getOrDefault(id, Collections.emptyNavigableSet()).stream())
+                    .map(TaskDTO::id)
+                    .collect(Collectors.toSet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedRate = 600000) // wykonywane co 10 min
+    public void verifyAndRepair() {
+        if (!loaded) {
+            return;
+        }
+        BoardConsistencyDTO report = checkConsistency();
+        if (!report.consistent()) {
+            log.warn("Board read model drifted from the database: {}", report);
+            rebuild();
+        }
+    }
+
+    public BoardConsistencyDTO checkConsistency() {
+        ensureLoaded();
+        long snapshotRevision;
+        lock.readLock().lock();
+        try {
+            snapshotRevision = revision;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Odczyt bazy bez blokady, żeby zdarzenia nie czekały na pełne zapytania
+        List<TaskDTO> dbTasks = boardService.getAllTaskDTOs();
+        List<ColumnDTO> dbColumns = boardService.getColumnSummaries();
+        List<RowDTO> dbRows = boardService.getRowSummaries();
+        List<SubTaskDTO> dbSubTasks = boardService.getAllSubTaskDTOs();
+
+        lock.readLock().lock();
+        try {
+            // Przebudowa lub przepełniony dziennik zmian w międzyczasie: nie da się oddzielić dryfu, sprawdzi to kolejny przebieg
+            if (oldestRevision > snapshotRevision) {
+                return new BoardConsistencyDTO(true, Set.of(), Set.of(), Set.of(), Set.of());
+            }
+            // Encje zmienione po odczycie bazy mogą się różnić bez dryfu
+            Map<BoardEntityType, Set<Integer>> touched = touchedSince(snapshotRevision);
+            Set<Integer> taskMismatches = diff(tasks, dbTasks, TaskDTO::id);
+            Set<Integer> columnMismatches = diff(columns, dbColumns, ColumnDTO::id);
+            Set<Integer> rowMismatches = diff(rows, dbRows, RowDTO::id);
+            Set<Integer> subTaskMismatches = diff(subTasks, dbSubTasks, SubTaskDTO::id);
+            taskMismatches.removeAll(touched.getOrDefault(BoardEntityType.TASK, Set.of()));
+            columnMismatches.removeAll(touched.getOrDefault(BoardEntityType.COLUMN, Set.of()));
+            rowMismatches.removeAll(touched.getOrDefault(BoardEntityType.ROW, Set.of()));
+            subTaskMismatches.removeAll(touched.getOrDefault(BoardEntityType.SUBTASK, Set.of()));
+
+            boolean consistent = taskMismatches.isEmpty() && columnMismatches.isEmpty()
+                    && rowMismatches.isEmpty() && subTaskMismatches.isEmpty();
+            return new BoardConsistencyDTO(consistent, taskMismatches, columnMismatches, rowMismatches, subTaskMismatches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    private void applyTaskChanges(Set<Integer> upsertedIds, Set<Integer> deletedIds, List<TaskDTO> freshTasks) {
+        deletedIds.forEach(id -> removeTask(id, true));
+        if (upsertedIds.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, TaskDTO> fresh = freshTasks.stream()
+                .collect(Collectors.toMap(TaskDTO::id, Function.identity()));
+        for (Integer id : upsertedIds) {
+            TaskDTO task = fresh.get(id);
+            removeTask(id, task == null);
+            if (task != null) {
+                putTask(task);
+            }
+        }
+    }
+
+    private void applyColumnChanges(Set<Integer> upsertedIds, Set<Integer> deletedIds, List<ColumnDTO> freshColumns) {
+        for (Integer id : deletedIds) {
+            columns.remove(id);
+            touch(BoardEntityType.COLUMN, id);
+            // Usunięcie kolumny usuwa kaskadowo jej zadania
+            new ArrayList<>(tasksByColumn.getOrDefault(id, Collections.emptyNavigableSet()))
+                    .forEach(task -> removeTask(task.id(), true));
+            tasksByColumn.remove(id);
+        }
+        if (!upsertedIds.isEmpty()) {
+            upsertedIds.forEach(id -> {
+                columns.remove(id);
+                touch(BoardEntityType.COLUMN, id);
+            });
+            freshColumns.forEach(column -> columns.put(column.id(), column));
+        }
+    }
+
+    private void applyRowChanges(Set<Integer> upsertedIds, Set<Integer> deletedIds, FreshEntities fresh) {
+        for (Integer id : deletedIds) {
+            rows.remove(id);
+            touch(BoardEntityType.ROW, id);
+        }
+        applyTaskChanges(fresh.taskIds(), Set.of(), fresh.tasks());
+        deletedIds.forEach(tasksByRow::remove);
+        if (!upsertedIds.isEmpty()) {
+            upsertedIds.forEach(id -> {
+                rows.remove(id);
+                touch(BoardEntityType.ROW, id);
+            });
+            fresh.rows().forEach(row -> rows.put(row.id(), row));
+        }
+    }
+
+    private void applySubTaskChanges(Set<Integer> upsertedIds, Set<Integer> deletedIds, List<SubTaskDTO> freshSubTasks) {
+        deletedIds.forEach(this::removeSubTask);
+        if (!upsertedIds.isEmpty()) {
+            upsertedIds.forEach(this::removeSubTask);
+            freshSubTasks.forEach(this::putSubTask);
+        }
+    }
+
+    private void putTask(TaskDTO task) {
+        if (task.parentTaskId() != null) {
+            childrenByParent.computeIfAbsent(task.parentTaskId(), id -> new HashSet<>()).add(task.id());
+        }
+        TaskDTO resolved = withChildren(task, childrenByParent.get(task.id()));
+        index(resolved);
+        if (task.parentTaskId() != null) {
+            refreshChildren(task.parentTaskId());
+        }
+    }
+
+    private void removeTask(Integer id, boolean withSubTasks) {
+        TaskDTO existing = tasks.get(id);
+        if (existing == null) {
+            return;
+        }
+        unindex(existing);
+        if (existing.parentTaskId() != null) {
+            Set<Integer> siblings = childrenByParent.get(existing.parentTaskId());
+            if (siblings != null) {
+                siblings.remove(id);
+                if (siblings.isEmpty()) {
+                    childrenByParent.remove(existing.parentTaskId());
+                }
+            }
+            refreshChildren(existing.parentTaskId());
+        }
+        if (withSubTasks) {
+            Set<Integer> ownSubTasks = subTasksByTask.remove(id);
+            if (ownSubTasks != null) {
+                ownSubTasks.forEach(subTaskId -> {
+                    subTasks.remove(subTaskId);
+                    touch(BoardEntityType.SUBTASK, subTaskId);
+                });
+            }
+        }
+    }
+
+    private void refreshChildren(Integer parentId) {
+        TaskDTO parent = tasks.get(parentId);
+        if (parent == null) {
+            return;
+        }
+        unindex(parent);
+        index(withChildren(parent, childrenByParent.get(parentId)));
+    }
+
+    private void index(TaskDTO task) {
+        tasks.put(task.id(), task);
+        touch(BoardEntityType.TASK, task.id());
+        if (task.columnId() != null) {
+            tasksByColumn.computeIfAbsent(task.columnId(), id -> new TreeSet<>(RANK_ORDER)).add(task);
+        }
+        if (task.rowId() != null) {
+            tasksByRow.computeIfAbsent(task.rowId(), id -> new TreeSet<>(RANK_ORDER)).add(task);
+        }
+    }
+
+    private void unindex(TaskDTO task) {
+        tasks.remove(task.id());
+        touch(BoardEntityType.TASK, task.id());
+        if (task.columnId() != null && tasksByColumn.containsKey(task.columnId())) {
+            tasksByColumn.get(task.columnId()).remove(task);
+        }
+        if (task.rowId() != null && tasksByRow.containsKey(task.rowId())) {
+            tasksByRow.get(task.rowId()).remove(task);
+        }
+    }
+
+    private void putSubTask(SubTaskDTO subTask) {
+        subTasks.put(subTask.id(), subTask);
+        touch(BoardEntityType.SUBTASK, subTask.id());
+        if (subTask.taskId() != null) {
+            subTasksByTask.computeIfAbsent(subTask.taskId(), id -> new HashSet<>()).add(subTask.id());
+        }
+    }
+
+    private void removeSubTask(Integer id) {
+        SubTaskDTO existing = subTasks.remove(id);
+        touch(BoardEntityType.SUBTASK, id);
+        if (existing != null && existing.taskId() != null && subTasksByTask.containsKey(existing.taskId())) {
+            subTasksByTask.get(existing.taskId()).remove(id);
+        }
+    }
+
+    private void touch(BoardEntityType entityType, Integer id) {
+        if (!loaded) {
+            return;
+        }
+        changeLog.addLast(new BoardChange(revision, entityType, id));
+        if (changeLog.size() > CHANGE_LOG_CAPACITY) {
+            oldestRevision = Math.max(oldestRevision, changeLog.removeFirst().revision());
+        }
+    }
+
+    private static <T> List<T> present(Map<Integer, T> entities, Set<Integer> ids) {
+        return ids.stream()
+                .map(entities::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static Set<Integer> absent(Map<Integer, ?> entities, Set<Integer> ids) {
+        return ids.stream()
+                .filter(id -> !entities.containsKey(id))
+                .collect(Collectors.toSet());
+    }
+
+    private static TaskDTO withChildren(TaskDTO task, Set<Integer> childTaskIds) {
+        Set<Integer> children = childTaskIds == null || childTaskIds.isEmpty() ? null : new HashSet<>(childTaskIds);
+        if (Objects.equals(children, task.childTaskIds())) {
+            return task;
+        }
+        return new TaskDTO(task.id(), task.title(), task.position(), task.columnId(), task.rowId(), task.userIds(),
+                task.labels(), task.completed(), task.description(), task.parentTaskId(), children,
+                task.deadline(), task.expired(), task.rankKey(), task.version(),
+                task.subtasksTotal(), task.subtasksCompleted());
+    }
+
+    private static <T> Set<Integer> diff(Map<Integer, T> memory, List<T> database, Function<T, Integer> idOf) {
+        Set<Integer> mismatches = new TreeSet<>();
+        Set<Integer> seen = new HashSet<>();
+        for (T entry : database) {
+            Integer id = idOf.apply(entry);
+            seen.add(id);
+            if (!entry.equals(memory.get(id))) {
+                mismatches.add(id);
+            }
+        }
+        memory.keySet().stream()
+                .filter(id -> !seen.contains(id))
+                .forEach(mismatches::add);
+        return mismatches;
+    }
+
+    private record FreshEntities(Set<Integer> taskIds, List<TaskDTO> tasks, List<ColumnDTO> columns, List<RowDTO> rows,
+                                 List<SubTaskDTO> subTasks) {
+    }
+
+    private record BoardChange(long revision, BoardEntityType entityType, Integer id) {
+    }
+}
@@ -0,0 +1,185 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import pl.myproject.kanbanproject2.dto.BoardDTO;
+import pl.myproject.kanbanproject2.dto.ColumnDTO;
+import pl.myproject.kanbanproject2.dto.RowDTO;
+import pl.myproject.kanbanproject2.dto.SubTaskDTO;
+import pl.myproject.kanbanproject2.dto.SubTaskProgressDTO;
+import pl.myproject.kanbanproject2.dto.TaskAssignment;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+import pl.myproject.kanbanproject2.dto.TaskCursor;
+import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskFilter;
+import pl.myproject.kanbanproject2.dto.TaskLabel;
+import pl.myproject.kanbanproject2.dto.TaskPageDTO;
+import pl.myproject.kanbanproject2.dto.TaskRow;
+import pl.myproject.kanbanproject2.mapper.ColumnMapper;
+import pl.myproject.kanbanproject2.mapper.RowMapper;
+import pl.myproject.kanbanproject2.mapper.TaskMapper;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
+import pl.myproject.kanbanproject2.repository.SubTaskRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the whole board in a fixed number of queries: columns, rows, task rows,
+ * task labels, task assignments and subtask progress. Child ids are derived from
+ * the parent ids of the loaded task rows, so the statement count does not depend
+ * on the size of the board.
+ */
+@Transactional
+@Service
+public class BoardService {
+
+    private final ColumnRepository columnRepository;
+    private final RowRepository rowRepository;
+    private final TaskRepository taskRepository;
+    private final SubTaskRepository subTaskRepository;
+    private final ColumnMapper columnMapper;
+    private final RowMapper rowMapper;
+    private final TaskMapper taskMapper;
+
+    @Autowired
+    public BoardService(ColumnRepository columnRepository, RowRepository rowRepository,
+                        TaskRepository taskRepository, SubTaskRepository subTaskRepository,
+                        ColumnMapper columnMapper, RowMapper rowMapper, TaskMapper taskMapper) {
+        this.columnRepository = columnRepository;
+        this.rowRepository = rowRepository;
+        this.taskRepository = taskRepository;
+        this.subTaskRepository = subTaskRepository;
+        this.columnMapper = columnMapper;
+        this.rowMapper = rowMapper;
+        this.taskMapper = taskMapper;
+    }
+
+    public BoardDTO getBoard() {
+        List<ColumnDTO> columns = getColumnSummaries();
+        List<RowDTO> rows = getRowSummaries();
+        List<TaskDTO> tasks = getAllTaskDTOs();
+        // Postęp podzadań z liczników zadań, bez odczytu tabeli podzadań
+        List<SubTaskProgressDTO> subTaskProgress = tasks.stream()
+                .filter(task -> task.subtasksTotal() > 0)
+                .map(task -> new SubTaskProgressDTO(task.id(), (long) task.subtasksTotal(), (long) task.subtasksCompleted()))
+                .toList();
+
+        return new BoardDTO(columns, rows, tasks, subTaskProgress);
+    }
+
+    public List<TaskDTO> getAllTaskDTOs() {
+        List<TaskRow> taskRows = taskRepository.findAllTaskRows();
+        Map<Integer, Set<Integer>> childrenByTask = new HashMap<>();
+        for (TaskRow taskRow : taskRows) {
+            if (taskRow.parentTaskId() != null) {
+                childrenByTask.computeIfAbsent(taskRow.parentTaskId(), id -> new HashSet<>()).add(taskRow.id());
+            }
+        }
+        return assemble(taskRows, taskRepository.findAllTaskLabels(), taskRepository.findAllTaskAssignments(),
+                childrenByTask);
+    }
+
+    /**
+     * One keyset page of filtered tasks. Filters and ordering run in SQL and one extra row
+     * is fetched to tell whether another page exists; labels, assignments and child ids
+     * are then loaded for the page only.
+     */
+    public TaskPageDTO getTaskPage(TaskFilter filter, TaskCursor after, int limit) {
+        List<TaskRow> taskRows = taskRepository.findTaskRows(filter, after, limit + 1);
+        String nextCursor = null;
+        if (taskRows.size() > limit) {
+            taskRows = taskRows.subList(0, limit);
+            nextCursor = TaskCursor.of(taskRows.get(limit - 1)).encode();
+        }
+        if (taskRows.isEmpty()) {
+            return new TaskPageDTO(List.of(), null);
+        }
+
+        Set<Integer> ids = taskRows.stream().map(TaskRow::id).collect(Collectors.toSet());
+        Map<Integer, Set<Integer>> childrenByTask = new HashMap<>();
+        for (TaskChild taskChild : taskRepository.findTaskChildrenByParentIdIn(ids)) {
+            childrenByTask.computeIfAbsent(taskChild.parentTaskId(), id -> new HashSet<>()).add(taskChild.taskId());
+        }
+
+        List<TaskDTO> tasks = assemble(taskRows, taskRepository.findTaskLabelsByTaskIdIn(ids),
+                taskRepository.findTaskAssignmentsByTaskIdIn(ids), childrenByTask);
+        return new TaskPageDTO(tasks, nextCursor);
+    }
+
+    /**
+     * Loads the given tasks without resolving their child ids, which would need the whole
+     * board; callers that keep a parent index (the read model) fill them in themselves.
+     */
+    public List<TaskDTO> getTaskDTOs(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return assemble(taskRepository.findTaskRowsByIdIn(ids), taskRepository.findTaskLabelsByTaskIdIn(ids),
+                taskRepository.findTaskAssignmentsByTaskIdIn(ids), Map.of());
+    }
+
+    public List<ColumnDTO> getColumnSummaries() {
+        return columnRepository.findAllByOrderByPositionAscIdAsc().stream()
+                .map(columnMapper::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    public List<ColumnDTO> getColumnSummaries(Collection<Integer> ids) {
+        return columnRepository.findAllById(ids).stream()
+                .map(columnMapper::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    public List<RowDTO> getRowSummaries() {
+        return rowRepository.findAllByOrderByPositionAscIdAsc().stream()
+                .map(rowMapper::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    public List<RowDTO> getRowSummaries(Collection<Integer> ids) {
+        return rowRepository.findAllById(ids).stream()
+                .map(rowMapper::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    public List<SubTaskDTO> getAllSubTaskDTOs() {
+        return subTaskRepository.findAllSubTaskDTOs();
+    }
+
+    public List<SubTaskDTO> getSubTaskDTOs(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return subTaskRepository.findSubTaskDTOsByIdIn(ids);
+    }
+
+    private List<TaskDTO> assemble(List<TaskRow> taskRows, List<TaskLabel> taskLabels,
+                                   List<TaskAssignment> assignments, Map<Integer, Set<Integer>> childrenByTask) {
+        Map<Integer, Set<String>> labelsByTask = new HashMap<>();
+        for (TaskLabel taskLabel : taskLabels) {
+            labelsByTask.computeIfAbsent(taskLabel.taskId(), id -> new HashSet<>()).add(taskLabel.label());
+        }
+
+        Map<Integer, Set<Integer>> usersByTask = new HashMap<>();
+        for (TaskAssignment assignment : assignments) {
+            usersByTask.computeIfAbsent(assignment.taskId(), id -> new HashSet<>()).add(assignment.userId());
+        }
+
+        return taskRows.stream()
+                .map(taskRow -> taskMapper.apply(
+                        taskRow,
+                        usersByTask.get(taskRow.id()),
+                        labelsByTask.get(taskRow.id()),
+                        childrenByTask.get(taskRow.id())))
+                .collect(Collectors.toList());
+    }
+}
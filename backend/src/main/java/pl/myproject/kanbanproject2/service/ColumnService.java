@@ -3,31 +3,59 @@ package pl.myproject.kanbanproject2.service;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import pl.myproject.kanbanproject2.dto.ColumnDTO;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.ColumnMapper;
 import pl.myproject.kanbanproject2.model.Column;
 import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.TaskColumnHistoryRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 @Transactional
 @Service
 public class ColumnService {
     private final ColumnRepository columnRepository;
     private final ColumnMapper columnMapper;
+    private final BoardReadModel boardReadModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityVersions entityVersions;
+    private final TaskRepository taskRepository;
+    private final TaskColumnHistoryRepository taskColumnHistoryRepository;
+    private final TaskBulkService taskBulkService;
+    private final WipCounters wipCounters;
 
     @Autowired
-    public ColumnService(ColumnRepository columnRepository, ColumnMapper columnMapper) {
+    public ColumnService(ColumnRepository columnRepository, ColumnMapper columnMapper,
+                         BoardReadModel boardReadModel, ApplicationEventPublisher eventPublisher,
+                         EntityVersions entityVersions, TaskRepository taskRepository,
+                         TaskColumnHistoryRepository taskColumnHistoryRepository, TaskBulkService taskBulkService,
+                         WipCounters wipCounters) {
         this.columnRepository = columnRepository;
         this.columnMapper = columnMapper;
+        this.boardReadModel = boardReadModel;
+        this.eventPublisher = eventPublisher;
+        this.entityVersions = entityVersions;
+        this.taskRepository = taskRepository;
+        this.taskColumnHistoryRepository = taskColumnHistoryRepository;
+        this.taskBulkService = taskBulkService;
+        this.wipCounters = wipCounters;
+    }
+
+    public String getColumnsETag() {
+        return entityVersions.eTag("columns", BoardEntityType.COLUMN, BoardEntityType.TASK);
     }
 
     public List<ColumnDTO> getAllColumns() {
-        List<ColumnDTO> columnDTOS = columnRepository.findAll().stream()
-                .map(columnMapper::apply)
-                .collect(Collectors.toList());
-        return columnDTOS;
+        return boardReadModel.getAllColumns();
     }
 
     public Column addNewColumn(Column column) {
@@ -36,11 +64,14 @@ public class ColumnService {
             long count = columnRepository.count();
             column.setPosition((int) count + 1);
         }
-        return columnRepository.save(column);
+        var savedColumn = columnRepository.save(column);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.COLUMN, savedColumn.getId()));
+        return savedColumn;
     }
 
-    public ColumnDTO patchColumn(ColumnDTO columnDTO, Integer id) {
+    public ColumnDTO patchColumn(ColumnDTO columnDTO, Integer id, Long expectedVersion) {
         var  existingColumn = columnRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Nie ma takiej kolumny"));
+        VersionTags.check(expectedVersion, existingColumn.getVersion());
 
         if (columnDTO.name() != null) {
             existingColumn.setName(columnDTO.name());
@@ -51,28 +82,77 @@ public class ColumnService {
         if(columnDTO.position() != null) {
             existingColumn.setPosition(columnDTO.position());
         }
-        Column updatedColumn = columnRepository.save(existingColumn);
+        Column updatedColumn = columnRepository.saveAndFlush(existingColumn);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.COLUMN, id));
         return columnMapper.apply(updatedColumn);
     }
 
-    public void deleteColumn(Integer id){
+    /**
+     * Deletes a column together with its tasks, or first moves the tasks to the end of
+     * {@code moveTasksTo} when given. Either way the cost is a constant number of set-based
+     * statements. History entries pointing at the column are removed with its tasks, or
+     * reassigned to {@code moveTasksTo} (keeping the recorded column name) when they move.
+     */
+    public void deleteColumn(Integer id, Integer moveTasksTo) {
         if(!columnRepository.existsById(id)){
             throw new EntityNotFoundException("Nie ma kolumny o takim id");
         }
-        columnRepository.deleteById(id);
+        if (id.equals(moveTasksTo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nie można przenieść zadań do usuwanej kolumny");
+        }
+
+        Set<Integer> changedTaskIds;
+        if (moveTasksTo != null) {
+            try {
+                changedTaskIds = Set.copyOf(taskBulkService.moveTasks(taskRepository.findIdsByColumnId(id), moveTasksTo, null));
+            } catch (IllegalStateException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+            }
+            // Historia przeniesionych zadań zostaje, wpisy wskazują teraz kolumnę docelową
+            taskColumnHistoryRepository.reassignColumn(id, moveTasksTo);
+        } else {
+            changedTaskIds = Set.copyOf(taskRepository.findIdsOfChildrenOutsideColumn(id));
+            wipCounters.leaveColumn(id);
+            taskRepository.deleteAllByColumnIdWithDependents(id);
+            taskColumnHistoryRepository.deleteAllByColumnId(id);
+        }
+        columnRepository.bulkDeleteById(id);
+
+        eventPublisher.publishEvent(BoardChangedEvent.deleted(BoardEntityType.COLUMN, id));
+        if (!changedTaskIds.isEmpty()) {
+            eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, changedTaskIds));
+        }
     }
 
     public ColumnDTO getColumnById(Integer id) {
-        return columnRepository.findById(id).
-                map(columnMapper::apply).
-                orElseThrow(() -> new EntityNotFoundException("Nie ma kolumny o takim id"));
+        return boardReadModel.getColumn(id)
+                .orElseThrow(() -> new EntityNotFoundException("Nie ma kolumny o takim id"));
+    }
+
+    /**
+     * Sets positions of many columns in one transaction with a single JDBC batch.
+     */
+    public void reorderColumns(List<PositionDTO> positions) {
+        Set<Integer> ids;
+        try {
+            ids = PositionDTO.ids(positions);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        if (columnRepository.findAllById(ids).size() < ids.size()) {
+            throw new EntityNotFoundException("Nie ma kolumny o takim id");
+        }
+        columnRepository.batchUpdatePositions(positions);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.COLUMN, ids));
     }
 
-    public ColumnDTO updateColumnPosition(Integer id, Integer position) {
+    public ColumnDTO updateColumnPosition(Integer id, Integer position, Long expectedVersion) {
         var  column = columnRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Nie ma kolumny o takim id"));
+        VersionTags.check(expectedVersion, column.getVersion());
         column.setPosition(position);
-        var  updatedColumn = columnRepository.save(column);
+        var  updatedColumn = columnRepository.saveAndFlush(column);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.COLUMN, id));
         return columnMapper.apply(updatedColumn);
     }
 
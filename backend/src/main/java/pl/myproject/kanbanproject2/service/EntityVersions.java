@@ -0,0 +1,53 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-entity-type version stamps used as strong ETags by the list endpoints.
+ * Stamps are bumped after commit and after the read model has applied the same event,
+ * so a new tag is never handed out together with data older than it.
+ */
+@Component
+public class EntityVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<BoardEntityType, AtomicLong> versions = new EnumMap<>(BoardEntityType.class);
+
+    public EntityVersions() {
+        for (BoardEntityType type : BoardEntityType.values()) {
+            versions.put(type, new AtomicLong());
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent event) {
+        if (event.entityType() == BoardEntityType.BOARD) {
+            versions.values().forEach(AtomicLong::incrementAndGet);
+        } else {
+            versions.get(event.entityType()).incrementAndGet();
+        }
+    }
+
+    public long version(BoardEntityType type) {
+        return versions.get(type).get();
+    }
+
+    public String eTag(String resource, BoardEntityType... types) {
+        StringBuilder tag = new StringBuilder("\"").append(resource).append('-').append(epoch);
+        for (BoardEntityType type : types) {
+            tag.append('-').append(version(type));
+        }
+        return tag.append('"').toString();
+    }
+}
@@ -0,0 +1,83 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.myproject.kanbanproject2.dto.LabelUsageDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskLabelsChangedEvent;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Label -> task count index. Loaded once with a single GROUP BY over task_labels and then
+ * kept current from label deltas published by the task service, so reading the catalogue
+ * costs O(labels) instead of loading every task.
+ */
+@Component
+public class LabelCatalogue {
+
+    private final TaskRepository taskRepository;
+    private Map<String, Long> counts;
+
+    @Autowired
+    public LabelCatalogue(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    public synchronized Set<String> getLabels() {
+        return Set.copyOf(loaded().keySet());
+    }
+
+    public synchronized List<LabelUsageDTO> getLabelUsage() {
+        return loaded().entrySet().stream()
+                .map(entry -> new LabelUsageDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onLabelsChanged(TaskLabelsChangedEvent event) {
+        // Niezaładowany katalog i tak odczyta aktualny stan z bazy
+        if (counts == null) {
+            return;
+        }
+        event.added().forEach(label -> counts.merge(label, 1L, Long::sum));
+        event.removed().forEach(label -> counts.computeIfPresent(label, (key, count) -> count > 1 ? count - 1 : null));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onBoardChanged(BoardChangedEvent event) {
+        // Usunięcie kolumny usuwa kaskadowo jej zadania razem z etykietami
+        boolean columnDeleted = event.entityType() == BoardEntityType.COLUMN && !event.deletedIds().isEmpty();
+        if (event.entityType() == BoardEntityType.BOARD || columnDeleted) {
+            counts = null;
+        }
+    }
+
+    @Scheduled(fixedRate = 600000) // wykonywane co 10 min
+    public synchronized void invalidate() {
+        counts = null;
+    }
+
+    private Map<String, Long> loaded() {
+        if (counts == null) {
+            counts = new TreeMap<>();
+            for (LabelUsageDTO usage : taskRepository.findLabelUsage()) {
+                counts.put(usage.label(), usage.taskCount());
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,89 @@
+package pl.myproject.kanbanproject2.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fractional (LexoRank-style) ordering keys. Keys are base-36 strings compared
+ * lexicographically; a key strictly between any two others can always be generated,
+ * so moving a task between neighbours rewrites only that task. Keys never end with
+ * the lowest digit, which keeps a gap below every key.
+ */
+public final class RankKey {
+
+    private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = ALPHABET.length();
+
+    private RankKey() {
+    }
+
+    /**
+     * Key strictly between {@code lower} and {@code upper}; {@code null} stands for the
+     * start or the end of the lane.
+     */
+    public static String between(String lower, String upper) {
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Klucz dolny musi być mniejszy od górnego");
+        }
+        String low = lower != null ? lower : "";
+        String high = upper;
+        StringBuilder key = new StringBuilder();
+
+        for (int i = 0; ; i++) {
+            int lo = i < low.length() ? digit(low.charAt(i)) : 0;
+            int hi = high != null && i < high.length() ? digit(high.charAt(i)) : BASE;
+
+            if (lo == hi) {
+                key.append(ALPHABET.charAt(lo));
+                continue;
+            }
+            int mid = (lo + hi) / 2;
+            if (mid > lo) {
+                return key.append(ALPHABET.charAt(mid)).toString();
+            }
+            // Sąsiednie cyfry: bierzemy dolną, a górne ograniczenie przestaje obowiązywać
+            key.append(ALPHABET.charAt(lo));
+            high = null;
+        }
+    }
+
+    /**
+     * {@code count} keys spread evenly over the key space, leaving room for inserts
+     * between each pair. Used to seed and rebalance a lane.
+     */
+    public static List<String> evenlySpaced(int count) {
+        int width = 1;
+        long space = BASE;
+        while (space < (long) (count + 1) * BASE) {
+            width++;
+            space *= BASE;
+        }
+
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(encode(space / (count + 1) * i, width));
+        }
+        return keys;
+    }
+
+    private static String encode(long value, int width) {
+        char[] digits = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = ALPHABET.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int length = width;
+        while (length > 1 && digits[length - 1] == ALPHABET.charAt(0)) {
+            length--;
+        }
+        return new String(digits, 0, length);
+    }
+
+    private static int digit(char c) {
+        int digit = ALPHABET.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Niepoprawny klucz kolejności: " + c);
+        }
+        return digit;
+    }
+}
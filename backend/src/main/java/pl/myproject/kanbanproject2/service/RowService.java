@@ -3,8 +3,14 @@ package pl.myproject.kanbanproject2.service;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
 import pl.myproject.kanbanproject2.dto.RowDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.RowMapper;
 import pl.myproject.kanbanproject2.model.Row;
 import pl.myproject.kanbanproject2.model.Task;
@@ -13,6 +19,7 @@ import pl.myproject.kanbanproject2.repository.TaskRepository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Transactional
@@ -21,19 +28,28 @@ public class RowService {
     private final RowRepository rowRepository;
     private final RowMapper rowMapper;
     private final TaskRepository taskRepository;
+    private final BoardReadModel boardReadModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityVersions entityVersions;
 
     @Autowired
-    public RowService(RowRepository rowRepository, RowMapper rowMapper, TaskRepository taskRepository) {
+    public RowService(RowRepository rowRepository, RowMapper rowMapper, TaskRepository taskRepository,
+                      BoardReadModel boardReadModel, ApplicationEventPublisher eventPublisher,
+                      EntityVersions entityVersions) {
         this.rowRepository = rowRepository;
         this.rowMapper = rowMapper;
         this.taskRepository = taskRepository;
+        this.boardReadModel = boardReadModel;
+        this.eventPublisher = eventPublisher;
+        this.entityVersions = entityVersions;
+    }
+
+    public String getRowsETag() {
+        return entityVersions.eTag("rows", BoardEntityType.ROW, BoardEntityType.TASK);
     }
 
     public List<RowDTO> getAllRows() {
-        List<RowDTO> rowDTOS = rowRepository.findAll().stream()
-                .map(rowMapper::apply)
-                .collect(Collectors.toList());
-        return rowDTOS;
+        return boardReadModel.getAllRows();
     }
 
     public Row createRow(Row row) {
@@ -42,11 +58,14 @@ public class RowService {
             long count = rowRepository.count();
             row.setPosition((int) count + 1);
         }
-        return rowRepository.save(row);
+        var savedRow = rowRepository.save(row);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.ROW, savedRow.getId()));
+        return savedRow;
     }
 
-    public RowDTO patchRow(RowDTO rowDTO, Integer id) {
+    public RowDTO patchRow(RowDTO rowDTO, Integer id, Long expectedVersion) {
         var  existingRow = rowRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Nie ma takiego wiersza"));
+        VersionTags.check(expectedVersion, existingRow.getVersion());
 
         if (rowDTO.name() != null) {
             existingRow.setName(rowDTO.name());
@@ -57,7 +76,8 @@ public class RowService {
         if(rowDTO.position() != null) {
             existingRow.setPosition(rowDTO.position());
         }
-        Row updatedRow = rowRepository.save(existingRow);
+        Row updatedRow = rowRepository.saveAndFlush(existingRow);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.ROW, id));
         return rowMapper.apply(updatedRow);
     }
 
@@ -66,20 +86,39 @@ public class RowService {
             throw new EntityNotFoundException("Nie ma kolumny o takim id");
         }
         rowRepository.deleteById(id);
+        eventPublisher.publishEvent(BoardChangedEvent.deleted(BoardEntityType.ROW, id));
     }
 
 
     public RowDTO getRowById(Integer id) {
-        return rowRepository.findById(id).
-                map(rowMapper::apply).
-                orElseThrow(() -> new EntityNotFoundException("Nie ma wiersza"));
+        return boardReadModel.getRow(id)
+                .orElseThrow(() -> new EntityNotFoundException("Nie ma wiersza"));
+    }
+
+    /**
+     * Sets positions of many rows in one transaction with a single JDBC batch.
+     */
+    public void reorderRows(List<PositionDTO> positions) {
+        Set<Integer> ids;
+        try {
+            ids = PositionDTO.ids(positions);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        if (rowRepository.findAllById(ids).size() < ids.size()) {
+            throw new EntityNotFoundException("Nie ma wiersza o takim id");
+        }
+        rowRepository.batchUpdatePositions(positions);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.ROW, ids));
     }
 
-    public RowDTO updateRowPosition(Integer id, Integer position) {
+    public RowDTO updateRowPosition(Integer id, Integer position, Long expectedVersion) {
         Row row = rowRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Nie ma wiersza o takim id"));
+        VersionTags.check(expectedVersion, row.getVersion());
         row.setPosition(position);
-        Row updatedRow = rowRepository.save(row);
+        Row updatedRow = rowRepository.saveAndFlush(row);
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.ROW, id));
         return rowMapper.apply(updatedRow);
     }
 }
\ No newline at end of file
@@ -2,11 +2,18 @@ package pl.myproject.kanbanproject2.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import pl.myproject.kanbanproject2.dto.SubTaskDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.SubTaskMapper;
 import pl.myproject.kanbanproject2.model.SubTask;
 import pl.myproject.kanbanproject2.model.Task;
@@ -14,23 +21,30 @@ import pl.myproject.kanbanproject2.repository.SubTaskRepository;
 import pl.myproject.kanbanproject2.repository.TaskRepository;
 
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Transactional
 @Service
 public class SubTaskService {
 
+    private static final Logger log = LoggerFactory.getLogger(SubTaskService.class);
+
     private final SubTaskRepository subTaskRepository;
     private final TaskRepository taskRepository;
     private final SubTaskMapper subTaskMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public SubTaskService(SubTaskRepository subTaskRepository,
                           TaskRepository taskRepository,
-                          SubTaskMapper subTaskMapper) {
+                          SubTaskMapper subTaskMapper,
+                          ApplicationEventPublisher eventPublisher) {
         this.subTaskRepository = subTaskRepository;
         this.taskRepository = taskRepository;
         this.subTaskMapper = subTaskMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     public SubTask addSubTask(SubTask subTask) {
@@ -39,7 +53,15 @@ public class SubTaskService {
             long count = subTaskRepository.count();
             subTask.setPosition((int) count + 1);
         }
-        return subTaskRepository.save(subTask);
+        // Zadanie z żądania ma tylko id; bez wersji Hibernate uznałby je za nową encję
+        if (subTask.getTask() != null) {
+            subTask.setTask(taskRepository.findById(subTask.getTask().getId())
+                    .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id")));
+        }
+        var savedSubTask = subTaskRepository.save(subTask);
+        moveProgress(null, false, taskIdOf(savedSubTask), savedSubTask.isCompleted());
+        publishSubTaskChanged(savedSubTask.getId());
+        return savedSubTask;
     }
 
     public List<SubTaskDTO> getAllSubTasks() {
@@ -51,10 +73,11 @@ public class SubTaskService {
 
     public void deleteSubTask(Integer id) {
         try {
-            if (!subTaskRepository.existsById(id)) {
-                throw new EntityNotFoundException("Nie ma podzadania o takim id");
-            }
-            subTaskRepository.deleteById(id);
+            var subTask = subTaskRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Nie ma podzadania o takim id"));
+            subTaskRepository.delete(subTask);
+            moveProgress(taskIdOf(subTask), subTask.isCompleted(), null, false);
+            eventPublisher.publishEvent(BoardChangedEvent.deleted(BoardEntityType.SUBTASK, id));
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
@@ -70,10 +93,13 @@ public class SubTaskService {
         }
     }
 
-    public SubTaskDTO patchSubTask(Integer id, SubTask subTask) {
+    public SubTaskDTO patchSubTask(Integer id, SubTask subTask, Long expectedVersion) {
         try {
             SubTask existingSubTask = subTaskRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma podzadania o takim id"));
+            VersionTags.check(expectedVersion, existingSubTask.getVersion());
+            Integer previousTaskId = taskIdOf(existingSubTask);
+            boolean wasCompleted = existingSubTask.isCompleted();
 
             if (subTask.getTitle() != null) {
                 existingSubTask.setTitle(subTask.getTitle());
@@ -87,7 +113,8 @@ public class SubTaskService {
             existingSubTask.setCompleted(subTask.isCompleted());
 
             if (subTask.getTask() != null) {
-                existingSubTask.setTask(subTask.getTask());
+                existingSubTask.setTask(taskRepository.findById(subTask.getTask().getId())
+                        .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id")));
             }
 
             if (subTask.getPosition() != null) {
@@ -97,7 +124,9 @@ public class SubTaskService {
                 existingSubTask.setDescription(subTask.getDescription());
             }
 
-            var  savedSubTask = subTaskRepository.save(existingSubTask);
+            var  savedSubTask = subTaskRepository.saveAndFlush(existingSubTask);
+            moveProgress(previousTaskId, wasCompleted, taskIdOf(savedSubTask), savedSubTask.isCompleted());
+            publishSubTaskChanged(id);
             return subTaskMapper.toDto(savedSubTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
@@ -111,12 +140,15 @@ public class SubTaskService {
 
             var  task = taskRepository.findById(taskId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
+            Integer previousTaskId = taskIdOf(subTask);
 
             subTask.setTask(task);
             task.getSubTasks().add(subTask);
 
             taskRepository.save(task);
             var  updatedSubTask = subTaskRepository.save(subTask);
+            moveProgress(previousTaskId, subTask.isCompleted(), taskId, subTask.isCompleted());
+            publishSubTaskChanged(subTaskId);
 
             return subTaskMapper.toDto(updatedSubTask);
         } catch (EntityNotFoundException e) {
@@ -145,21 +177,66 @@ public class SubTaskService {
             subTask.setCompleted(!subTask.isCompleted());
 
             var  updatedSubTask = subTaskRepository.save(subTask);
+            moveProgress(taskIdOf(subTask), !subTask.isCompleted(), taskIdOf(subTask), subTask.isCompleted());
+            publishSubTaskChanged(id);
             return subTaskMapper.toDto(updatedSubTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
     }
 
-    public SubTaskDTO updateSubTaskPosition(Integer id, Integer position) {
+    public SubTaskDTO updateSubTaskPosition(Integer id, Integer position, Long expectedVersion) {
         try {
             var subTask = subTaskRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma podzadania o takim id"));
+            VersionTags.check(expectedVersion, subTask.getVersion());
             subTask.setPosition(position);
-            var updatedSubTask = subTaskRepository.save(subTask);
+            var updatedSubTask = subTaskRepository.saveAndFlush(subTask);
+            publishSubTaskChanged(id);
             return subTaskMapper.toDto(updatedSubTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Recomputes the subtask counters of all tasks on startup, which also fills them in for
+     * tasks created before the counters existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountProgress() {
+        int fixed = taskRepository.recountSubtasks();
+        if (fixed > 0) {
+            log.info("Recounted subtask progress of {} tasks", fixed);
+        }
+    }
+
+    // Przenosi podzadanie w licznikach zadań; zadanie bez zmian netto nie dostaje UPDATE
+    private void moveProgress(Integer fromTaskId, boolean wasCompleted, Integer toTaskId, boolean isCompleted) {
+        Map<Integer, int[]> deltas = new TreeMap<>();
+        if (fromTaskId != null) {
+            int[] delta = deltas.computeIfAbsent(fromTaskId, id -> new int[2]);
+            delta[0]--;
+            delta[1] -= wasCompleted ? 1 : 0;
+        }
+        if (toTaskId != null) {
+            int[] delta = deltas.computeIfAbsent(toTaskId, id -> new int[2]);
+            delta[0]++;
+            delta[1] += isCompleted ? 1 : 0;
+        }
+        deltas.entrySet().removeIf(entry -> entry.getValue()[0] == 0 && entry.getValue()[1] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.forEach((taskId, delta) -> taskRepository.adjustSubtaskCounts(taskId, delta[0], delta[1]));
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, deltas.keySet()));
+    }
+
+    private static Integer taskIdOf(SubTask subTask) {
+        return subTask.getTask() != null ? subTask.getTask().getId() : null;
+    }
+
+    private void publishSubTaskChanged(Integer subTaskId) {
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.SUBTASK, subTaskId));
+    }
+}
@@ -0,0 +1,386 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.BulkTaskRequestDTO;
+import pl.myproject.kanbanproject2.dto.BulkTaskResultDTO;
+import pl.myproject.kanbanproject2.dto.TaskAssignment;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+import pl.myproject.kanbanproject2.dto.TaskHistoryOrder;
+import pl.myproject.kanbanproject2.dto.TaskLabel;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskLabelsChangedEvent;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.TaskColumnHistory;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
+import pl.myproject.kanbanproject2.repository.TaskColumnHistoryRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+import pl.myproject.kanbanproject2.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one operation to a set of tasks with a constant number of set-based statements
+ * (JDBC batches and IN-list updates) instead of a findById and save per task. Tasks are
+ * never loaded as entities; the result reports per id whether it was changed, already in
+ * the requested state or missing.
+ */
+@Transactional
+@Service
+public class TaskBulkService {
+
+    static final int MAX_BULK_SIZE = 500;
+
+    private static final Comparator<TaskRank> LANE_ORDER = Comparator
+            .comparing(TaskRank::rankKey, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskRank::id);
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final ColumnRepository columnRepository;
+    private final RowRepository rowRepository;
+    private final TaskColumnHistoryRepository taskColumnHistoryRepository;
+    private final TaskRanking taskRanking;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WipCounters wipCounters;
+
+    @Autowired
+    public TaskBulkService(TaskRepository taskRepository, UserRepository userRepository,
+                           ColumnRepository columnRepository, RowRepository rowRepository,
+                           TaskColumnHistoryRepository taskColumnHistoryRepository, TaskRanking taskRanking,
+                           ApplicationEventPublisher eventPublisher, WipCounters wipCounters) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.columnRepository = columnRepository;
+        this.rowRepository = rowRepository;
+        this.taskColumnHistoryRepository = taskColumnHistoryRepository;
+        this.taskRanking = taskRanking;
+        this.eventPublisher = eventPublisher;
+        this.wipCounters = wipCounters;
+    }
+
+    public List<BulkTaskResultDTO> apply(BulkTaskRequestDTO request) {
+        try {
+            validate(request);
+            Map<Integer, TaskRank> tasks = taskRepository.findTaskRanksByIdIn(request.taskIds()).stream()
+                    .collect(Collectors.toMap(TaskRank::id, rank -> rank));
+
+            Set<Integer> rejected = new HashSet<>();
+            Set<Integer> changed = tasks.isEmpty() ? Set.of() : switch (request.operation()) {
+                case ADD_LABEL -> addLabel(tasks.keySet(), request.label());
+                case REMOVE_LABEL -> removeLabel(tasks.keySet(), request.label());
+                case ASSIGN_USER -> assignUser(tasks.keySet(), request.userId());
+                case UNASSIGN_USER -> unassignUser(tasks.keySet(), request.userId());
+                case SET_COMPLETED -> setCompleted(tasks, request.completed(), rejected);
+                case MOVE -> move(tasks, request.columnId(), request.rowId());
+                case SET_DEADLINE -> setDeadline(tasks.keySet(), request.deadline());
+                case DELETE -> deleteTasks(tasks.keySet());
+            };
+
+            return results(request, tasks.keySet(), changed, rejected);
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    private static void validate(BulkTaskRequestDTO request) {
+        if (request.operation() == null) {
+            throw new IllegalArgumentException("Operacja jest wymagana");
+        }
+        if (request.taskIds() == null || request.taskIds().isEmpty()) {
+            throw new IllegalArgumentException("Lista zadań nie może być pusta");
+        }
+        if (request.taskIds().size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Jednorazowo można zmienić najwyżej " + MAX_BULK_SIZE + " zadań");
+        }
+        if (request.taskIds().stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Id zadania nie może być puste");
+        }
+        boolean missingArgument = switch (request.operation()) {
+            case ADD_LABEL, REMOVE_LABEL -> request.label() == null || request.label().isBlank();
+            case ASSIGN_USER, UNASSIGN_USER -> request.userId() == null;
+            case SET_COMPLETED -> request.completed() == null;
+            case MOVE -> request.columnId() == null && request.rowId() == null;
+            case SET_DEADLINE, DELETE -> false;
+        };
+        if (missingArgument) {
+            throw new IllegalArgumentException("Brak argumentu operacji " + request.operation());
+        }
+    }
+
+    private Set<Integer> addLabel(Set<Integer> taskIds, String label) {
+        Set<Integer> changed = new HashSet<>(taskIds);
+        changed.removeAll(tasksWithLabel(taskIds, label));
+        if (!changed.isEmpty()) {
+            taskRepository.insertLabel(changed, label);
+            changed.forEach(id -> eventPublisher.publishEvent(TaskLabelsChangedEvent.of(null, Set.of(label))));
+            publishTasksChanged(changed);
+        }
+        return changed;
+    }
+
+    private Set<Integer> removeLabel(Set<Integer> taskIds, String label) {
+        Set<Integer> changed = tasksWithLabel(taskIds, label);
+        if (!changed.isEmpty()) {
+            taskRepository.deleteLabel(changed, label);
+            changed.forEach(id -> eventPublisher.publishEvent(TaskLabelsChangedEvent.of(Set.of(label), null)));
+            publishTasksChanged(changed);
+        }
+        return changed;
+    }
+
+    private Set<Integer> tasksWithLabel(Set<Integer> taskIds, String label) {
+        return taskRepository.findTaskLabelsByTaskIdIn(taskIds).stream()
+                .filter(taskLabel -> taskLabel.label().equals(label))
+                .map(TaskLabel::taskId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<Integer> assignUser(Set<Integer> taskIds, Integer userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Nie ma użytkownika o takim id");
+        }
+        Set<Integer> changed = new HashSet<>(taskIds);
+        changed.removeAll(tasksAssignedTo(taskIds, userId));
+        if (changed.isEmpty()) {
+            return changed;
+        }
+        // Ten sam limit co przy pojedynczym przypisaniu, sprawdzany dla całej paczki jednym UPDATE
+        int active = taskRepository.findIdsByIdInAndCompleted(changed, false).size();
+        wipCounters.assign(Collections.nCopies(active, userId));
+        taskRepository.insertAssignments(changed, userId);
+        publishTasksChanged(changed);
+        return changed;
+    }
+
+    private Set<Integer> unassignUser(Set<Integer> taskIds, Integer userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Nie ma użytkownika o takim id");
+        }
+        Set<Integer> changed = tasksAssignedTo(taskIds, userId);
+        if (!changed.isEmpty()) {
+            int active = taskRepository.findIdsByIdInAndCompleted(changed, false).size();
+            wipCounters.unassign(Collections.nCopies(active, userId));
+            taskRepository.deleteAssignments(changed, userId);
+            publishTasksChanged(changed);
+        }
+        return changed;
+    }
+
+    private Set<Integer> tasksAssignedTo(Set<Integer> taskIds, Integer userId) {
+        return taskRepository.findTaskAssignmentsByTaskIdIn(taskIds).stream()
+                .filter(assignment -> assignment.userId().equals(userId))
+                .map(TaskAssignment::taskId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Same rules as completing a single task: a task whose parent is open is rejected, and
+     * reopening a task also reopens its completed descendants, found in the hierarchy closure
+     * table and returned among the changed ids.
+     */
+    private Set<Integer> setCompleted(Map<Integer, TaskRank> tasks, boolean completed, Set<Integer> rejected) {
+        Set<Integer> changed = new HashSet<>(taskRepository.findIdsByIdInAndCompleted(tasks.keySet(), !completed));
+        Map<Integer, TaskRank> ranks = new HashMap<>(tasks);
+        if (!changed.isEmpty() && completed) {
+            rejected.addAll(taskRepository.findIdsWithOpenParentByIdIn(changed));
+            changed.removeAll(rejected);
+        } else if (!changed.isEmpty()) {
+            List<Integer> descendants = taskRepository.findCompletedDescendantIdsByAncestorIdIn(changed).stream()
+                    .filter(id -> !changed.contains(id))
+                    .toList();
+            if (!descendants.isEmpty()) {
+                taskRepository.findTaskRanksByIdIn(descendants).forEach(rank -> ranks.put(rank.id(), rank));
+                changed.addAll(descendants);
+            }
+        }
+        if (!changed.isEmpty()) {
+            List<TaskLane> lanes = changed.stream().map(ranks::get).map(TaskBulkService::laneOf).toList();
+            List<Integer> assignees = taskRepository.findAssigneeIdsByIdInAndCompleted(changed, !completed);
+            if (completed) {
+                wipCounters.leave(lanes);
+                wipCounters.unassign(assignees);
+            } else {
+                wipCounters.enter(lanes);
+                wipCounters.assign(assignees);
+            }
+            taskRepository.updateCompleted(changed, completed);
+            publishTasksChanged(changed);
+        }
+        return changed;
+    }
+
+    private Set<Integer> setDeadline(Set<Integer> taskIds, LocalDateTime deadline) {
+        boolean expired = deadline != null && deadline.isBefore(LocalDateTime.now());
+        taskRepository.updateDeadline(taskIds, deadline, expired);
+        publishTasksChanged(taskIds);
+        return taskIds;
+    }
+
+    /**
+     * Moves tasks to the end of their target lanes, keeping their relative order, with one
+     * batch update for all of them and one batch insert for the column history. A null
+     * {@code columnId} or {@code rowId} keeps the task's current one.
+     *
+     * @return ids of the tasks that changed lane
+     * @throws EntityNotFoundException when the target column or row does not exist
+     * @throws IllegalStateException   when the tasks would exceed the WIP limit of the column or a row
+     */
+    public Set<Integer> moveTasks(Collection<Integer> taskIds, Integer columnId, Integer rowId) {
+        Map<Integer, TaskRank> tasks = taskRepository.findTaskRanksByIdIn(taskIds).stream()
+                .collect(Collectors.toMap(TaskRank::id, rank -> rank));
+        return tasks.isEmpty() ? Set.of() : move(tasks, columnId, rowId);
+    }
+
+    private Set<Integer> move(Map<Integer, TaskRank> tasks, Integer columnId, Integer rowId) {
+        Column column = columnId != null
+                ? columnRepository.findWithoutTasksById(columnId).orElseThrow(() -> new EntityNotFoundException("Nie ma kolumny o takim id"))
+                : null;
+        if (rowId != null && !rowRepository.existsById(rowId)) {
+            throw new EntityNotFoundException("Nie ma wiersza o takim id");
+        }
+
+        List<TaskRank> moving = tasks.values().stream()
+                .filter(task -> !targetLane(task, columnId, rowId).equals(laneOf(task)))
+                .sorted(LANE_ORDER)
+                .toList();
+        if (moving.isEmpty()) {
+            return Set.of();
+        }
+        Set<Integer> movingIds = moving.stream().map(TaskRank::id).collect(Collectors.toSet());
+
+        Set<Integer> activeIds = new HashSet<>(taskRepository.findIdsByIdInAndCompleted(movingIds, false));
+        List<TaskRank> active = moving.stream().filter(task -> activeIds.contains(task.id())).toList();
+        wipCounters.move(active.stream().map(TaskBulkService::laneOf).toList(),
+                active.stream().map(task -> targetLane(task, columnId, rowId)).toList());
+
+        Map<TaskLane, String> lastKeys = new HashMap<>();
+        List<TaskRank> moved = new ArrayList<>();
+        for (TaskRank task : moving) {
+            TaskLane lane = targetLane(task, columnId, rowId);
+            String rankKey = lastKeys.containsKey(lane)
+                    ? RankKey.between(lastKeys.get(lane), null)
+                    : taskRanking.keyAtEnd(lane.columnId(), lane.rowId());
+            lastKeys.put(lane, rankKey);
+            moved.add(new TaskRank(task.id(), lane.columnId(), lane.rowId(), task.position(), rankKey));
+        }
+        taskRepository.batchUpdateLanes(moved);
+
+        if (column != null) {
+            recordColumnChanges(moving.stream().filter(task -> !columnId.equals(task.columnId())).toList(), column);
+        }
+        publishTasksChanged(movingIds);
+        return movingIds;
+    }
+
+    private static TaskLane laneOf(TaskRank task) {
+        return new TaskLane(task.columnId(), task.rowId());
+    }
+
+    private static TaskLane targetLane(TaskRank task, Integer columnId, Integer rowId) {
+        return new TaskLane(columnId != null ? columnId : task.columnId(), rowId != null ? rowId : task.rowId());
+    }
+
+    private void recordColumnChanges(List<TaskRank> tasks, Column to) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Set<Integer> taskIds = tasks.stream().map(TaskRank::id).collect(Collectors.toSet());
+        Map<Integer, Integer> lastOrders = taskColumnHistoryRepository.findMaxHistoryOrders(taskIds).stream()
+                .collect(Collectors.toMap(TaskHistoryOrder::taskId, TaskHistoryOrder::historyOrder));
+        Set<Integer> fromIds = tasks.stream().map(TaskRank::columnId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Integer, Column> from = columnRepository.findAllById(fromIds).stream()
+                .collect(Collectors.toMap(Column::getId, column -> column));
+
+        // Jak przy pojedynczym przeniesieniu: wpis dla kolumny źródłowej, potem docelowej
+        List<TaskColumnHistory> history = new ArrayList<>();
+        for (TaskRank task : tasks) {
+            var reference = taskRepository.getReferenceById(task.id());
+            int nextOrder = lastOrders.getOrDefault(task.id(), -1) + 1;
+            if (task.columnId() != null) {
+                history.add(historyEntry(reference, from.get(task.columnId()), nextOrder++));
+            }
+            history.add(historyEntry(reference, to, nextOrder));
+        }
+        taskColumnHistoryRepository.saveAll(history);
+    }
+
+    private static TaskColumnHistory historyEntry(Task task, Column column, int order) {
+        var entry = new TaskColumnHistory(task, column);
+        entry.setHistoryOrder(order);
+        return entry;
+    }
+
+    /**
+     * Deletes the tasks with their subtasks, labels, assignments and history in one
+     * statement per table and detaches their children that are not deleted with them.
+     */
+    public Set<Integer> deleteTasks(Set<Integer> taskIds) {
+        List<TaskLabel> labels = taskRepository.findTaskLabelsByTaskIdIn(taskIds);
+        Set<Integer> detachedChildIds = taskRepository.findTaskChildrenByParentIdIn(taskIds).stream()
+                .map(TaskChild::taskId)
+                .filter(id -> !taskIds.contains(id))
+                .collect(Collectors.toSet());
+
+        wipCounters.leave(taskRepository.findActiveLanesByIdIn(taskIds));
+        wipCounters.unassign(taskRepository.findAssigneeIdsByIdInAndCompleted(taskIds, false));
+        taskRepository.deleteAllWithDependents(taskIds);
+
+        labels.stream()
+                .collect(Collectors.groupingBy(TaskLabel::taskId, Collectors.mapping(TaskLabel::label, Collectors.toSet())))
+                .values()
+                .forEach(removed -> eventPublisher.publishEvent(TaskLabelsChangedEvent.of(removed, null)));
+        eventPublisher.publishEvent(BoardChangedEvent.deleted(BoardEntityType.TASK, taskIds));
+        if (!detachedChildIds.isEmpty()) {
+            publishTasksChanged(detachedChildIds);
+        }
+        return taskIds;
+    }
+
+    // Zadania zmienione poza żądaniem (wznowieni potomkowie) też trafiają do wyniku
+    private static List<BulkTaskResultDTO> results(BulkTaskRequestDTO request, Set<Integer> found, Set<Integer> changed,
+                                                   Set<Integer> rejected) {
+        BulkTaskResultDTO.Status changedStatus = switch (request.operation()) {
+            case DELETE -> BulkTaskResultDTO.Status.DELETED;
+            default -> BulkTaskResultDTO.Status.UPDATED;
+        };
+        Set<Integer> ids = new HashSet<>(request.taskIds());
+        ids.addAll(changed);
+        return ids.stream()
+                .sorted()
+                .map(id -> new BulkTaskResultDTO(id, changed.contains(id) ? changedStatus
+                        : rejected.contains(id) ? BulkTaskResultDTO.Status.REJECTED
+                        : !found.contains(id) ? BulkTaskResultDTO.Status.NOT_FOUND
+                        : BulkTaskResultDTO.Status.UNCHANGED))
+                .toList();
+    }
+
+    private void publishTasksChanged(Set<Integer> taskIds) {
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, taskIds));
+    }
+}
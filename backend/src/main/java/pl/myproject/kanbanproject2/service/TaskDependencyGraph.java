@@ -0,0 +1,365 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.myproject.kanbanproject2.dto.TaskDependencyDTO;
+import pl.myproject.kanbanproject2.dto.TaskDependencyGraphDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskDependencyChangedEvent;
+import pl.myproject.kanbanproject2.repository.TaskDependencyRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.*;
+
+/**
+ * In-memory adjacency index of the "blocks" edges between tasks. Loaded once with two queries
+ * and then kept current after commit from dependency and task change events; only the tasks
+ * an edge or a completion change reaches are touched.
+ * <p>
+ * Tasks are kept in topological order, repaired locally when an edge goes against it, which
+ * also makes the cycle check a search limited to the tasks between the two ends. Every task
+ * keeps the number of its open blockers and the longest chain of open tasks ending at it;
+ * both are updated incrementally in topological order, so blocked status is a set lookup and
+ * the critical path is read by following the longest chain back.
+ */
+@Component
+public class TaskDependencyGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDependencyGraph.class);
+
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final TaskRepository taskRepository;
+
+    private Map<Integer, Node> nodes;
+    private final Set<Integer> blockedIds = new TreeSet<>();
+    private final Set<Node> dirty = new HashSet<>();
+    private List<Integer> criticalPath;
+    private int nextOrder;
+
+    @Autowired
+    public TaskDependencyGraph(TaskDependencyRepository taskDependencyRepository, TaskRepository taskRepository) {
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Whether {@code blockerId} blocking {@code blockedId} would close a cycle, i.e. the tasks
+     * are the same or the blocker already waits, directly or not, for the blocked task.
+     */
+    public synchronized boolean wouldCreateCycle(Integer blockerId, Integer blockedId) {
+        if (blockerId.equals(blockedId)) {
+            return true;
+        }
+        Node blocker = loaded().get(blockerId);
+        Node blocked = loaded().get(blockedId);
+        // Ścieżka od blocked do blocker istnieje tylko, gdy blocked jest wcześniej w porządku topologicznym
+        return blocker != null && blocked != null && blocked.order < blocker.order
+                && reachable(blocked, true, blocker.order).contains(blocker);
+    }
+
+    public synchronized boolean isBlocked(Integer taskId) {
+        loaded();
+        return blockedIds.contains(taskId);
+    }
+
+    public synchronized TaskDependencyGraphDTO snapshot() {
+        List<TaskDependencyDTO> dependencies = new ArrayList<>();
+        loaded().values().forEach(node -> node.blocks
+                .forEach(blocked -> dependencies.add(new TaskDependencyDTO(node.id, blocked.id))));
+        dependencies.sort(Comparator.comparing(TaskDependencyDTO::blockerId).thenComparing(TaskDependencyDTO::blockedId));
+        return new TaskDependencyGraphDTO(dependencies, new TreeSet<>(blockedIds), getCriticalPath());
+    }
+
+    /**
+     * Longest chain of open tasks each blocking the next, first blocker first; empty when
+     * no open task takes part in a dependency. Cached until the graph changes.
+     */
+    public synchronized List<Integer> getCriticalPath() {
+        if (criticalPath == null) {
+            Node end = loaded().values().stream()
+                    .filter(node -> node.chain > 0)
+                    .max(Comparator.<Node>comparingInt(node -> node.chain)
+                            .thenComparing(node -> node.id, Comparator.reverseOrder()))
+                    .orElse(null);
+            LinkedList<Integer> path = new LinkedList<>();
+            for (Node node = end; node != null; node = node.via) {
+                path.addFirst(node.id);
+            }
+            criticalPath = List.copyOf(path);
+        }
+        return criticalPath;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onDependencyChanged(TaskDependencyChangedEvent event) {
+        // Niezaładowany graf i tak odczyta aktualny stan z bazy
+        if (nodes == null) {
+            return;
+        }
+        try {
+            if (event.added()) {
+                Map<Integer, Node> ends = nodes(List.of(event.blockerId(), event.blockedId()));
+                link(ends.get(event.blockerId()), ends.get(event.blockedId()));
+                ends.values().forEach(this::dropIfIsolated);
+            } else if (nodes.containsKey(event.blockerId()) && nodes.containsKey(event.blockedId())) {
+                unlink(nodes.get(event.blockerId()), nodes.get(event.blockedId()));
+            }
+            settle();
+        } catch (RuntimeException e) {
+            log.warn("Could not apply {} to the dependency graph, reloading", event, e);
+            nodes = null;
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onBoardChanged(BoardChangedEvent event) {
+        if (nodes == null) {
+            return;
+        }
+        // Usunięcie kolumny usuwa kaskadowo jej zadania razem z zależnościami
+        boolean columnDeleted = event.entityType() == BoardEntityType.COLUMN && !event.deletedIds().isEmpty();
+        if (event.entityType() == BoardEntityType.BOARD || columnDeleted) {
+            nodes = null;
+            return;
+        }
+        if (event.entityType() != BoardEntityType.TASK) {
+            return;
+        }
+        try {
+            event.deletedIds().stream()
+                    .map(nodes::get)
+                    .filter(Objects::nonNull)
+                    .forEach(this::remove);
+
+            // Stan ukończenia odczytujemy tylko dla zmienionych zadań, które mają zależności
+            List<Integer> changedIds = event.upsertedIds().stream().filter(nodes::containsKey).toList();
+            if (!changedIds.isEmpty()) {
+                Set<Integer> completedIds = new HashSet<>(taskRepository.findIdsByIdInAndCompleted(changedIds, true));
+                changedIds.forEach(id -> setCompleted(nodes.get(id), completedIds.contains(id)));
+            }
+            settle();
+        } catch (RuntimeException e) {
+            log.warn("Could not apply {} to the dependency graph, reloading", event, e);
+            nodes = null;
+        }
+    }
+
+    @Scheduled(fixedRate = 600000) // wykonywane co 10 min
+    public synchronized void invalidate() {
+        nodes = null;
+    }
+
+    private Map<Integer, Node> loaded() {
+        if (nodes == null) {
+            nodes = new HashMap<>();
+            blockedIds.clear();
+            dirty.clear();
+            nextOrder = 0;
+            List<TaskDependencyDTO> dependencies = taskDependencyRepository.findAllDependencies();
+            Set<Integer> ids = new TreeSet<>();
+            dependencies.forEach(dependency -> {
+                ids.add(dependency.blockerId());
+                ids.add(dependency.blockedId());
+            });
+            nodes(ids);
+            dependencies.forEach(dependency -> link(nodes.get(dependency.blockerId()), nodes.get(dependency.blockedId())));
+            settle();
+        }
+        return nodes;
+    }
+
+    // Brakujące węzły dostają stan ukończenia z bazy i trafiają na koniec porządku topologicznego
+    private Map<Integer, Node> nodes(Collection<Integer> ids) {
+        List<Integer> missing = ids.stream().filter(id -> !nodes.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Set<Integer> completedIds = new HashSet<>(taskRepository.findIdsByIdInAndCompleted(missing, true));
+            for (Integer id : missing) {
+                Node node = new Node(id, nextOrder++);
+                node.completed = completedIds.contains(id);
+                nodes.put(id, node);
+                dirty.add(node);
+            }
+        }
+        Map<Integer, Node> found = new HashMap<>();
+        ids.forEach(id -> found.put(id, nodes.get(id)));
+        return found;
+    }
+
+    private void link(Node blocker, Node blocked) {
+        if (blocker.blocks.contains(blocked)) {
+            return;
+        }
+        if (blocker.order > blocked.order && !reorder(blocker, blocked)) {
+            // Serwis sprawdza cykle przed zapisem; tu trafia tylko krawędź zapisana równolegle z inną
+            log.warn("Ignoring dependency {} -> {} that would close a cycle", blocker.id, blocked.id);
+            return;
+        }
+        blocker.blocks.add(blocked);
+        blocked.blockers.add(blocker);
+        if (!blocker.completed) {
+            blocked.openBlockers++;
+            refreshBlocked(blocked);
+        }
+        dirty.add(blocked);
+    }
+
+    private void unlink(Node blocker, Node blocked) {
+        if (!blocker.blocks.remove(blocked)) {
+            return;
+        }
+        blocked.blockers.remove(blocker);
+        if (!blocker.completed) {
+            blocked.openBlockers--;
+            refreshBlocked(blocked);
+        }
+        dirty.add(blocked);
+        dropIfIsolated(blocker);
+        dropIfIsolated(blocked);
+    }
+
+    private void remove(Node node) {
+        new ArrayList<>(node.blockers).forEach(blocker -> unlink(blocker, node));
+        new ArrayList<>(node.blocks).forEach(blocked -> unlink(node, blocked));
+        dropIfIsolated(node);
+    }
+
+    private void dropIfIsolated(Node node) {
+        if (node.blockers.isEmpty() && node.blocks.isEmpty()) {
+            nodes.remove(node.id);
+            blockedIds.remove(node.id);
+            dirty.remove(node);
+            criticalPath = null;
+        }
+    }
+
+    private void setCompleted(Node node, boolean completed) {
+        if (node.completed == completed) {
+            return;
+        }
+        node.completed = completed;
+        for (Node blocked : node.blocks) {
+            blocked.openBlockers += completed ? -1 : 1;
+            refreshBlocked(blocked);
+        }
+        refreshBlocked(node);
+        dirty.add(node);
+    }
+
+    private void refreshBlocked(Node node) {
+        if (!node.completed && node.openBlockers > 0) {
+            blockedIds.add(node.id);
+        } else {
+            blockedIds.remove(node.id);
+        }
+    }
+
+    /**
+     * Restores the topological order before adding {@code blocker -> blocked} against it:
+     * tasks reachable from the blocked task and tasks reaching the blocker, both only within
+     * the range between the two, swap places keeping their own relative order.
+     *
+     * @return false when the blocked task reaches the blocker, i.e. the edge would close a cycle
+     */
+    private boolean reorder(Node blocker, Node blocked) {
+        Set<Node> following = reachable(blocked, true, blocker.order);
+        if (following.contains(blocker)) {
+            return false;
+        }
+        Set<Node> preceding = reachable(blocker, false, blocked.order);
+
+        Comparator<Node> byOrder = Comparator.comparingInt(node -> node.order);
+        List<Node> moved = new ArrayList<>(preceding);
+        moved.sort(byOrder);
+        List<Node> after = new ArrayList<>(following);
+        after.sort(byOrder);
+        moved.addAll(after);
+        int[] slots = moved.stream().mapToInt(node -> node.order).sorted().toArray();
+        for (int i = 0; i < slots.length; i++) {
+            moved.get(i).order = slots[i];
+        }
+        return true;
+    }
+
+    // Przeszukiwanie wprzód (do zadań o porządku <= bound) albo wstecz (>= bound)
+    private static Set<Node> reachable(Node start, boolean forward, int bound) {
+        Set<Node> visited = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        visited.add(start);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            for (Node next : forward ? node.blocks : node.blockers) {
+                boolean inRange = forward ? next.order <= bound : next.order >= bound;
+                if (inRange && visited.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Recomputes the longest open chain of changed tasks and, while it changes, of the tasks
+     * they block. Tasks are taken in topological order, so each is recomputed once, after
+     * all its blockers.
+     */
+    private void settle() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt(node -> node.order));
+        Set<Node> queued = new HashSet<>(dirty);
+        queue.addAll(dirty);
+        dirty.clear();
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            Node via = null;
+            if (!node.completed) {
+                for (Node blocker : node.blockers) {
+                    if (blocker.chain > 0 && (via == null || blocker.chain > via.chain
+                            || blocker.chain == via.chain && blocker.id < via.id)) {
+                        via = blocker;
+                    }
+                }
+            }
+            int chain = node.completed ? 0 : 1 + (via != null ? via.chain : 0);
+            node.via = via;
+            if (chain != node.chain) {
+                node.chain = chain;
+                for (Node blocked : node.blocks) {
+                    if (queued.add(blocked)) {
+                        queue.add(blocked);
+                    }
+                }
+            }
+        }
+        criticalPath = null;
+    }
+
+    private static final class Node {
+        private final Integer id;
+        private final Set<Node> blockers = new HashSet<>();
+        private final Set<Node> blocks = new HashSet<>();
+        private boolean completed;
+        private int order;
+        private int openBlockers;
+        // Długość najdłuższego łańcucha otwartych zadań kończącego się na tym zadaniu i poprzednik na nim
+        private int chain;
+        private Node via;
+
+        private Node(Integer id, int order) {
+            this.id = id;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.TaskDependencyDTO;
+import pl.myproject.kanbanproject2.dto.TaskDependencyGraphDTO;
+import pl.myproject.kanbanproject2.event.TaskDependencyChangedEvent;
+import pl.myproject.kanbanproject2.model.TaskDependency;
+import pl.myproject.kanbanproject2.repository.TaskDependencyRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+@Transactional
+@Service
+public class TaskDependencyService {
+
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final TaskRepository taskRepository;
+    private final TaskDependencyGraph taskDependencyGraph;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public TaskDependencyService(TaskDependencyRepository taskDependencyRepository,
+                                 TaskRepository taskRepository,
+                                 TaskDependencyGraph taskDependencyGraph,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.taskRepository = taskRepository;
+        this.taskDependencyGraph = taskDependencyGraph;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public TaskDependencyGraphDTO getDependencyGraph() {
+        return taskDependencyGraph.snapshot();
+    }
+
+    public TaskDependencyDTO addBlocker(Integer taskId, Integer blockerId) {
+        try {
+            if (!taskRepository.existsById(taskId) || !taskRepository.existsById(blockerId)) {
+                throw new EntityNotFoundException("Nie ma zadania o takim id");
+            }
+            if (taskDependencyRepository.existsByBlockerIdAndBlockedId(blockerId, taskId)) {
+                throw new IllegalStateException("Zadanie jest już blokowane przez to zadanie");
+            }
+            // Sprawdzenie w grafie w pamięci, bez przechodzenia zależności w bazie
+            if (taskDependencyGraph.wouldCreateCycle(blockerId, taskId)) {
+                throw new IllegalArgumentException("Zależność tworzyłaby cykl, co jest niedozwolone");
+            }
+
+            taskDependencyRepository.save(new TaskDependency(blockerId, taskId));
+            eventPublisher.publishEvent(TaskDependencyChangedEvent.added(blockerId, taskId));
+            return new TaskDependencyDTO(blockerId, taskId);
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    public void removeBlocker(Integer taskId, Integer blockerId) {
+        try {
+            if (taskDependencyRepository.deleteDependency(blockerId, taskId) == 0) {
+                throw new EntityNotFoundException("Zadanie nie jest blokowane przez to zadanie");
+            }
+            eventPublisher.publishEvent(TaskDependencyChangedEvent.removed(blockerId, taskId));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+}
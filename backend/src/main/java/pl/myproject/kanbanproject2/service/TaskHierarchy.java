@@ -0,0 +1,70 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+import pl.myproject.kanbanproject2.repository.TaskClosureRepository;
+
+import java.util.List;
+
+/**
+ * Parent-child hierarchy of tasks backed by the {@code task_closure} table. Cycle checks,
+ * ancestor and descendant lookups are one indexed query each, whatever the depth of the
+ * tree; changing a parent rewrites the pairs of the moved subtree with two statements.
+ * Task deletion cleans the table up in {@code TaskRepository.deleteAllWithDependents}.
+ */
+@Transactional
+@Component
+public class TaskHierarchy {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskHierarchy.class);
+
+    private final TaskClosureRepository taskClosureRepository;
+
+    @Autowired
+    public TaskHierarchy(TaskClosureRepository taskClosureRepository) {
+        this.taskClosureRepository = taskClosureRepository;
+    }
+
+    /**
+     * Whether making {@code parentId} the parent of {@code childId} would close a cycle,
+     * i.e. the parent is the child itself or one of its descendants.
+     */
+    public boolean wouldCreateCycle(Integer childId, Integer parentId) {
+        return childId.equals(parentId) || taskClosureRepository.existsByAncestorIdAndDescendantId(childId, parentId);
+    }
+
+    /**
+     * Moves the subtree of {@code childId} from {@code previousParentId} to {@code parentId};
+     * either may be null.
+     */
+    public void changeParent(Integer childId, Integer previousParentId, Integer parentId) {
+        if (previousParentId != null) {
+            taskClosureRepository.unlink(childId);
+        }
+        if (parentId != null) {
+            taskClosureRepository.link(childId, parentId);
+        }
+    }
+
+    /**
+     * Links new tasks created with a parent; they have no descendants yet.
+     */
+    public void addChildren(List<TaskChild> children) {
+        if (!children.isEmpty()) {
+            taskClosureRepository.linkLeaves(children);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfOutOfSync() {
+        if (taskClosureRepository.rebuildIfOutOfSync()) {
+            log.info("Rebuilt the task hierarchy closure table from parent links");
+        }
+    }
+}
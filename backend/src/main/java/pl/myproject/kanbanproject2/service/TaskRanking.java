@@ -0,0 +1,206 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hands out {@link RankKey}s within a lane (column and row). A move between two neighbours
+ * gets a key strictly between theirs, so only the moved task is written. Lanes whose keys
+ * grew long from repeated inserts at the same spot, or which still hold tasks without a
+ * key, are rebalanced in the background.
+ */
+@Transactional
+@Component
+public class TaskRanking {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskRanking.class);
+
+    static final int MAX_KEY_LENGTH = 12;
+
+    private static final Comparator<TaskRank> POSITION_ORDER = Comparator
+            .comparing(TaskRank::position, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskRank::id);
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public TaskRanking(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public String keyAtEnd(Integer columnId, Integer rowId) {
+        return RankKey.between(taskRepository.findLastRankKey(columnId, rowId), null);
+    }
+
+    /**
+     * Key placing the task directly after {@code afterId} and before {@code beforeId} in the
+     * given lane. A missing neighbour means the start or the end of the lane; with no
+     * neighbours at all the task goes to the end.
+     *
+     * @throws EntityNotFoundException  when a neighbour does not exist
+     * @throws IllegalArgumentException when a neighbour is the task itself or lies in another lane
+     * @throws IllegalStateException    when the neighbours are not adjacent in that order anymore
+     */
+    public String keyBetween(Integer taskId, Integer columnId, Integer rowId, Integer afterId, Integer beforeId) {
+        if (afterId == null && beforeId == null) {
+            return keyAtEnd(columnId, rowId);
+        }
+        Map<Integer, TaskRank> neighbours = neighbours(afterId, beforeId);
+        if (neighbours.values().stream().anyMatch(rank -> rank.rankKey() == null)) {
+            rebalance(new TaskLane(columnId, rowId));
+            neighbours = neighbours(afterId, beforeId);
+        }
+
+        for (TaskRank neighbour : neighbours.values()) {
+            if (neighbour.id().equals(taskId)) {
+                throw new IllegalArgumentException("Zadanie nie może być własnym sąsiadem");
+            }
+            if (!neighbour.inLane(columnId, rowId)) {
+                throw new IllegalArgumentException("Sąsiednie zadanie należy do innej kolumny lub wiersza");
+            }
+        }
+
+        String lower = afterId != null ? neighbours.get(afterId).rankKey() : null;
+        String upper = beforeId != null ? neighbours.get(beforeId).rankKey() : null;
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalStateException("Kolejność zadań zmieniła się, odśwież tablicę");
+        }
+        return RankKey.between(lower, upper);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedRate = 3600000) // wykonywane co godzinę
+    public void rebalanceLanes() {
+        List<TaskLane> lanes = taskRepository.findLanesToRebalance(MAX_KEY_LENGTH);
+        lanes.forEach(this::rebalance);
+        if (!lanes.isEmpty()) {
+            log.info("Rebalanced rank keys in {} lanes", lanes.size());
+        }
+    }
+
+    /**
+     * Spreads the keys of a lane evenly, keeping the current order; tasks without a key go
+     * last, ordered by their legacy position.
+     */
+    public void rebalance(TaskLane lane) {
+        respace(taskRepository.findLaneRanks(lane.columnId(), lane.rowId()));
+    }
+
+    /**
+     * Gives the {@code taskIds} of a lane new keys matching their positions (batch reorder),
+     * each run of them keyed between the untouched neighbours around it. Other tasks keep
+     * their keys; only when those no longer follow position order is the whole lane re-keyed.
+     * The caller publishes the change of {@code taskIds}.
+     */
+    public void rankByPosition(TaskLane lane, Set<Integer> taskIds) {
+        List<TaskRank> ranks = new ArrayList<>(taskRepository.findLaneRanks(lane.columnId(), lane.rowId()));
+        ranks.sort(POSITION_ORDER);
+
+        String previousKey = null;
+        for (TaskRank rank : ranks) {
+            if (taskIds.contains(rank.id())) {
+                continue;
+            }
+            if (rank.rankKey() == null || (previousKey != null && previousKey.compareTo(rank.rankKey()) >= 0)) {
+                respace(ranks);
+                return;
+            }
+            previousKey = rank.rankKey();
+        }
+
+        Map<Integer, String> changedKeys = new HashMap<>();
+        int runStart = 0;
+        String lower = null;
+        for (int i = 0; i <= ranks.size(); i++) {
+            boolean untouched = i < ranks.size() && !taskIds.contains(ranks.get(i).id());
+            if (i < ranks.size() && !untouched) {
+                continue;
+            }
+            String upper = untouched ? ranks.get(i).rankKey() : null;
+            spread(ranks.subList(runStart, i), lower, upper, changedKeys);
+            runStart = i + 1;
+            lower = upper;
+        }
+
+        if (!changedKeys.isEmpty()) {
+            taskRepository.batchUpdateRankKeys(changedKeys);
+        }
+    }
+
+    // Środek przebiegu dostaje klucz pomiędzy sąsiadami, połowy rekurencyjnie: długość kluczy rośnie logarytmicznie
+    private static void spread(List<TaskRank> run, String lower, String upper, Map<Integer, String> changedKeys) {
+        if (run.isEmpty()) {
+            return;
+        }
+        int middle = run.size() / 2;
+        TaskRank rank = run.get(middle);
+        String key = RankKey.between(lower, upper);
+        if (!key.equals(rank.rankKey())) {
+            changedKeys.put(rank.id(), key);
+        }
+        spread(run.subList(0, middle), lower, key, changedKeys);
+        spread(run.subList(middle + 1, run.size()), key, upper, changedKeys);
+    }
+
+    private void respace(List<TaskRank> ordered) {
+        List<String> keys = RankKey.evenlySpaced(ordered.size());
+        Map<Integer, String> changedKeys = new HashMap<>();
+
+        for (int i = 0; i < ordered.size(); i++) {
+            TaskRank rank = ordered.get(i);
+            if (!keys.get(i).equals(rank.rankKey())) {
+                changedKeys.put(rank.id(), keys.get(i));
+            }
+        }
+
+        if (!changedKeys.isEmpty()) {
+            taskRepository.batchUpdateRankKeys(changedKeys);
+            eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, changedKeys.keySet()));
+        }
+    }
+
+    private Map<Integer, TaskRank> neighbours(Integer afterId, Integer beforeId) {
+        Set<Integer> ids = new HashSet<>();
+        if (afterId != null) {
+            ids.add(afterId);
+        }
+        if (beforeId != null) {
+            ids.add(beforeId);
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Integer, TaskRank> neighbours = taskRepository.findTaskRanksByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskRank::id, Function.identity()));
+        if (neighbours.size() < ids.size()) {
+            throw new EntityNotFoundException("Nie ma sąsiedniego zadania o takim id");
+        }
+        return neighbours;
+    }
+}
@@ -2,19 +2,44 @@ package pl.myproject.kanbanproject2.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.BoardChangesDTO;
+import pl.myproject.kanbanproject2.dto.LabelUsageDTO;
+import pl.myproject.kanbanproject2.dto.MoveTaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+import pl.myproject.kanbanproject2.dto.TaskCompletionDTO;
+import pl.myproject.kanbanproject2.dto.TaskCursor;
 import pl.myproject.kanbanproject2.dto.TaskDTO;
 import pl.myproject.kanbanproject2.dto.TaskColumnHistoryDTO;
+import pl.myproject.kanbanproject2.dto.TaskFilter;
+import pl.myproject.kanbanproject2.dto.TaskHistoryOrder;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskMovedDTO;
+import pl.myproject.kanbanproject2.dto.TaskPageDTO;
+import pl.myproject.kanbanproject2.dto.TaskPositionDTO;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.dto.TaskTreeDTO;
+import pl.myproject.kanbanproject2.dto.TaskTreeRow;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskLabelsChangedEvent;
 import pl.myproject.kanbanproject2.mapper.TaskMapper;
 import pl.myproject.kanbanproject2.mapper.TaskColumnHistoryMapper;
 import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.model.SubTask;
 import pl.myproject.kanbanproject2.model.Task;
 import pl.myproject.kanbanproject2.model.TaskColumnHistory;
 import pl.myproject.kanbanproject2.model.User;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
 import pl.myproject.kanbanproject2.repository.TaskColumnHistoryRepository;
 import pl.myproject.kanbanproject2.repository.TaskRepository;
 import pl.myproject.kanbanproject2.repository.UserRepository;
@@ -27,68 +52,266 @@ import java.util.stream.Collectors;
 @Service
 public class TaskService {
 
+    private static final Logger log = LoggerFactory.getLogger(TaskService.class);
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
-    private final UserService userService;
     private final TaskColumnHistoryRepository taskColumnHistoryRepository;
     private final TaskColumnHistoryMapper historyMapper;
+    private final BoardReadModel boardReadModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityVersions entityVersions;
+    private final BoardService boardService;
+    private final LabelCatalogue labelCatalogue;
+    private final TaskRanking taskRanking;
+    private final ColumnRepository columnRepository;
+    private final RowRepository rowRepository;
+    private final TaskBulkService taskBulkService;
+    private final WipCounters wipCounters;
+    private final TaskHierarchy taskHierarchy;
 
     @Autowired
     public TaskService(TaskRepository taskRepository, UserRepository userRepository, TaskMapper taskMapper,
-                       UserService userService, TaskColumnHistoryRepository taskColumnHistoryRepository,
-                       TaskColumnHistoryMapper historyMapper) {
+                       TaskColumnHistoryRepository taskColumnHistoryRepository,
+                       TaskColumnHistoryMapper historyMapper, BoardReadModel boardReadModel,
+                       ApplicationEventPublisher eventPublisher, EntityVersions entityVersions,
+                       BoardService boardService, LabelCatalogue labelCatalogue, TaskRanking taskRanking,
+                       ColumnRepository columnRepository, RowRepository rowRepository,
+                       TaskBulkService taskBulkService, WipCounters wipCounters, TaskHierarchy taskHierarchy) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.taskMapper = taskMapper;
-        this.userService = userService;
         this.taskColumnHistoryRepository = taskColumnHistoryRepository;
         this.historyMapper = historyMapper;
+        this.boardReadModel = boardReadModel;
+        this.eventPublisher = eventPublisher;
+        this.entityVersions = entityVersions;
+        this.boardService = boardService;
+        this.labelCatalogue = labelCatalogue;
+        this.taskRanking = taskRanking;
+        this.columnRepository = columnRepository;
+        this.rowRepository = rowRepository;
+        this.taskBulkService = taskBulkService;
+        this.wipCounters = wipCounters;
+        this.taskHierarchy = taskHierarchy;
     }
 
     public Task addTask(Task task) {
+        try {
+            if (task.getPosition() == null) {
+                long count = taskRepository.count();
+                task.setPosition((int) count + 1);
+            }
 
-        if (task.getPosition() == null) {
-            long count = taskRepository.count();
-            task.setPosition((int) count + 1);
-        }
+            if (task.getLabels() == null) {
+                task.setLabels(new HashSet<>());
+            }
+
+            // Kolumna i wiersz z żądania mają tylko id; bez wersji Hibernate uznałby je za nowe encje
+            task.setColumn(findColumns(List.of(task)).get(columnIdOf(task)));
+            task.setRow(findRows(List.of(task)).get(rowIdOf(task)));
+            task.setParentTask(findParents(List.of(task)).get(parentIdOf(task)));
+            countSubTasks(task);
+            if (!task.isCompleted()) {
+                wipCounters.enter(List.of(laneOf(task)));
+                wipCounters.assign(userIdsOf(task));
+            }
+
+            // Nowe zadanie trafia na koniec swojego pasa (kolumna + wiersz)
+            task.setRankKey(taskRanking.keyAtEnd(columnIdOf(task), rowIdOf(task)));
+
+            var savedTask = taskRepository.save(task);
+            taskHierarchy.addChildren(childLinksOf(List.of(savedTask)));
 
-        if (task.getLabels() == null) {
-            task.setLabels(new HashSet<>());
+            if (task.getColumn() != null) {
+                saveTaskColumnHistory(savedTask, task.getColumn(), 0);
+            }
+
+            publishLabelsChanged(null, savedTask.getLabels());
+            publishTaskChanged(savedTask.getId());
+            return savedTask;
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         }
+    }
 
-        var savedTask = taskRepository.save(task);
+    /**
+     * Creates many tasks, with their subtasks and labels, in one transaction. Ids come from
+     * pooled sequences, so the rows are sent as JDBC batches on flush; columns and rows are
+     * resolved once for the whole list and each lane's end key is read once.
+     */
+    public List<TaskDTO> addTasks(List<Task> tasks) {
+        try {
+            if (tasks == null || tasks.isEmpty()) {
+                throw new IllegalArgumentException("Lista zadań nie może być pusta");
+            }
+            Map<Integer, Column> columns = findColumns(tasks);
+            Map<Integer, Row> rows = findRows(tasks);
+            Map<Integer, Task> parents = findParents(tasks);
+
+            int nextPosition = tasks.stream().anyMatch(task -> task.getPosition() == null)
+                    ? (int) taskRepository.count() + 1
+                    : 0;
+            Map<TaskLane, String> lastKeys = new HashMap<>();
+            for (Task task : tasks) {
+                task.setColumn(columns.get(columnIdOf(task)));
+                task.setRow(rows.get(rowIdOf(task)));
+                task.setParentTask(parents.get(parentIdOf(task)));
+                if (task.getPosition() == null) {
+                    task.setPosition(nextPosition++);
+                }
+                if (task.getLabels() == null) {
+                    task.setLabels(new HashSet<>());
+                }
 
+                // Kolejne zadania z tego samego pasa ustawiamy za poprzednim, bez ponownego odczytu
+                TaskLane lane = new TaskLane(columnIdOf(task), rowIdOf(task));
+                String rankKey = lastKeys.containsKey(lane)
+                        ? RankKey.between(lastKeys.get(lane), null)
+                        : taskRanking.keyAtEnd(lane.columnId(), lane.rowId());
+                lastKeys.put(lane, rankKey);
+                task.setRankKey(rankKey);
 
-        if (task.getColumn() != null) {
-            saveTaskColumnHistory(savedTask, task.getColumn());
+                if (task.getSubTasks() == null) {
+                    task.setSubTasks(new ArrayList<>());
+                }
+                for (int i = 0; i < task.getSubTasks().size(); i++) {
+                    SubTask subTask = task.getSubTasks().get(i);
+                    subTask.setTask(task);
+                    if (subTask.getPosition() == null) {
+                        subTask.setPosition(i + 1);
+                    }
+                }
+                countSubTasks(task);
+            }
+
+            List<Task> activeTasks = tasks.stream().filter(task -> !task.isCompleted()).toList();
+            wipCounters.enter(activeTasks.stream().map(TaskService::laneOf).toList());
+            wipCounters.assign(activeTasks.stream().flatMap(task -> userIdsOf(task).stream()).toList());
+
+            List<Task> savedTasks = taskRepository.saveAll(tasks);
+            taskHierarchy.addChildren(childLinksOf(savedTasks));
+            taskColumnHistoryRepository.saveAll(savedTasks.stream()
+                    .filter(task -> task.getColumn() != null)
+                    .map(task -> new TaskColumnHistory(task, task.getColumn()))
+                    .toList());
+
+            savedTasks.forEach(task -> publishLabelsChanged(null, task.getLabels()));
+            eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK,
+                    savedTasks.stream().map(Task::getId).toList()));
+            List<Integer> subTaskIds = savedTasks.stream()
+                    .flatMap(task -> task.getSubTasks().stream())
+                    .map(SubTask::getId)
+                    .toList();
+            if (!subTaskIds.isEmpty()) {
+                eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.SUBTASK, subTaskIds));
+            }
+            return savedTasks.stream().map(taskMapper).toList();
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         }
+    }
 
-        return savedTask;
+    private Map<Integer, Column> findColumns(List<Task> tasks) {
+        Set<Integer> columnIds = tasks.stream()
+                .map(TaskService::columnIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Column> columns = columnRepository.findAllById(columnIds).stream()
+                .collect(Collectors.toMap(Column::getId, column -> column));
+        if (columns.size() < columnIds.size()) {
+            throw new EntityNotFoundException("Nie ma kolumny o takim id");
+        }
+        return columns;
     }
 
-    public List<TaskDTO> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(taskMapper::apply)
-                .sorted(Comparator.comparing(TaskDTO::position))
-                .collect(Collectors.toList());
+    private Map<Integer, Task> findParents(List<Task> tasks) {
+        Set<Integer> parentIds = tasks.stream()
+                .map(TaskService::parentIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Task> parents = taskRepository.findAllById(parentIds).stream()
+                .collect(Collectors.toMap(Task::getId, parent -> parent));
+        if (parents.size() < parentIds.size()) {
+            throw new EntityNotFoundException("Nie ma zadania nadrzędnego o takim id");
+        }
+        return parents;
     }
 
-    public void deleteTask(Integer id) {
-        var task = taskRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
+    // Liczniki idą w INSERT zadania; wartości z żądania nie mają znaczenia
+    private static void countSubTasks(Task task) {
+        List<SubTask> subTasks = task.getSubTasks() != null
+                ? task.getSubTasks().stream().filter(subTask -> subTask.getTask() == task).toList()
+                : List.of();
+        task.setSubtasksTotal(subTasks.size());
+        task.setSubtasksCompleted((int) subTasks.stream().filter(SubTask::isCompleted).count());
+    }
 
-        taskColumnHistoryRepository.deleteAll(taskColumnHistoryRepository.findByTaskOrderByChangedAtDesc(task));
+    private static List<TaskChild> childLinksOf(List<Task> tasks) {
+        return tasks.stream()
+                .filter(task -> task.getParentTask() != null)
+                .map(task -> new TaskChild(task.getParentTask().getId(), task.getId()))
+                .toList();
+    }
 
-        if (task.getChildTasks() != null && !task.getChildTasks().isEmpty()) {
-            for (Task child : task.getChildTasks()) {
-                child.setParentTask(null);
-                taskRepository.save(child);
-            }
-            task.getChildTasks().clear();
+    private Map<Integer, Row> findRows(List<Task> tasks) {
+        Set<Integer> rowIds = tasks.stream()
+                .map(TaskService::rowIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Row> rows = rowRepository.findAllById(rowIds).stream()
+                .collect(Collectors.toMap(Row::getId, row -> row));
+        if (rows.size() < rowIds.size()) {
+            throw new EntityNotFoundException("Nie ma wiersza o takim id");
+        }
+        return rows;
+    }
+
+    public List<TaskDTO> getAllTasks() {
+        return boardReadModel.getAllTasks();
+    }
+
+    public TaskPageDTO getTaskPage(TaskFilter filter, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit musi być większy od zera");
+        }
+        try {
+            TaskCursor after = cursor != null ? TaskCursor.decode(cursor) : null;
+            return boardService.getTaskPage(filter, after, Math.min(pageSize, MAX_PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         }
+    }
+
+    public String getTasksETag() {
+        return entityVersions.eTag("tasks", BoardEntityType.TASK);
+    }
+
+    public String getLabelsETag() {
+        return entityVersions.eTag("labels", BoardEntityType.TASK);
+    }
+
+    public BoardChangesDTO getChangesSince(String since) {
+        return boardReadModel.getChangesSince(since);
+    }
 
-        taskRepository.delete(task);
+    public void deleteTask(Integer id) {
+        if (!taskRepository.existsById(id)) {
+            throw new EntityNotFoundException("Nie ma zadania o takim id");
+        }
+        // Stała liczba zapytań zamiast wczytywania historii i zapisywania każdego dziecka osobno
+        taskBulkService.deleteTasks(Set.of(id));
     }
 
     public TaskDTO getTaskById(Integer id) {
@@ -101,10 +324,15 @@ public class TaskService {
         }
     }
 
-    public TaskDTO patchTask(Integer id, Task task) {
+    /**
+     * Applies the non-null fields of {@code task}. With {@code expectedVersion} given the patch
+     * is rejected with 412 when the task has changed since the client read that version.
+     */
+    public TaskDTO patchTask(Integer id, Task task, Long expectedVersion) {
         try {
             var existingTask = taskRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
+            VersionTags.check(expectedVersion, existingTask.getVersion());
 
             Integer currentColumnId = null;
             Column currentColumn = null;
@@ -117,33 +345,39 @@ public class TaskService {
                 existingTask.setTitle(task.getTitle());
             }
 
+            Integer currentRowId = rowIdOf(existingTask);
+
             if (task.getColumn() != null) {
                 boolean columnChanged = existingTask.getColumn() == null ||
                         !existingTask.getColumn().getId().equals(task.getColumn().getId());
 
 
                 if (columnChanged) {
-                    if (currentColumn != null) {
-
-                        saveTaskColumnHistory(existingTask, currentColumn);
-                    }
-
-                    existingTask.setColumn(task.getColumn());
-
-                    saveTaskColumnHistory(existingTask, task.getColumn());
+                    Column column = columnRepository.findWithoutTasksById(task.getColumn().getId())
+                            .orElseThrow(() -> new EntityNotFoundException("Nie ma kolumny o takim id"));
+                    existingTask.setColumn(column);
+                    recordColumnChange(existingTask, currentColumn, column);
                 }
             }
 
             if (task.getUsers() != null) {
+                if (!existingTask.isCompleted()) {
+                    Set<Integer> previousUserIds = userIdsOf(existingTask);
+                    Set<Integer> userIds = userIdsOf(task);
+                    wipCounters.unassign(previousUserIds.stream().filter(userId -> !userIds.contains(userId)).toList());
+                    wipCounters.assign(userIds.stream().filter(userId -> !previousUserIds.contains(userId)).toList());
+                }
                 existingTask.setUsers(task.getUsers());
             }
             if (task.getPosition() != null) {
                 existingTask.setPosition(task.getPosition());
             }
             if (task.getRow() != null) {
-                existingTask.setRow(task.getRow());
+                existingTask.setRow(rowRepository.findWithoutTasksById(task.getRow().getId())
+                        .orElseThrow(() -> new EntityNotFoundException("Nie ma wiersza o takim id")));
             }
             if (task.getLabels() != null) {
+                publishLabelsChanged(existingTask.getLabels(), task.getLabels());
                 existingTask.setLabels(task.getLabels());
             }
             if (task.getDescription() != null) {
@@ -153,25 +387,42 @@ public class TaskService {
                 existingTask.setDeadline(task.getDeadline());
             }
 
-            var savedTask = taskRepository.save(existingTask);
+            if (!Objects.equals(currentColumnId, columnIdOf(existingTask)) || !Objects.equals(currentRowId, rowIdOf(existingTask))) {
+                if (!existingTask.isCompleted()) {
+                    wipCounters.move(List.of(new TaskLane(currentColumnId, currentRowId)), List.of(laneOf(existingTask)));
+                }
+                existingTask.setRankKey(taskRanking.keyAtEnd(columnIdOf(existingTask), rowIdOf(existingTask)));
+            }
+
+            // Flush podbija wersję przed zmapowaniem, więc odpowiedź niesie już nowy ETag
+            var savedTask = taskRepository.saveAndFlush(existingTask);
+            publishTaskChanged(savedTask.getId());
             return taskMapper.apply(savedTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         }
     }
 
-    private void saveTaskColumnHistory(Task task, Column column) {
-
-        List<TaskColumnHistory> taskHistory = taskColumnHistoryRepository.findByTaskOrderByChangedAtDesc(task);
-        Integer nextHistoryOrder = 0;
-
-        if (!taskHistory.isEmpty()) {
-            var lastHistory = taskHistory.get(0);
-            nextHistoryOrder = (lastHistory.getHistoryOrder() != null ? lastHistory.getHistoryOrder() : 0) + 1;
+    private void recordColumnChange(Task task, Column from, Column to) {
+        int nextHistoryOrder = nextHistoryOrder(task);
+        if (from != null) {
+            saveTaskColumnHistory(task, from, nextHistoryOrder++);
         }
+        saveTaskColumnHistory(task, to, nextHistoryOrder);
+    }
 
+    // Jedno zapytanie max() po indeksie (task_id, history_order) zamiast wczytywania całej historii
+    private int nextHistoryOrder(Task task) {
+        return taskColumnHistoryRepository.findMaxHistoryOrder(task)
+                .map(order -> order + 1)
+                .orElse(0);
+    }
+
+    private void saveTaskColumnHistory(Task task, Column column, int historyOrder) {
         var history = new TaskColumnHistory(task, column);
-        history.setHistoryOrder(nextHistoryOrder);
+        history.setHistoryOrder(historyOrder);
         taskColumnHistoryRepository.save(history);
     }
 
@@ -195,29 +446,26 @@ public class TaskService {
 
     public TaskDTO assignUserToTask(Integer taskId, Integer userId) {
         try {
-            boolean isWithinLimit = userService.checkWipStatus(userId);
-
-            if (!isWithinLimit) {
-                throw new RuntimeException("Nie można przypisać użytkownika.");
-            }
-
             var task = taskRepository.findById(taskId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
 
             var user = userRepository.findById(userId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma użytkownika o takim id"));
 
+            // Sprawdzenie limitu i zwiększenie licznika to jeden warunkowy UPDATE, bez wczytywania zadań użytkownika
+            if (!task.isCompleted() && !task.getUsers().contains(user)) {
+                wipCounters.assign(List.of(userId));
+            }
             task.getUsers().add(user);
-            user.getTasks().add(task);
 
-            userRepository.save(user);
             var updatedTask = taskRepository.save(task);
+            publishTaskChanged(updatedTask.getId());
 
             return taskMapper.apply(updatedTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
-        } catch (RuntimeException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         }
     }
 
@@ -229,11 +477,12 @@ public class TaskService {
             var user = userRepository.findById(userId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma użytkownika o takim id"));
 
-            task.getUsers().remove(user);
-            user.getTasks().remove(task);
+            if (task.getUsers().remove(user) && !task.isCompleted()) {
+                wipCounters.unassign(List.of(userId));
+            }
 
-            userRepository.save(user);
             var updatedTask = taskRepository.save(task);
+            publishTaskChanged(updatedTask.getId());
 
             return taskMapper.apply(updatedTask);
         } catch (EntityNotFoundException e) {
@@ -241,15 +490,198 @@ public class TaskService {
         }
     }
 
-    public TaskDTO updateTaskPosition(Integer id, Integer position) {
+    public TaskDTO updateTaskPosition(Integer id, Integer position, Long expectedVersion) {
         try {
             var task = taskRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
+            VersionTags.check(expectedVersion, task.getVersion());
             task.setPosition(position);
+            Task updatedTask = taskRepository.saveAndFlush(task);
+            publishTaskChanged(updatedTask.getId());
+            return taskMapper.apply(updatedTask);
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies many (column, row, position) changes at once: the batch is validated as a whole,
+     * written with JDBC batch updates and every lane it targets is re-ranked in position order.
+     */
+    public void reorderTasks(List<TaskPositionDTO> positions) {
+        try {
+            Set<Integer> taskIds = validateTaskPositions(positions);
+
+            Map<Integer, TaskRank> current = taskRepository.findTaskRanksByIdIn(taskIds).stream()
+                    .collect(Collectors.toMap(TaskRank::id, rank -> rank));
+            if (current.size() < taskIds.size()) {
+                throw new EntityNotFoundException("Nie ma zadania o takim id");
+            }
+
+            Set<Integer> columnIds = new HashSet<>();
+            Set<Integer> rowIds = new HashSet<>();
+            for (TaskPositionDTO position : positions) {
+                columnIds.add(position.columnId());
+                Optional.ofNullable(current.get(position.taskId()).columnId()).ifPresent(columnIds::add);
+                Optional.ofNullable(position.rowId()).ifPresent(rowIds::add);
+            }
+            Map<Integer, Column> columns = columnRepository.findAllById(columnIds).stream()
+                    .collect(Collectors.toMap(Column::getId, column -> column));
+            if (columns.size() < columnIds.size()) {
+                throw new EntityNotFoundException("Nie ma kolumny o takim id");
+            }
+            if (rowRepository.findAllById(rowIds).size() < rowIds.size()) {
+                throw new EntityNotFoundException("Nie ma wiersza o takim id");
+            }
+
+            Set<Integer> activeIds = new HashSet<>(taskRepository.findIdsByIdInAndCompleted(taskIds, false));
+            List<TaskPositionDTO> activePositions = positions.stream()
+                    .filter(position -> activeIds.contains(position.taskId()))
+                    .toList();
+            wipCounters.move(
+                    activePositions.stream()
+                            .map(position -> current.get(position.taskId()))
+                            .map(rank -> new TaskLane(rank.columnId(), rank.rowId()))
+                            .toList(),
+                    activePositions.stream()
+                            .map(position -> new TaskLane(position.columnId(), position.rowId()))
+                            .toList());
+
+            taskRepository.batchUpdatePositions(positions);
+
+            recordColumnChanges(positions.stream()
+                    .filter(position -> !position.columnId().equals(current.get(position.taskId()).columnId()))
+                    .toList(), current, columns);
+
+            // Nowe klucze tylko dla przesłanych zadań, pozostałe w torze zachowują swoje
+            positions.stream()
+                    .collect(Collectors.groupingBy(position -> new TaskLane(position.columnId(), position.rowId()),
+                            Collectors.mapping(TaskPositionDTO::taskId, Collectors.toSet())))
+                    .forEach(taskRanking::rankByPosition);
+
+            eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, taskIds));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    // Jedno zapytanie o ostatnie numery historii i jeden zapis wsadowy, jak przy masowym przenoszeniu
+    private void recordColumnChanges(List<TaskPositionDTO> changes, Map<Integer, TaskRank> current,
+                                     Map<Integer, Column> columns) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Set<Integer> taskIds = changes.stream().map(TaskPositionDTO::taskId).collect(Collectors.toSet());
+        Map<Integer, Integer> lastOrders = taskColumnHistoryRepository.findMaxHistoryOrders(taskIds).stream()
+                .collect(Collectors.toMap(TaskHistoryOrder::taskId, TaskHistoryOrder::historyOrder));
+
+        List<TaskColumnHistory> history = new ArrayList<>();
+        for (TaskPositionDTO change : changes) {
+            Task task = taskRepository.getReferenceById(change.taskId());
+            Integer previousColumnId = current.get(change.taskId()).columnId();
+            int nextOrder = lastOrders.getOrDefault(change.taskId(), -1) + 1;
+            if (previousColumnId != null) {
+                history.add(historyEntry(task, columns.get(previousColumnId), nextOrder++));
+            }
+            history.add(historyEntry(task, columns.get(change.columnId()), nextOrder));
+        }
+        taskColumnHistoryRepository.saveAll(history);
+    }
+
+    private static TaskColumnHistory historyEntry(Task task, Column column, int order) {
+        var entry = new TaskColumnHistory(task, column);
+        entry.setHistoryOrder(order);
+        return entry;
+    }
+
+    private static Set<Integer> validateTaskPositions(List<TaskPositionDTO> positions) {
+        if (positions == null || positions.isEmpty()) {
+            throw new IllegalArgumentException("Lista pozycji nie może być pusta");
+        }
+        Set<Integer> taskIds = new HashSet<>();
+        for (TaskPositionDTO position : positions) {
+            if (position.taskId() == null || position.columnId() == null || position.position() == null) {
+                throw new IllegalArgumentException("Każda pozycja musi mieć id zadania, kolumnę i pozycję");
+            }
+            if (!taskIds.add(position.taskId())) {
+                throw new IllegalArgumentException("Zadanie " + position.taskId() + " występuje w liście więcej niż raz");
+            }
+        }
+        return taskIds;
+    }
+
+    /**
+     * Moves a task to another lane position in one transaction: takes a place within the WIP
+     * limits of the target column and row, gives the task a rank key between its new neighbours, changes column and
+     * row and appends column history. Returns only what changed.
+     */
+    public TaskMovedDTO moveTask(Integer id, MoveTaskDTO move) {
+        try {
+            if (move == null || move.columnId() == null) {
+                throw new IllegalArgumentException("Kolumna docelowa jest wymagana");
+            }
+            var task = taskRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
+            var column = columnRepository.findWithoutTasksById(move.columnId())
+                    .orElseThrow(() -> new EntityNotFoundException("Nie ma kolumny o takim id"));
+
+            Column previousColumn = task.getColumn();
+            Integer previousColumnId = columnIdOf(task);
+            Integer previousRowId = rowIdOf(task);
+
+            if (move.rowId() != null && !move.rowId().equals(previousRowId)) {
+                task.setRow(rowRepository.findWithoutTasksById(move.rowId())
+                        .orElseThrow(() -> new EntityNotFoundException("Nie ma wiersza o takim id")));
+            }
+
+            boolean columnChanged = !column.getId().equals(previousColumnId);
+            if (!task.isCompleted()) {
+                wipCounters.move(List.of(new TaskLane(previousColumnId, previousRowId)),
+                        List.of(new TaskLane(column.getId(), rowIdOf(task))));
+            }
+
+            task.setRankKey(taskRanking.keyBetween(id, column.getId(), rowIdOf(task), move.afterId(), move.beforeId()));
+            if (columnChanged) {
+                task.setColumn(column);
+                recordColumnChange(task, previousColumn, column);
+            }
+
+            taskRepository.save(task);
+            publishTaskChanged(id);
+            return new TaskMovedDTO(id, previousColumnId, previousRowId, column.getId(), rowIdOf(task), task.getRankKey());
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Places the task between two neighbours of its lane by giving it a rank key between
+     * theirs. Only the moved task is written. A missing neighbour means the start or the
+     * end of the lane.
+     */
+    public TaskDTO rankTask(Integer id, Integer afterId, Integer beforeId) {
+        try {
+            var task = taskRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
+
+            task.setRankKey(taskRanking.keyBetween(id, columnIdOf(task), rowIdOf(task), afterId, beforeId));
             Task updatedTask = taskRepository.save(task);
+            publishTaskChanged(updatedTask.getId());
             return taskMapper.apply(updatedTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         }
     }
 
@@ -262,8 +694,11 @@ public class TaskService {
                 task.setLabels(new HashSet<>());
             }
 
-            task.getLabels().add(label);
+            if (task.getLabels().add(label)) {
+                publishLabelsChanged(null, Set.of(label));
+            }
             var updatedTask = taskRepository.save(task);
+            publishTaskChanged(updatedTask.getId());
             return taskMapper.apply(updatedTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
@@ -276,8 +711,11 @@ public class TaskService {
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
 
             if (task.getLabels() != null) {
-                task.getLabels().remove(label);
+                if (task.getLabels().remove(label)) {
+                    publishLabelsChanged(Set.of(label), null);
+                }
                 Task updatedTask = taskRepository.save(task);
+                publishTaskChanged(updatedTask.getId());
                 return taskMapper.apply(updatedTask);
             }
 
@@ -292,8 +730,10 @@ public class TaskService {
             var task = taskRepository.findById(taskId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
 
+            publishLabelsChanged(task.getLabels(), labels);
             task.setLabels(labels);
             var updatedTask = taskRepository.save(task);
+            publishTaskChanged(updatedTask.getId());
             return taskMapper.apply(updatedTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
@@ -302,16 +742,16 @@ public class TaskService {
 
     public Set<String> getAllLabels() {
         try {
-            List<Task> allTasks = taskRepository.findAll();
-            return allTasks.stream()
-                    .filter(task -> task.getLabels() != null)
-                    .flatMap(task -> task.getLabels().stream())
-                    .collect(Collectors.toSet());
+            return labelCatalogue.getLabels();
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error retrieving labels", e);
         }
     }
 
+    public List<LabelUsageDTO> getLabelUsage() {
+        return labelCatalogue.getLabelUsage();
+    }
+
     public TaskDTO assignParentTask(Integer childTaskId, Integer parentTaskId) {
         try {
             var childTask = taskRepository.findById(childTaskId)
@@ -320,16 +760,21 @@ public class TaskService {
             var parentTask = taskRepository.findById(parentTaskId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania nadrzędnego o takim id"));
 
-            // Sprawdzenie czy nie tworzymy cyklu (rodzic nie może być jednocześnie dzieckiem)
-            if (isTaskInHierarchy(childTask, parentTask)) {
+            // Rodzic nie może być samym zadaniem ani jego potomkiem; jedno zapytanie po tabeli domknięcia
+            if (taskHierarchy.wouldCreateCycle(childTaskId, parentTaskId)) {
                 throw new RuntimeException("Zależność tworzyłaby cykl, co jest niedozwolone");
             }
 
+            Integer previousParentId = parentIdOf(childTask);
+            if (!parentTaskId.equals(previousParentId)) {
+                taskHierarchy.changeParent(childTaskId, previousParentId, parentTaskId);
+            }
             childTask.setParentTask(parentTask);
             parentTask.getChildTasks().add(childTask);
 
             var updatedTask = taskRepository.save(childTask);
             taskRepository.save(parentTask);
+            publishTaskChanged(updatedTask.getId());
 
             return taskMapper.apply(updatedTask);
         } catch (EntityNotFoundException e) {
@@ -346,6 +791,7 @@ public class TaskService {
 
             if (childTask.getParentTask() != null) {
                 Task parentTask = childTask.getParentTask();
+                taskHierarchy.changeParent(childTaskId, parentTask.getId(), null);
                 parentTask.getChildTasks().remove(childTask);
                 childTask.setParentTask(null);
 
@@ -353,6 +799,7 @@ public class TaskService {
             }
 
             var updatedTask = taskRepository.save(childTask);
+            publishTaskChanged(updatedTask.getId());
             return taskMapper.apply(updatedTask);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
@@ -361,10 +808,11 @@ public class TaskService {
 
     public List<TaskDTO> getChildTasks(Integer taskId) {
         try {
-            var task = taskRepository.findById(taskId)
-                    .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
+            if (!taskRepository.existsById(taskId)) {
+                throw new EntityNotFoundException("Nie ma zadania o takim id");
+            }
 
-            return task.getChildTasks().stream()
+            return taskRepository.findAllByParentTaskId(taskId).stream()
                     .map(taskMapper::apply)
                     .collect(Collectors.toList());
         } catch (EntityNotFoundException e) {
@@ -372,9 +820,49 @@ public class TaskService {
         }
     }
 
+    /**
+     * The task with its descendants down to {@code depth} levels (all of them when null),
+     * read with one query instead of a request for the children of every node.
+     */
+    public TaskTreeDTO getTaskTree(Integer taskId, Integer depth) {
+        try {
+            if (depth != null && depth < 0) {
+                throw new IllegalArgumentException("Głębokość nie może być ujemna");
+            }
+            List<TaskTreeRow> rows = taskRepository.findTaskTree(taskId, depth != null ? depth : Integer.MAX_VALUE);
+            if (rows.isEmpty()) {
+                throw new EntityNotFoundException("Nie ma zadania o takim id");
+            }
+
+            // Wiersze są uporządkowane poziomami, więc rodzic zawsze trafia do mapy przed dziećmi
+            Map<Integer, TaskTreeDTO> nodes = new HashMap<>();
+            for (TaskTreeRow row : rows) {
+                TaskTreeDTO node = new TaskTreeDTO(row.id(), row.title(), row.completed(), row.columnId(), row.rowId(),
+                        row.depth(), row.descendantsTotal(), row.descendantsCompleted(),
+                        row.subtasksTotal(), row.subtasksCompleted(), new ArrayList<>());
+                if (row.depth() > 0) {
+                    // Domknięcie niezgodne z parent_task_id: pomijamy węzeł (a z nim jego poddrzewo)
+                    TaskTreeDTO parent = row.parentTaskId() != null ? nodes.get(row.parentTaskId()) : null;
+                    if (parent == null || parent.depth() != row.depth() - 1) {
+                        log.warn("Skipping task {} in tree of task {}: parent {} is not on the previous level",
+                                row.id(), taskId, row.parentTaskId());
+                        continue;
+                    }
+                    parent.children().add(node);
+                }
+                nodes.put(row.id(), node);
+            }
+            return nodes.get(taskId);
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     public TaskDTO getParentTask(Integer taskId) {
         try {
-            var task = taskRepository.findById(taskId)
+            var task = taskRepository.findWithHierarchyById(taskId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
 
             if (task.getParentTask() == null) {
@@ -387,69 +875,84 @@ public class TaskService {
         }
     }
 
-    private boolean isTaskInHierarchy(Task potentialParent, Task task) {
-        if (potentialParent.getId().equals(task.getId())) {
-            return true;
-        }
-
-        return task.getChildTasks().stream()
-                .anyMatch(childTask -> isTaskInHierarchy(potentialParent, childTask));
-    }
-
     public boolean canTaskBeCompleted(Integer taskId) {
         try {
-            var task = taskRepository.findById(taskId)
+            var task = taskRepository.findWithHierarchyById(taskId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
 
-            // Jeśli zadanie ma rodzica i rodzic nie jest zakończony, zwracamy false
-            if (task.getParentTask() != null && !task.getParentTask().isCompleted()) {
-                return false;
-            }
-
-            return true;
+            return canTaskBeCompleted(task);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
     }
 
-    public TaskDTO updateTaskCompletion(Integer taskId, boolean completed) {
+    /**
+     * Completes or reopens a task. Reopening also reopens every completed descendant with one
+     * set-based UPDATE over the subtree found in the hierarchy closure table; their ids are
+     * returned so that the client can update those cards without refetching.
+     */
+    public TaskCompletionDTO updateTaskCompletion(Integer taskId, boolean completed) {
         try {
             var task = taskRepository.findById(taskId)
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma zadania o takim id"));
 
-            if (completed && !canTaskBeCompleted(taskId)) {
+            if (completed && !canTaskBeCompleted(task)) {
                 throw new RuntimeException("Nie można zakończyć zadania przed zakończeniem zadań nadrzędnych");
             }
 
+            boolean wasCompleted = task.isCompleted();
             task.setCompleted(completed);
 
+            List<Integer> reopenedIds = List.of();
             if (!completed) {
-                updateDependentTasksCompletion(task);
+                reopenedIds = reopenDescendants(taskId);
+                if (wasCompleted) {
+                    wipCounters.enter(List.of(laneOf(task)));
+                    wipCounters.assign(userIdsOf(task));
+                }
+            } else if (!wasCompleted) {
+                wipCounters.leave(List.of(laneOf(task)));
+                wipCounters.unassign(userIdsOf(task));
             }
 
             var updatedTask = taskRepository.save(task);
-            return taskMapper.apply(updatedTask);
+            Set<Integer> changedTaskIds = new HashSet<>(reopenedIds);
+            changedTaskIds.add(task.getId());
+            eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, changedTaskIds));
+            return new TaskCompletionDTO(taskMapper.apply(updatedTask), reopenedIds);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         }
     }
 
-    private void updateDependentTasksCompletion(Task parentTask) {
-        parentTask.getChildTasks().forEach(childTask -> {
-            if (childTask.isCompleted()) {
-                childTask.setCompleted(false);
-                taskRepository.save(childTask);
-                updateDependentTasksCompletion(childTask);
-            }
-        });
+    private boolean canTaskBeCompleted(Task task) {
+        // Jeśli zadanie ma rodzica i rodzic nie jest zakończony, zwracamy false
+        return task.getParentTask() == null || task.getParentTask().isCompleted();
+    }
+
+    // Stała liczba zapytań niezależnie od głębokości i rozmiaru poddrzewa
+    private List<Integer> reopenDescendants(Integer taskId) {
+        List<Integer> reopenedIds = taskRepository.findCompletedDescendantIds(taskId);
+        if (reopenedIds.isEmpty()) {
+            return reopenedIds;
+        }
+        wipCounters.enter(taskRepository.findTaskRanksByIdIn(reopenedIds).stream()
+                .map(rank -> new TaskLane(rank.columnId(), rank.rowId()))
+                .toList());
+        wipCounters.assign(taskRepository.findAssigneeIdsByIdInAndCompleted(reopenedIds, true));
+        taskRepository.updateCompleted(reopenedIds, false);
+        return reopenedIds;
     }
 
     @Scheduled(fixedRate = 1800000) // wykonywane co 30 min
     public void checkAllTasksDeadlines() {
         List<Task> tasksWithDeadline = taskRepository.findAllByDeadlineIsNotNull();
         LocalDateTime now = LocalDateTime.now();
+        Set<Integer> changedTaskIds = new HashSet<>();
 
         for (Task task : tasksWithDeadline) {
             boolean wasExpired = task.isExpired();
@@ -458,7 +961,46 @@ public class TaskService {
             if (wasExpired != isExpired) {
                 task.setExpired(isExpired);
                 taskRepository.save(task);
+                changedTaskIds.add(task.getId());
             }
         }
+
+        if (!changedTaskIds.isEmpty()) {
+            eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, changedTaskIds));
+        }
+    }
+
+    private void publishLabelsChanged(Set<String> before, Set<String> after) {
+        var event = TaskLabelsChangedEvent.of(before, after);
+        if (!event.isEmpty()) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private static TaskLane laneOf(Task task) {
+        return new TaskLane(columnIdOf(task), rowIdOf(task));
+    }
+
+    private static Set<Integer> userIdsOf(Task task) {
+        if (task.getUsers() == null) {
+            return Set.of();
+        }
+        return task.getUsers().stream().map(User::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static Integer parentIdOf(Task task) {
+        return task.getParentTask() != null ? task.getParentTask().getId() : null;
+    }
+
+    private static Integer columnIdOf(Task task) {
+        return task.getColumn() != null ? task.getColumn().getId() : null;
+    }
+
+    private static Integer rowIdOf(Task task) {
+        return task.getRow() != null ? task.getRow().getId() : null;
+    }
+
+    private void publishTaskChanged(Integer taskId) {
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, taskId));
     }
 }
\ No newline at end of file
@@ -3,19 +3,27 @@ package pl.myproject.kanbanproject2.service;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.TaskDTO;
 import pl.myproject.kanbanproject2.dto.UserDTO;
+import pl.myproject.kanbanproject2.dto.UserSummaryDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.UserMapper;
 import pl.myproject.kanbanproject2.model.File;
 import pl.myproject.kanbanproject2.model.User;
 import pl.myproject.kanbanproject2.repository.FileRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
 import pl.myproject.kanbanproject2.repository.UserRepository;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Transactional
@@ -24,25 +32,47 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final FileRepository fileRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityVersions entityVersions;
+    private final BoardReadModel boardReadModel;
+    private final TaskRepository taskRepository;
+    private final TaskBulkService taskBulkService;
 
     @Autowired
-    public UserService(UserRepository userRepository, UserMapper userMapper, FileRepository fileRepository) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, FileRepository fileRepository,
+                       ApplicationEventPublisher eventPublisher, EntityVersions entityVersions,
+                       BoardReadModel boardReadModel, TaskRepository taskRepository,
+                       TaskBulkService taskBulkService) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.fileRepository = fileRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityVersions = entityVersions;
+        this.boardReadModel = boardReadModel;
+        this.taskRepository = taskRepository;
+        this.taskBulkService = taskBulkService;
+    }
+
+    public String getUsersETag() {
+        return entityVersions.eTag("users", BoardEntityType.USER, BoardEntityType.TASK);
     }
 
     public List<UserDTO> getAllUsers() {
+        Map<Integer, Set<TaskDTO>> tasksByUser = boardReadModel.getTasksByUser();
         List<UserDTO> userDTOS = userRepository.findAll().stream()
-                .map(userMapper::apply)
+                .map(user -> userMapper.apply(user, tasksByUser.get(user.getId())))
                 .collect(Collectors.toList());
         return userDTOS;
     }
 
+    public List<UserSummaryDTO> getUserSummaries() {
+        return userRepository.findAllUserSummaries();
+    }
+
     public UserDTO getUserById(Integer id) {
         try {
             return userRepository.findById(id)
-                    .map(userMapper::apply)
+                    .map(user -> userMapper.apply(user, boardReadModel.getTasksByUser().get(id)))
                     .orElseThrow(() -> new EntityNotFoundException("Nie ma użytkownika o takim id"));
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
@@ -50,7 +80,9 @@ public class UserService {
     }
 
     public User addUser(User user) {
-        return userRepository.save(user);
+        var savedUser = userRepository.save(user);
+        publishUserChanged(savedUser.getId());
+        return savedUser;
     }
 
     public void deleteUser(Integer id) {
@@ -58,7 +90,14 @@ public class UserService {
             if (!userRepository.existsById(id)) {
                 throw new EntityNotFoundException("Nie ma użytkownika o takim id");
             }
+            // Zadania użytkownika usuwamy zbiorczo przed kaskadą JPA: zwalnia to liczniki WIP
+            // oraz czyści hierarchię i zależności, których kaskada nie obejmuje
+            Set<Integer> taskIds = Set.copyOf(taskRepository.findIdsByUserId(id));
+            if (!taskIds.isEmpty()) {
+                taskBulkService.deleteTasks(taskIds);
+            }
             userRepository.deleteById(id);
+            eventPublisher.publishEvent(BoardChangedEvent.deleted(BoardEntityType.USER, id));
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
@@ -78,7 +117,9 @@ public class UserService {
             if (user.getWipLimit() != null) {
                 existingUser.setWipLimit(user.getWipLimit());
             }
-            return userRepository.save(existingUser);
+            var savedUser = userRepository.save(existingUser);
+            publishUserChanged(id);
+            return savedUser;
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
@@ -99,6 +140,7 @@ public class UserService {
                 existingUser.setWipLimit(userDTO.wipLimit());
             }
             var updatedUser = userRepository.save(existingUser);
+            publishUserChanged(id);
             return userMapper.apply(updatedUser);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
@@ -118,6 +160,7 @@ public class UserService {
             fileRepository.save(avatar);
             user.setAvatar(avatar);
             userRepository.save(user);
+            publishUserChanged(id);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         } catch (IOException e) {
@@ -168,6 +211,7 @@ public class UserService {
             user.setAvatar(null);
             userRepository.save(user);
             fileRepository.delete(avatar);
+            publishUserChanged(id);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
@@ -180,6 +224,7 @@ public class UserService {
 
             user.setWipLimit(wipLimit);
             var updatedUser = userRepository.save(user);
+            publishUserChanged(userId);
 
             return userMapper.apply(updatedUser);
         } catch (EntityNotFoundException e) {
@@ -197,11 +242,15 @@ public class UserService {
                 return true;
             }
 
-            int activeTaskCount = user.getTasks().size();
+            // Licznik utrzymywany przez WipCounters zamiast wczytywania wszystkich zadań użytkownika
+            int activeTaskCount = user.getActiveTaskCount() != null ? user.getActiveTaskCount() : 0;
             return activeTaskCount < wipLimit;
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
     }
 
-}
\ No newline at end of file
+    private void publishUserChanged(Integer userId) {
+        eventPublisher.publishEvent(BoardChangedEvent.upserted(BoardEntityType.USER, userId));
+    }
+}
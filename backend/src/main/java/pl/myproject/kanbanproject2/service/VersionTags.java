@@ -0,0 +1,55 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong ETags of single tasks, columns, rows and subtasks, built from their {@code @Version}
+ * column. A client sends the tag back in {@code If-Match}; a write against a row that has
+ * changed since is rejected with 412 instead of silently overwriting someone else's edit.
+ * Concurrent writes caught only by the optimistic lock at flush are reported as 409 Conflict.
+ */
+public final class VersionTags {
+
+    private static final String ANY = "*";
+
+    private VersionTags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Version required by an {@code If-Match} header, or {@code null} when the header is
+     * missing or {@code *}, i.e. when the write is unconditional.
+     */
+    public static Long parse(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // Słabe porównanie wystarcza: wersja wiersza nie zależy od reprezentacji odpowiedzi
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Niepoprawny nagłówek If-Match");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            // Znacznik spoza tego serwera nie może pasować do żadnej wersji
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Zasób został zmieniony, odśwież dane", e);
+        }
+    }
+
+    /**
+     * @throws ResponseStatusException 412 when {@code expected} is given and differs from {@code actual}
+     */
+    public static void check(Long expected, Long actual) {
+        if (expected != null && !expected.equals(actual != null ? actual : 0L)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Zasób został zmieniony, odśwież dane");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.WipLimitExceededEvent;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
+import pl.myproject.kanbanproject2.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the number of active (not completed) tasks of every column, row and user and
+ * enforces their WIP limits. Callers report the lanes tasks leave and enter and the users
+ * active tasks are assigned to or taken from; each counter is then changed with one UPDATE,
+ * and counters that grow are changed only while they stay within the limit, so concurrent
+ * requests cannot overshoot it. With soft limits the change goes through and the violation
+ * is only flagged.
+ */
+@Transactional
+@Component
+public class WipCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(WipCounters.class);
+
+    private final ColumnRepository columnRepository;
+    private final RowRepository rowRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean softLimits;
+
+    @Autowired
+    public WipCounters(ColumnRepository columnRepository, RowRepository rowRepository,
+                       UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                       @Value("${wip.soft-limits:false}") boolean softLimits) {
+        this.columnRepository = columnRepository;
+        this.rowRepository = rowRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.softLimits = softLimits;
+    }
+
+    /**
+     * @param lanes one entry per active task entering its lane
+     * @throws IllegalStateException when a column or row would exceed its WIP limit
+     */
+    public void enter(Collection<TaskLane> lanes) {
+        move(List.of(), lanes);
+    }
+
+    /**
+     * @param lanes one entry per active task leaving its lane (completed or deleted)
+     */
+    public void leave(Collection<TaskLane> lanes) {
+        move(lanes, List.of());
+    }
+
+    /**
+     * Moves active tasks between lanes, one entry per task on each side. Only net changes
+     * are written, so a task moving between rows of the same column leaves the column's
+     * counter alone.
+     *
+     * @throws IllegalStateException when a column or row would exceed its WIP limit
+     */
+    public void move(Collection<TaskLane> from, Collection<TaskLane> to) {
+        Map<Integer, Integer> columns = netChanges(from, to, TaskLane::columnId);
+        Map<Integer, Integer> rows = netChanges(from, to, TaskLane::rowId);
+
+        // Najpierw zwalniamy miejsca, potem zajmujemy; stała kolejność id chroni przed zakleszczeniem
+        columns.forEach((id, delta) -> {
+            if (delta < 0) {
+                columnRepository.adjustActiveTaskCount(id, delta);
+            }
+        });
+        rows.forEach((id, delta) -> {
+            if (delta < 0) {
+                rowRepository.adjustActiveTaskCount(id, delta);
+            }
+        });
+        columns.forEach((id, delta) -> {
+            if (delta > 0 && !columnRepository.admitActiveTasks(id, delta)) {
+                overLimit(BoardEntityType.COLUMN, id, delta, "Kolumna osiągnęła limit WIP");
+                columnRepository.adjustActiveTaskCount(id, delta);
+            }
+        });
+        rows.forEach((id, delta) -> {
+            if (delta > 0 && !rowRepository.admitActiveTasks(id, delta)) {
+                overLimit(BoardEntityType.ROW, id, delta, "Wiersz osiągnął limit WIP");
+                rowRepository.adjustActiveTaskCount(id, delta);
+            }
+        });
+    }
+
+    /**
+     * @param userIds one entry per assignment of an active task (assigned, or reopened while assigned)
+     * @throws IllegalStateException when a user would exceed their WIP limit
+     */
+    public void assign(Collection<Integer> userIds) {
+        Map<Integer, Integer> counts = counts(userIds);
+        if (counts.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> rejected = new TreeMap<>();
+        for (Integer id : userRepository.admitActiveTasks(counts)) {
+            overLimit(BoardEntityType.USER, id, counts.get(id), "Przypisanie przekroczyłoby limit WIP użytkownika");
+            rejected.put(id, counts.get(id));
+        }
+        if (!rejected.isEmpty()) {
+            userRepository.adjustActiveTaskCounts(rejected);
+        }
+    }
+
+    /**
+     * @param userIds one entry per assignment of an active task that ends (unassigned, completed or deleted)
+     */
+    public void unassign(Collection<Integer> userIds) {
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        counts(userIds).forEach((id, count) -> deltas.put(id, -count));
+        if (!deltas.isEmpty()) {
+            userRepository.adjustActiveTaskCounts(deltas);
+        }
+    }
+
+    /**
+     * Takes the active tasks of a column that is deleted with its tasks off their rows and assignees.
+     */
+    public void leaveColumn(Integer columnId) {
+        rowRepository.releaseActiveTasksOfColumn(columnId);
+        userRepository.releaseActiveTasksOfColumn(columnId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * *") // codziennie o 3:30
+    public void recount() {
+        int columns = columnRepository.recountActiveTasks();
+        int rows = rowRepository.recountActiveTasks();
+        int users = userRepository.recountActiveTasks();
+        if (columns + rows + users > 0) {
+            log.info("Recounted active tasks: {} columns, {} rows and {} users were out of date", columns, rows, users);
+        }
+    }
+
+    private void overLimit(BoardEntityType type, Integer id, int entering, String message) {
+        if (!softLimits) {
+            throw new IllegalStateException(message);
+        }
+        log.warn("{} {} exceeded its WIP limit by admitting {} tasks", type, id, entering);
+        eventPublisher.publishEvent(new WipLimitExceededEvent(type, id, entering));
+    }
+
+    private static Map<Integer, Integer> netChanges(Collection<TaskLane> from, Collection<TaskLane> to,
+                                                    Function<TaskLane, Integer> idOf) {
+        Map<Integer, Integer> changes = new TreeMap<>();
+        from.stream().map(idOf).filter(Objects::nonNull).forEach(id -> changes.merge(id, -1, Integer::sum));
+        to.stream().map(idOf).filter(Objects::nonNull).forEach(id -> changes.merge(id, 1, Integer::sum));
+        return changes;
+    }
+
+    private static Map<Integer, Integer> counts(Collection<Integer> ids) {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        ids.stream().filter(Objects::nonNull).forEach(id -> counts.merge(id, 1, Integer::sum));
+        return counts;
+    }
+}
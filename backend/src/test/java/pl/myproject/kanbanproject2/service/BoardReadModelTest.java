@@ -0,0 +1,288 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.myproject.kanbanproject2.dto.BoardChangesDTO;
+import pl.myproject.kanbanproject2.dto.BoardConsistencyDTO;
+import pl.myproject.kanbanproject2.dto.ColumnDTO;
+import pl.myproject.kanbanproject2.dto.RowDTO;
+import pl.myproject.kanbanproject2.dto.SubTaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoardReadModelTest {
+
+    @Mock
+    private BoardService boardService;
+
+    @InjectMocks
+    private BoardReadModel boardReadModel;
+
+    private ColumnDTO column;
+    private RowDTO row;
+    private TaskDTO parent;
+    private TaskDTO child;
+
+    @BeforeEach
+    void setUp() {
+        column = new ColumnDTO(1, "To Do", 1, 5, null);
+        row = new RowDTO(1, "Row 1", 1, 3, null);
+        parent = task(1, 2, null);
+        child = task(2, 1, 1);
+
+        when(boardService.getColumnSummaries()).thenReturn(List.of(column));
+        when(boardService.getRowSummaries()).thenReturn(List.of(row));
+        when(boardService.getAllTaskDTOs()).thenReturn(List.of(
+                withChildren(parent, Set.of(2)), child));
+        when(boardService.getAllSubTaskDTOs()).thenReturn(List.of(
+                new SubTaskDTO(10, "Subtask", null, false, 1, 1)));
+        boardReadModel.rebuild();
+    }
+
+    @Test
+    void getAllTasks_ShouldReturnTasksOrderedByPosition() {
+        // When
+        List<TaskDTO> result = boardReadModel.getAllTasks();
+
+        // Then
+        assertEquals(List.of(2, 1), result.stream().map(TaskDTO::id).toList());
+        verify(boardService, times(1)).getAllTaskDTOs();
+    }
+
+    @Test
+    void getAllColumns_ShouldAttachTasksFromColumnIndex() {
+        // When
+        List<ColumnDTO> result = boardReadModel.getAllColumns();
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(List.of(2, 1), result.get(0).taskDTO().stream().map(TaskDTO::id).toList());
+    }
+
+    @Test
+    void onBoardChanged_ShouldReloadOnlyChangedTask() {
+        // Given
+        TaskDTO movedChild = new TaskDTO(2, "Task 2", 5, 1, null, Set.of(), Set.of(), false, null,
+                null, null, null, false);
+        when(boardService.getTaskDTOs(Set.of(2))).thenReturn(List.of(movedChild));
+
+        // When
+        boardReadModel.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.TASK, 2));
+
+        // Then
+        List<TaskDTO> tasks = boardReadModel.getAllTasks();
+        assertEquals(List.of(1, 2), tasks.stream().map(TaskDTO::id).toList());
+        assertNull(tasks.get(0).childTaskIds());
+        assertTrue(boardReadModel.getAllRows().get(0).taskDTO().stream().noneMatch(t -> t.id() == 2));
+        verify(boardService, times(1)).getAllTaskDTOs();
+    }
+
+    @Test
+    void onBoardChanged_ShouldLetReadersThroughWhileLoadingChangedTasks() {
+        // Given - odczyt z innego wątku w trakcie zapytania do bazy nie może czekać na blokadę zapisu
+        TaskDTO movedChild = new TaskDTO(2, "Task 2", 5, 1, null, Set.of(), Set.of(), false, null,
+                null, null, null, false);
+        AtomicReference<List<TaskDTO>> seenWhileLoading = new AtomicReference<>();
+        when(boardService.getTaskDTOs(Set.of(2))).thenAnswer(invocation -> {
+            seenWhileLoading.set(CompletableFuture.supplyAsync(boardReadModel::getAllTasks).get(5, TimeUnit.SECONDS));
+            return List.of(movedChild);
+        });
+
+        // When
+        boardReadModel.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.TASK, 2));
+
+        // Then
+        assertEquals(List.of(2, 1), seenWhileLoading.get().stream().map(TaskDTO::id).toList());
+        assertEquals(List.of(1, 2), boardReadModel.getAllTasks().stream().map(TaskDTO::id).toList());
+    }
+
+    @Test
+    void rebuild_ShouldServePreviousStateWhileReadingDatabase() {
+        // Given
+        AtomicReference<List<TaskDTO>> seenWhileLoading = new AtomicReference<>();
+        when(boardService.getAllTaskDTOs()).thenAnswer(invocation -> {
+            seenWhileLoading.set(CompletableFuture.supplyAsync(boardReadModel::getAllTasks).get(5, TimeUnit.SECONDS));
+            return List.of(parent);
+        });
+
+        // When
+        boardReadModel.rebuild();
+
+        // Then
+        assertEquals(2, seenWhileLoading.get().size());
+        assertEquals(List.of(1), boardReadModel.getAllTasks().stream().map(TaskDTO::id).toList());
+    }
+
+    @Test
+    void onBoardChanged_ShouldDropTasksOfDeletedColumn() {
+        // When
+        boardReadModel.onBoardChanged(BoardChangedEvent.deleted(BoardEntityType.COLUMN, 1));
+
+        // Then
+        assertTrue(boardReadModel.getAllTasks().isEmpty());
+        assertTrue(boardReadModel.getAllColumns().isEmpty());
+    }
+
+    @Test
+    void checkConsistency_ShouldReportMismatchedTasks() {
+        // Given
+        when(boardService.getAllTaskDTOs()).thenReturn(List.of(withChildren(parent, Set.of(2))));
+
+        // When
+        BoardConsistencyDTO report = boardReadModel.checkConsistency();
+
+        // Then
+        assertFalse(report.consistent());
+        assertEquals(Set.of(2), report.mismatchedTaskIds());
+        assertTrue(report.mismatchedColumnIds().isEmpty());
+    }
+
+    @Test
+    void checkConsistency_ShouldIgnoreChangesAppliedWhileReadingDatabase() {
+        // Given - zdarzenie przychodzi już po odczycie zadań z bazy, w trakcie odczytu podzadań
+        TaskDTO renamedChild = new TaskDTO(2, "Renamed", 1, 1, 1, Set.of(), Set.of(), false, null,
+                1, null, null, false);
+        when(boardService.getTaskDTOs(Set.of(2))).thenReturn(List.of(renamedChild));
+        when(boardService.getAllSubTaskDTOs()).thenAnswer(invocation -> {
+            boardReadModel.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.TASK, 2));
+            return List.of(new SubTaskDTO(10, "Subtask", null, false, 1, 1));
+        });
+
+        // When
+        BoardConsistencyDTO report = boardReadModel.checkConsistency();
+
+        // Then
+        assertTrue(report.consistent());
+        assertEquals("Renamed", boardReadModel.getAllTasks().get(0).title());
+    }
+
+    @Test
+    void checkConsistency_ShouldBeConsistentAfterRebuild() {
+        // When
+        BoardConsistencyDTO report = boardReadModel.checkConsistency();
+
+        // Then
+        assertTrue(report.consistent());
+        verify(boardService, never()).getTaskDTOs(anyCollection());
+    }
+
+    @Test
+    void getChangesSince_ShouldReturnOnlyEntitiesTouchedAfterRevision() {
+        // Given
+        String since = boardReadModel.getRevision();
+        boardReadModel.onBoardChanged(BoardChangedEvent.deleted(BoardEntityType.TASK, 2));
+        when(boardService.getSubTaskDTOs(Set.of(10))).thenReturn(List.of(
+                new SubTaskDTO(10, "Subtask", null, true, 1, 1)));
+        boardReadModel.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.SUBTASK, 10));
+
+        // When
+        BoardChangesDTO changes = boardReadModel.getChangesSince(since);
+
+        // Then
+        assertFalse(changes.fullSnapshot());
+        assertEquals(withRevision(since, revisionNumber(since) + 2), changes.revision());
+        assertEquals(Set.of(2), changes.deletedTaskIds());
+        assertEquals(List.of(1), changes.tasks().stream().map(TaskDTO::id).toList());
+        assertNull(changes.tasks().get(0).childTaskIds());
+        assertTrue(changes.subTasks().get(0).completed());
+        assertTrue(changes.columns().isEmpty());
+    }
+
+    @Test
+    void getChangesSince_ShouldReturnEmptyDelta_WhenNothingChanged() {
+        // When
+        BoardChangesDTO changes = boardReadModel.getChangesSince(boardReadModel.getRevision());
+
+        // Then
+        assertFalse(changes.fullSnapshot());
+        assertTrue(changes.tasks().isEmpty());
+        assertTrue(changes.deletedTaskIds().isEmpty());
+    }
+
+    @Test
+    void getChangesSince_ShouldFallBackToFullSnapshot_WhenRevisionIsTooOld() {
+        // Given
+        String current = boardReadModel.getRevision();
+        String beforeRebuild = withRevision(current, revisionNumber(current) - 1);
+
+        // When
+        BoardChangesDTO changes = boardReadModel.getChangesSince(beforeRebuild);
+
+        // Then
+        assertTrue(changes.fullSnapshot());
+        assertEquals(2, changes.tasks().size());
+        assertEquals(1, changes.columns().size());
+        assertEquals(1, changes.subTasks().size());
+    }
+
+    @Test
+    void getChangesSince_ShouldFallBackToFullSnapshot_WhenRevisionIsFromTheFuture() {
+        // Given
+        String current = boardReadModel.getRevision();
+
+        // When
+        BoardChangesDTO changes = boardReadModel.getChangesSince(withRevision(current, revisionNumber(current) + 100));
+
+        // Then
+        assertTrue(changes.fullSnapshot());
+    }
+
+    @Test
+    void getChangesSince_ShouldFallBackToFullSnapshot_WhenRevisionComesFromPreviousProcess() {
+        // Given - poprzedni proces wydał token z tym samym numerem rewizji, ale inną epoką
+        String current = boardReadModel.getRevision();
+        String previousProcess = "0previous-" + revisionNumber(current);
+        boardReadModel.rebuild();
+
+        // When
+        BoardChangesDTO changes = boardReadModel.getChangesSince(previousProcess);
+
+        // Then
+        assertTrue(changes.fullSnapshot());
+        assertEquals(2, changes.tasks().size());
+        assertEquals(boardReadModel.getRevision(), changes.revision());
+    }
+
+    @Test
+    void getChangesSince_ShouldFallBackToFullSnapshot_WhenTokenIsMissingOrMalformed() {
+        // When & Then
+        assertTrue(boardReadModel.getChangesSince(null).fullSnapshot());
+        assertTrue(boardReadModel.getChangesSince("42").fullSnapshot());
+        assertTrue(boardReadModel.getChangesSince(boardReadModel.getRevision() + "x").fullSnapshot());
+    }
+
+    private static long revisionNumber(String token) {
+        return Long.parseLong(token.substring(token.lastIndexOf('-') + 1));
+    }
+
+    private static String withRevision(String token, long revision) {
+        return token.substring(0, token.lastIndexOf('-') + 1) + revision;
+    }
+
+    private static TaskDTO task(Integer id, Integer position, Integer parentId) {
+        return new TaskDTO(id, "Task " + id, position, 1, 1, Set.of(), Set.of(), false, null,
+                parentId, null, null, false);
+    }
+
+    private static TaskDTO withChildren(TaskDTO task, Set<Integer> children) {
+        return new TaskDTO(task.id(), task.title(), task.position(), task.columnId(), task.rowId(), task.userIds(),
+                task.labels(), task.completed(), task.description(), task.parentTaskId(), children,
+                task.deadline(), task.expired());
+    }
+}
@@ -0,0 +1,213 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import pl.myproject.kanbanproject2.dto.BoardDTO;
+import pl.myproject.kanbanproject2.dto.LabelUsageDTO;
+import pl.myproject.kanbanproject2.dto.TaskCursor;
+import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskFilter;
+import pl.myproject.kanbanproject2.dto.TaskPageDTO;
+import pl.myproject.kanbanproject2.mapper.ColumnMapper;
+import pl.myproject.kanbanproject2.mapper.RowMapper;
+import pl.myproject.kanbanproject2.mapper.TaskMapper;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.model.SubTask;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.User;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import({BoardService.class, TaskMapper.class, ColumnMapper.class, RowMapper.class})
+class BoardServiceStatementCountTest {
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getBoard_ShouldUseConstantNumberOfStatements_WhenBoardGrows() {
+        seedBoard(5);
+        long smallBoardStatements = countStatementsForGetBoard(5);
+
+        seedBoard(50);
+        long largeBoardStatements = countStatementsForGetBoard(55);
+
+        assertEquals(smallBoardStatements, largeBoardStatements);
+    }
+
+    @Test
+    void getTaskPage_ShouldWalkAllTasksInPositionOrder_WhenFollowingCursors() {
+        seedBoard(23);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Integer> positions = new ArrayList<>();
+        TaskCursor cursor = null;
+        int pages = 0;
+        do {
+            TaskPageDTO page = boardService.getTaskPage(TaskFilter.none(), cursor, 10);
+            page.tasks().forEach(task -> positions.add(task.position()));
+            cursor = page.nextCursor() != null ? TaskCursor.decode(page.nextCursor()) : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(23, positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            assertEquals(i, positions.get(i));
+        }
+    }
+
+    @Test
+    void getTaskPage_ShouldPlaceTasksWithoutPositionLast_WhenFollowingCursors() {
+        seedBoard(5);
+        List<Task> unpositioned = taskRepository.findAll().stream().limit(3).toList();
+        unpositioned.forEach(task -> task.setPosition(null));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Integer> ids = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        TaskCursor cursor = null;
+        do {
+            TaskPageDTO page = boardService.getTaskPage(TaskFilter.none(), cursor, 2);
+            page.tasks().forEach(task -> {
+                ids.add(task.id());
+                positions.add(task.position());
+            });
+            cursor = page.nextCursor() != null ? TaskCursor.decode(page.nextCursor()) : null;
+        } while (cursor != null);
+
+        assertEquals(5, new HashSet<>(ids).size());
+        assertEquals(List.of(3, 4), positions.subList(0, 2));
+        assertEquals(unpositioned.stream().map(Task::getId).sorted().toList(), ids.subList(2, 5));
+        assertTrue(positions.subList(2, 5).stream().allMatch(position -> position == null));
+    }
+
+    @Test
+    void getTaskPage_ShouldApplyFiltersInQuery() {
+        seedBoard(12);
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskFilter labelFilter = new TaskFilter(null, null, null, "label1", null, null, null, null);
+        TaskPageDTO page = boardService.getTaskPage(labelFilter, null, 50);
+
+        assertEquals(4, page.tasks().size());
+        assertNull(page.nextCursor());
+        for (TaskDTO task : page.tasks()) {
+            assertTrue(task.labels().contains("label1"));
+            assertNotNull(task.userIds());
+        }
+
+        TaskFilter noMatch = new TaskFilter(null, null, -1, null, null, null, null, null);
+        assertTrue(boardService.getTaskPage(noMatch, null, 50).tasks().isEmpty());
+    }
+
+    @Test
+    void getTaskPage_ShouldUseConstantNumberOfStatements_WhenPageGrows() {
+        seedBoard(60);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        boardService.getTaskPage(TaskFilter.none(), null, 5);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        boardService.getTaskPage(TaskFilter.none(), null, 50);
+
+        assertEquals(smallPageStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findLabelUsage_ShouldCountTasksPerLabel() {
+        seedBoard(10);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<LabelUsageDTO> usage = taskRepository.findLabelUsage();
+
+        assertEquals(List.of(new LabelUsageDTO("label0", 4L), new LabelUsageDTO("label1", 3L),
+                new LabelUsageDTO("label2", 3L)), usage);
+    }
+
+    private long countStatementsForGetBoard(int expectedTasks) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BoardDTO board = boardService.getBoard();
+
+        assertEquals(expectedTasks, board.tasks().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedBoard(int taskCount) {
+        Column column = new Column();
+        column.setName("To Do");
+        column.setPosition(1);
+        entityManager.persist(column);
+
+        Row row = new Row();
+        row.setName("Row");
+        row.setPosition(1);
+        entityManager.persist(row);
+
+        User user = new User("User", "user" + System.nanoTime() + "@example.com", "password");
+        entityManager.persist(user);
+
+        Task parent = null;
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setPosition(i);
+            task.setColumn(column);
+            task.setRow(row);
+            task.setLabels(new HashSet<>(Set.of("label" + (i % 3))));
+            task.getUsers().add(user);
+            task.setParentTask(parent);
+            entityManager.persist(task);
+
+            SubTask subTask = new SubTask();
+            subTask.setTitle("Subtask " + i);
+            subTask.setCompleted(i % 2 == 0);
+            subTask.setTask(task);
+            entityManager.persist(subTask);
+
+            parent = i % 5 == 0 ? task : parent;
+        }
+    }
+}
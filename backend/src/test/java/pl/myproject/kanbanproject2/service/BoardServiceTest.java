@@ -0,0 +1,104 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.myproject.kanbanproject2.dto.BoardDTO;
+import pl.myproject.kanbanproject2.dto.SubTaskProgressDTO;
+import pl.myproject.kanbanproject2.dto.TaskAssignment;
+import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskLabel;
+import pl.myproject.kanbanproject2.dto.TaskRow;
+import pl.myproject.kanbanproject2.mapper.ColumnMapper;
+import pl.myproject.kanbanproject2.mapper.RowMapper;
+import pl.myproject.kanbanproject2.mapper.TaskMapper;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
+import pl.myproject.kanbanproject2.repository.SubTaskRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoardServiceTest {
+
+    @Mock
+    private ColumnRepository columnRepository;
+
+    @Mock
+    private RowRepository rowRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private SubTaskRepository subTaskRepository;
+
+    private BoardService boardService;
+
+    private Column column;
+    private Row row;
+
+    @BeforeEach
+    void setUp() {
+        TaskMapper taskMapper = new TaskMapper();
+        boardService = new BoardService(columnRepository, rowRepository, taskRepository, subTaskRepository,
+                new ColumnMapper(taskMapper), new RowMapper(taskMapper), taskMapper);
+
+        column = new Column();
+        column.setId(1);
+        column.setName("To Do");
+        column.setPosition(1);
+        column.setWipLimit(5);
+
+        row = new Row();
+        row.setId(1);
+        row.setName("Row 1");
+        row.setPosition(1);
+    }
+
+    @Test
+    void getBoard_ShouldAssembleTasksFromBatchedQueries() {
+        // Given
+        TaskRow parent = new TaskRow(1, "Parent", 1, 1, 1, false, null, null, null, false, "i", 0L, 3, 1);
+        TaskRow child = new TaskRow(2, "Child", 2, 1, null, true, "Description", 1, null, false, null, 0L, 0, 0);
+
+        when(columnRepository.findAllByOrderByPositionAscIdAsc()).thenReturn(List.of(column));
+        when(rowRepository.findAllByOrderByPositionAscIdAsc()).thenReturn(List.of(row));
+        when(taskRepository.findAllTaskRows()).thenReturn(List.of(parent, child));
+        when(taskRepository.findAllTaskLabels()).thenReturn(List.of(new TaskLabel(1, "bug"), new TaskLabel(1, "ui")));
+        when(taskRepository.findAllTaskAssignments()).thenReturn(List.of(new TaskAssignment(2, 7)));
+
+        // When
+        BoardDTO board = boardService.getBoard();
+
+        // Then
+        assertEquals(1, board.columns().size());
+        assertNull(board.columns().get(0).taskDTO());
+        assertEquals(1, board.rows().size());
+        assertEquals(2, board.tasks().size());
+        assertEquals(List.of(new SubTaskProgressDTO(1, 3L, 1L)), board.subTaskProgress());
+        verifyNoInteractions(subTaskRepository);
+
+        TaskDTO parentDTO = board.tasks().get(0);
+        assertEquals(Set.of("bug", "ui"), parentDTO.labels());
+        assertEquals(Set.of(), parentDTO.userIds());
+        assertEquals(Set.of(2), parentDTO.childTaskIds());
+
+        TaskDTO childDTO = board.tasks().get(1);
+        assertEquals(Set.of(7), childDTO.userIds());
+        assertEquals(1, childDTO.parentTaskId());
+        assertNull(childDTO.childTaskIds());
+        assertTrue(childDTO.completed());
+
+        verify(taskRepository, never()).findAll();
+    }
+}
@@ -7,18 +7,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import pl.myproject.kanbanproject2.dto.ColumnDTO;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.ColumnMapper;
 import pl.myproject.kanbanproject2.model.Column;
 import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.TaskColumnHistoryRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +40,27 @@ class ColumnServiceTest {
     @Mock
     private ColumnMapper columnMapper;
 
+    @Mock
+    private BoardReadModel boardReadModel;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityVersions entityVersions;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskColumnHistoryRepository taskColumnHistoryRepository;
+
+    @Mock
+    private TaskBulkService taskBulkService;
+
+    @Mock
+    private WipCounters wipCounters;
+
     @InjectMocks
     private ColumnService columnService;
 
@@ -50,20 +81,10 @@ class ColumnServiceTest {
     @Test
     void getAllColumns_ShouldReturnListOfColumnDTOs() {
         // Given
-        Column column2 = new Column();
-        column2.setId(2);
-        column2.setName("In Progress");
-        column2.setPosition(2);
-        column2.setWipLimit(3);
-
         ColumnDTO columnDTO2 = new ColumnDTO(2, "In Progress", 2, 3, null);
-
-        List<Column> columns = Arrays.asList(column, column2);
         List<ColumnDTO> expectedDTOs = Arrays.asList(columnDTO, columnDTO2);
 
-        when(columnRepository.findAll()).thenReturn(columns);
-        when(columnMapper.apply(column)).thenReturn(columnDTO);
-        when(columnMapper.apply(column2)).thenReturn(columnDTO2);
+        when(boardReadModel.getAllColumns()).thenReturn(expectedDTOs);
 
         // When
         List<ColumnDTO> result = columnService.getAllColumns();
@@ -71,21 +92,22 @@ class ColumnServiceTest {
         // Then
         assertEquals(2, result.size());
         assertEquals(expectedDTOs, result);
-        verify(columnRepository).findAll();
-        verify(columnMapper, times(2)).apply(any(Column.class));
+        verify(boardReadModel).getAllColumns();
+        verify(columnRepository, never()).findAll();
+        verify(columnMapper, never()).apply(any(Column.class));
     }
 
     @Test
     void getAllColumns_ShouldReturnEmptyList_WhenNoColumnsExist() {
         // Given
-        when(columnRepository.findAll()).thenReturn(Arrays.asList());
+        when(boardReadModel.getAllColumns()).thenReturn(Arrays.asList());
 
         // When
         List<ColumnDTO> result = columnService.getAllColumns();
 
         // Then
         assertTrue(result.isEmpty());
-        verify(columnRepository).findAll();
+        verify(boardReadModel).getAllColumns();
         verify(columnMapper, never()).apply(any(Column.class));
     }
 
@@ -140,11 +162,11 @@ class ColumnServiceTest {
         updatedColumn.setWipLimit(10);
 
         when(columnRepository.findById(id)).thenReturn(Optional.of(column));
-        when(columnRepository.save(any(Column.class))).thenReturn(updatedColumn);
+        when(columnRepository.saveAndFlush(any(Column.class))).thenReturn(updatedColumn);
         when(columnMapper.apply(updatedColumn)).thenReturn(updateDTO);
 
         // When
-        ColumnDTO result = columnService.patchColumn(updateDTO, id);
+        ColumnDTO result = columnService.patchColumn(updateDTO, id, null);
 
         // Then
         assertEquals("Updated Name", column.getName());
@@ -152,7 +174,7 @@ class ColumnServiceTest {
         assertEquals(10, column.getWipLimit());
         assertEquals(updateDTO, result);
         verify(columnRepository).findById(id);
-        verify(columnRepository).save(column);
+        verify(columnRepository).saveAndFlush(column);
         verify(columnMapper).apply(updatedColumn);
     }
 
@@ -163,18 +185,31 @@ class ColumnServiceTest {
         ColumnDTO updateDTO = new ColumnDTO(1, "Updated Name", null, null, null);
 
         when(columnRepository.findById(id)).thenReturn(Optional.of(column));
-        when(columnRepository.save(any(Column.class))).thenReturn(column);
+        when(columnRepository.saveAndFlush(any(Column.class))).thenReturn(column);
         when(columnMapper.apply(column)).thenReturn(columnDTO);
 
         // When
-        ColumnDTO result = columnService.patchColumn(updateDTO, id);
+        ColumnDTO result = columnService.patchColumn(updateDTO, id, null);
 
         // Then
         assertEquals("Updated Name", column.getName());
         assertEquals(1, column.getPosition()); // pozostaje bez zmian
         assertEquals(5, column.getWipLimit()); // pozostaje bez zmian
         verify(columnRepository).findById(id);
-        verify(columnRepository).save(column);
+        verify(columnRepository).saveAndFlush(column);
+    }
+
+    @Test
+    void patchColumn_ShouldThrowPreconditionFailed_WhenVersionDiffers() {
+        // Given
+        column.setVersion(2L);
+        when(columnRepository.findById(1)).thenReturn(Optional.of(column));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> columnService.patchColumn(new ColumnDTO(1, "Updated Name", null, null, null), 1, 1L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+        verify(columnRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -188,7 +223,7 @@ class ColumnServiceTest {
         // When & Then
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> columnService.patchColumn(updateDTO, id)
+                () -> columnService.patchColumn(updateDTO, id, null)
         );
 
         assertEquals("Nie ma takiej kolumny", exception.getMessage());
@@ -202,13 +237,52 @@ class ColumnServiceTest {
         // Given
         Integer id = 1;
         when(columnRepository.existsById(id)).thenReturn(true);
+        when(taskRepository.findIdsOfChildrenOutsideColumn(id)).thenReturn(List.of(7));
 
         // When
-        columnService.deleteColumn(id);
+        columnService.deleteColumn(id, null);
 
         // Then
         verify(columnRepository).existsById(id);
-        verify(columnRepository).deleteById(id);
+        verify(wipCounters).leaveColumn(id);
+        verify(taskRepository).deleteAllByColumnIdWithDependents(id);
+        verify(taskColumnHistoryRepository).deleteAllByColumnId(id);
+        verify(columnRepository).bulkDeleteById(id);
+        verify(eventPublisher).publishEvent(BoardChangedEvent.deleted(BoardEntityType.COLUMN, id));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, 7));
+    }
+
+    @Test
+    void deleteColumn_ShouldMoveTasksInsteadOfDeleting_WhenTargetGiven() {
+        // Given
+        when(columnRepository.existsById(1)).thenReturn(true);
+        when(taskRepository.findIdsByColumnId(1)).thenReturn(List.of(3, 4));
+        when(taskBulkService.moveTasks(List.of(3, 4), 2, null)).thenReturn(Set.of(3, 4));
+
+        // When
+        columnService.deleteColumn(1, 2);
+
+        // Then
+        verify(taskRepository, never()).deleteAllByColumnIdWithDependents(anyInt());
+        verify(taskColumnHistoryRepository).reassignColumn(1, 2);
+        verify(taskColumnHistoryRepository, never()).deleteAllByColumnId(anyInt());
+        verify(columnRepository).bulkDeleteById(1);
+        verify(eventPublisher).publishEvent(BoardChangedEvent.deleted(BoardEntityType.COLUMN, 1));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, Set.of(3, 4)));
+    }
+
+    @Test
+    void deleteColumn_ShouldThrowConflict_WhenMovedTasksExceedTargetWipLimit() {
+        // Given
+        when(columnRepository.existsById(1)).thenReturn(true);
+        when(taskRepository.findIdsByColumnId(1)).thenReturn(List.of(3));
+        when(taskBulkService.moveTasks(List.of(3), 2, null)).thenThrow(new IllegalStateException("Kolumna osiągnęła limit WIP"));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> columnService.deleteColumn(1, 2));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(columnRepository, never()).bulkDeleteById(anyInt());
     }
 
     @Test
@@ -220,35 +294,34 @@ class ColumnServiceTest {
         // When & Then
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> columnService.deleteColumn(id)
+                () -> columnService.deleteColumn(id, null)
         );
 
         assertEquals("Nie ma kolumny o takim id", exception.getMessage());
         verify(columnRepository).existsById(id);
-        verify(columnRepository, never()).deleteById(anyInt());
+        verify(columnRepository, never()).bulkDeleteById(anyInt());
     }
 
     @Test
     void getColumnById_ShouldReturnColumnDTO_WhenColumnExists() {
         // Given
         Integer id = 1;
-        when(columnRepository.findById(id)).thenReturn(Optional.of(column));
-        when(columnMapper.apply(column)).thenReturn(columnDTO);
+        when(boardReadModel.getColumn(id)).thenReturn(Optional.of(columnDTO));
 
         // When
         ColumnDTO result = columnService.getColumnById(id);
 
         // Then
         assertEquals(columnDTO, result);
-        verify(columnRepository).findById(id);
-        verify(columnMapper).apply(column);
+        verify(boardReadModel).getColumn(id);
+        verify(columnRepository, never()).findById(anyInt());
     }
 
     @Test
     void getColumnById_ShouldThrowEntityNotFoundException_WhenColumnNotFound() {
         // Given
         Integer id = 999;
-        when(columnRepository.findById(id)).thenReturn(Optional.empty());
+        when(boardReadModel.getColumn(id)).thenReturn(Optional.empty());
 
         // When & Then
         EntityNotFoundException exception = assertThrows(
@@ -257,8 +330,7 @@ class ColumnServiceTest {
         );
 
         assertEquals("Nie ma kolumny o takim id", exception.getMessage());
-        verify(columnRepository).findById(id);
-        verify(columnMapper, never()).apply(any(Column.class));
+        verify(boardReadModel).getColumn(id);
     }
 
     @Test
@@ -275,17 +347,17 @@ class ColumnServiceTest {
         ColumnDTO updatedDTO = new ColumnDTO(1, "To Do", 5, 5, null);
 
         when(columnRepository.findById(id)).thenReturn(Optional.of(column));
-        when(columnRepository.save(column)).thenReturn(updatedColumn);
+        when(columnRepository.saveAndFlush(column)).thenReturn(updatedColumn);
         when(columnMapper.apply(updatedColumn)).thenReturn(updatedDTO);
 
         // When
-        ColumnDTO result = columnService.updateColumnPosition(id, newPosition);
+        ColumnDTO result = columnService.updateColumnPosition(id, newPosition, null);
 
         // Then
         assertEquals(5, column.getPosition());
         assertEquals(updatedDTO, result);
         verify(columnRepository).findById(id);
-        verify(columnRepository).save(column);
+        verify(columnRepository).saveAndFlush(column);
         verify(columnMapper).apply(updatedColumn);
     }
 
@@ -299,7 +371,7 @@ class ColumnServiceTest {
         // When & Then
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> columnService.updateColumnPosition(id, newPosition)
+                () -> columnService.updateColumnPosition(id, newPosition, null)
         );
 
         assertEquals("Nie ma kolumny o takim id", exception.getMessage());
@@ -307,4 +379,44 @@ class ColumnServiceTest {
         verify(columnRepository, never()).save(any(Column.class));
         verify(columnMapper, never()).apply(any(Column.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void reorderColumns_ShouldWriteAllPositionsInOneBatch() {
+        // Given
+        List<PositionDTO> positions = List.of(new PositionDTO(1, 2), new PositionDTO(2, 1));
+        Column second = new Column();
+        second.setId(2);
+        when(columnRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(column, second));
+
+        // When
+        columnService.reorderColumns(positions);
+
+        // Then
+        verify(columnRepository).batchUpdatePositions(positions);
+        verify(columnRepository, never()).save(any(Column.class));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.COLUMN, Set.of(1, 2)));
+    }
+
+    @Test
+    void reorderColumns_ShouldRejectDuplicateIds() {
+        // Given
+        List<PositionDTO> positions = List.of(new PositionDTO(1, 2), new PositionDTO(1, 1));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> columnService.reorderColumns(positions));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(columnRepository, never()).batchUpdatePositions(anyList());
+    }
+
+    @Test
+    void reorderColumns_ShouldThrowEntityNotFound_WhenAnyIdIsMissing() {
+        // Given
+        List<PositionDTO> positions = List.of(new PositionDTO(1, 2), new PositionDTO(99, 1));
+        when(columnRepository.findAllById(Set.of(1, 99))).thenReturn(List.of(column));
+
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> columnService.reorderColumns(positions));
+        verify(columnRepository, never()).batchUpdatePositions(anyList());
+    }
+}
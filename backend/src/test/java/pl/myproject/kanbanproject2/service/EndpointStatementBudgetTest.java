@@ -0,0 +1,295 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.myproject.kanbanproject2.config.IdSequenceAlignment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the read endpoints of every controller against boards of 10, 1 000 and 10 000 tasks
+ * and fails when any of them issues more statements than its budget. Budgets do not depend
+ * on board size, so an N+1 introduced in a mapper shows up as soon as the board grows.
+ * Batch task creation, bulk operations and deletes get the same treatment against the
+ * number of tasks they touch.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+        "captcha.enabled=false",
+        "captcha.secret=test"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@Import(StatementCounter.Config.class)
+@WithMockUser
+class EndpointStatementBudgetTest {
+
+    private static final int[] BOARD_SIZES = {10, 1_000, 10_000};
+    private static final int COLUMNS = 5;
+    private static final int ROWS = 4;
+    private static final int USERS = 10;
+    private static final int CHILDREN_PER_PARENT = 9;
+    // Liczniki WIP kolumn i wierszy zmieniane są jednym UPDATE na kolumnę lub wiersz
+    private static final int BATCH_CREATE_BUDGET = 16;
+    // MOVE dopisuje historię partiami po 50 wierszy (jdbc.batch_size), stąd zapas ponad stałą liczbę;
+    // dzieci odrzucone przez SET_COMPLETED (otwarty rodzic) zostają aktywne, więc MOVE zmienia też
+    // liczniki WIP, po jednym UPDATE na kolumnę i wiersz
+    private static final int BULK_OPERATION_BUDGET = 28;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BoardReadModel boardReadModel;
+
+    @Autowired
+    private LabelCatalogue labelCatalogue;
+
+    @Autowired
+    private IdSequenceAlignment idSequenceAlignment;
+
+    @Autowired
+    private WipCounters wipCounters;
+
+    private static Map<String, Integer> budgets() {
+        Map<String, Integer> budgets = new LinkedHashMap<>();
+        budgets.put("/tasks", 0);
+        budgets.put("/tasks?columnId=1&limit=50", 4);
+        budgets.put("/tasks/1", 1);
+        budgets.put("/tasks/1/children", 4);
+        budgets.put("/tasks/2/parent", 3);
+        budgets.put("/tasks/get/all/labels", 1);
+        budgets.put("/tasks/labels/usage", 1);
+        budgets.put("/board", 6);
+        budgets.put("/columns", 0);
+        budgets.put("/columns/1", 0);
+        budgets.put("/rows", 0);
+        budgets.put("/rows/1", 0);
+        budgets.put("/users", 1);
+        budgets.put("/users?expand=tasks", 1);
+        budgets.put("/users/1", 1);
+        budgets.put("/users/1/wip-status", 2);
+        budgets.put("/subtasks", 1);
+        budgets.put("/subtasks/1", 1);
+        budgets.put("/subtasks/task/1", 2);
+        return budgets;
+    }
+
+    @Test
+    void readEndpoints_ShouldStayWithinStatementBudget_ForEveryBoardSize() throws Exception {
+        Map<String, Integer> budgets = budgets();
+        Map<String, List<Long>> measured = new LinkedHashMap<>();
+        List<String> violations = new ArrayList<>();
+
+        for (int boardSize : BOARD_SIZES) {
+            seedBoard(boardSize);
+            for (Map.Entry<String, Integer> endpoint : budgets.entrySet()) {
+                entityManagerFactory.getCache().evictAll();
+                statementCounter.reset();
+                mockMvc.perform(get(endpoint.getKey())).andExpect(status().isOk());
+                long statements = statementCounter.count();
+
+                measured.computeIfAbsent(endpoint.getKey(), key -> new ArrayList<>()).add(statements);
+                if (statements > endpoint.getValue()) {
+                    violations.add(endpoint.getKey() + " @ " + boardSize + " tasks: " + statements
+                            + " statements (budget " + endpoint.getValue() + ")");
+                }
+            }
+        }
+
+        assertTrue(violations.isEmpty(), "Statement budget exceeded:\n" + String.join("\n", violations)
+                + "\nMeasured " + measured);
+    }
+
+    @Test
+    void batchCreate_ShouldStayWithinStatementBudget_RegardlessOfTaskCount() throws Exception {
+        seedBoard(10);
+        // Tablica wstawiona przez JDBC z jawnymi id, więc sekwencje przesuwamy jak po aktualizacji
+        idSequenceAlignment.alignSequences();
+
+        Map<Integer, Long> measured = new LinkedHashMap<>();
+        for (int taskCount : new int[]{5, 40}) {
+            statementCounter.reset();
+            mockMvc.perform(post("/tasks/batch").contentType(APPLICATION_JSON).content(batchOf(taskCount)))
+                    .andExpect(status().isOk());
+            measured.put(taskCount, statementCounter.count());
+        }
+
+        assertTrue(measured.values().stream().allMatch(statements -> statements <= BATCH_CREATE_BUDGET),
+                "Statement budget " + BATCH_CREATE_BUDGET + " exceeded: " + measured);
+        assertEquals(55, jdbcTemplate.queryForObject("select count(*) from task", Integer.class));
+        assertEquals(100, jdbcTemplate.queryForObject("select count(*) from subtasks", Integer.class));
+    }
+
+    @Test
+    void bulkOperations_ShouldStayWithinStatementBudget_RegardlessOfTaskCount() throws Exception {
+        List<String> operations = List.of(
+                "\"operation\": \"ADD_LABEL\", \"label\": \"triage\"",
+                "\"operation\": \"REMOVE_LABEL\", \"label\": \"triage\"",
+                "\"operation\": \"ASSIGN_USER\", \"userId\": 2",
+                "\"operation\": \"UNASSIGN_USER\", \"userId\": 2",
+                "\"operation\": \"SET_COMPLETED\", \"completed\": true",
+                "\"operation\": \"SET_DEADLINE\", \"deadline\": \"2030-01-01T12:00:00\"",
+                "\"operation\": \"MOVE\", \"columnId\": 2, \"rowId\": 3",
+                "\"operation\": \"DELETE\"");
+        seedBoard(1_000);
+        jdbcTemplate.update("update users set wip_limit = null");
+        jdbcTemplate.update("update columns set wip_limit = null");
+        idSequenceAlignment.alignSequences();
+
+        Map<String, List<Long>> measured = new LinkedHashMap<>();
+        for (int[] range : new int[][]{{1, 10}, {101, 300}}) {
+            String taskIds = IntStream.rangeClosed(range[0], range[1]).mapToObj(String::valueOf)
+                    .collect(Collectors.joining(", ", "[", "]"));
+            for (String operation : operations) {
+                entityManagerFactory.getCache().evictAll();
+                statementCounter.reset();
+                mockMvc.perform(post("/tasks/bulk").contentType(APPLICATION_JSON)
+                                .content("{\"taskIds\": " + taskIds + ", " + operation + "}"))
+                        .andExpect(status().isOk());
+                measured.computeIfAbsent(operation, key -> new ArrayList<>()).add(statementCounter.count());
+            }
+        }
+
+        assertTrue(measured.values().stream().flatMap(List::stream).allMatch(statements -> statements <= BULK_OPERATION_BUDGET),
+                "Statement budget " + BULK_OPERATION_BUDGET + " exceeded: " + measured);
+        assertEquals(790, jdbcTemplate.queryForObject("select count(*) from task", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from task_labels where label = 'triage'", Integer.class));
+    }
+
+    private static Map<String, Integer> deleteBudgets() {
+        Map<String, Integer> budgets = new LinkedHashMap<>();
+        // Odczyt torów i przypisań aktywnych zadań oraz zwolnienie liczników WIP kolumn, wierszy i użytkowników
+        // oraz dwa DELETE na tabeli domknięcia hierarchii (task_closure) i jeden na zależnościach (task_dependency)
+        budgets.put("/tasks/1", 20);
+        // Przeniesione zadania dostają wpisy historii zapisywane partiami po 50 wierszy,
+        // a ich wcześniejsza historia jest przepinana na kolumnę docelową
+        budgets.put("/columns/1?moveTasksTo=2", 31);
+        budgets.put("/columns/3", 15);
+        // Zadania użytkownika usuwane zbiorczo jak przy DELETE /tasks/1, potem sam użytkownik
+        budgets.put("/users/5", 23);
+        return budgets;
+    }
+
+    @Test
+    void deletes_ShouldStayWithinStatementBudget_ForEveryBoardSize() throws Exception {
+        Map<String, Integer> budgets = deleteBudgets();
+        Map<String, List<Long>> measured = new LinkedHashMap<>();
+        List<String> violations = new ArrayList<>();
+        for (int boardSize : new int[]{10, 1_000}) {
+            seedBoard(boardSize);
+            jdbcTemplate.update("update columns set wip_limit = null");
+            idSequenceAlignment.alignSequences();
+            wipCounters.recount();
+            // Zadanie 1 usuwamy osobno, reszta kolumny 1 ma trafić do kolumny 2
+            long movedAndKept = jdbcTemplate.queryForObject(
+                    "select count(*) from task where column_id in (1, 2) and id <> 1", Long.class);
+
+            for (Map.Entry<String, Integer> endpoint : budgets.entrySet()) {
+                entityManagerFactory.getCache().evictAll();
+                statementCounter.reset();
+                mockMvc.perform(delete(endpoint.getKey())).andExpect(status().isNoContent());
+                long statements = statementCounter.count();
+
+                measured.computeIfAbsent(endpoint.getKey(), key -> new ArrayList<>()).add(statements);
+                if (statements > endpoint.getValue()) {
+                    violations.add(endpoint.getKey() + " @ " + boardSize + " tasks: " + statements
+                            + " statements (budget " + endpoint.getValue() + ")");
+                }
+            }
+
+            assertEquals(movedAndKept,
+                    jdbcTemplate.queryForObject("select count(*) from task where column_id = 2", Long.class));
+            assertEquals(0, jdbcTemplate.queryForObject("select count(*) from task where column_id in (1, 3)", Long.class));
+            // Historia przeniesionych zadań zostaje i wskazuje kolumnę docelową
+            assertTrue(jdbcTemplate.queryForObject("select count(*) from task_column_history " +
+                    "where column_name = 'Column 1' and column_id = 2", Long.class) > 0);
+            // Usunięcie zadań (także razem z użytkownikiem) zwalnia liczniki WIP
+            assertEquals(0, jdbcTemplate.queryForObject("select count(*) from user_task where user_id = 5", Long.class));
+            assertEquals(0, jdbcTemplate.queryForObject("select count(*) from columns where active_task_count <> " +
+                    "(select count(*) from task t where t.column_id = columns.id and t.completed = false)", Long.class));
+            assertEquals(0, jdbcTemplate.queryForObject("select count(*) from rows where active_task_count <> " +
+                    "(select count(*) from task t where t.row_id = rows.id and t.completed = false)", Long.class));
+        }
+
+        assertTrue(violations.isEmpty(), "Statement budget exceeded:\n" + String.join("\n", violations)
+                + "\nMeasured " + measured);
+    }
+
+    private static String batchOf(int taskCount) {
+        return IntStream.rangeClosed(1, taskCount)
+                .mapToObj(i -> "{\"title\": \"Batch " + i + "\", \"column\": {\"id\": 1}, \"row\": {\"id\": 1}, " +
+                        "\"labels\": [\"batch\", \"label" + i % 3 + "\"], " +
+                        "\"subTasks\": [{\"title\": \"First\"}, {\"title\": \"Second\"}]}")
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private void seedBoard(int taskCount) {
+        for (String table : List.of("subtasks", "task_labels", "user_task", "task_column_history", "task", "users", "columns", "rows")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+
+        jdbcTemplate.batchUpdate("insert into columns (id, name, position, wip_limit) values (?, ?, ?, ?)",
+                IntStream.rangeClosed(1, COLUMNS).mapToObj(i -> new Object[]{i, "Column " + i, i, 100}).toList());
+        jdbcTemplate.batchUpdate("insert into rows (id, name, position, wip_limit) values (?, ?, ?, ?)",
+                IntStream.rangeClosed(1, ROWS).mapToObj(i -> new Object[]{i, "Row " + i, i, 100}).toList());
+        jdbcTemplate.batchUpdate("insert into users (id, name, email, password, enabled, wip_limit) values (?, ?, ?, ?, true, ?)",
+                IntStream.rangeClosed(1, USERS).mapToObj(i -> new Object[]{i, "User " + i, "user" + i + "@example.com", "x", 5}).toList());
+
+        int parentEvery = CHILDREN_PER_PARENT + 1;
+        jdbcTemplate.batchUpdate("insert into task (id, title, position, completed, expired, column_id, row_id, parent_task_id) " +
+                        "values (?, ?, ?, ?, false, ?, ?, ?)",
+                IntStream.rangeClosed(1, taskCount).mapToObj(i -> new Object[]{
+                        i, "Task " + i, i, i % 3 == 0, 1 + i % COLUMNS, 1 + i % ROWS,
+                        (i - 1) % parentEvery == 0 ? null : i - (i - 1) % parentEvery}).toList());
+        jdbcTemplate.batchUpdate("insert into task_labels (task_id, label) values (?, ?)",
+                IntStream.rangeClosed(1, taskCount).boxed()
+                        .flatMap(i -> Stream.of(new Object[]{i, "label" + i % 7}, new Object[]{i, "common"}))
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into user_task (task_id, user_id) values (?, ?)",
+                IntStream.rangeClosed(1, taskCount).mapToObj(i -> new Object[]{i, 1 + i % USERS}).toList());
+        jdbcTemplate.batchUpdate("insert into subtasks (id, title, completed, position, task_id) values (?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, taskCount).mapToObj(i -> new Object[]{i, "Subtask " + i, i % 2 == 0, i, i}).toList());
+
+        boardReadModel.rebuild();
+        labelCatalogue.invalidate();
+    }
+}
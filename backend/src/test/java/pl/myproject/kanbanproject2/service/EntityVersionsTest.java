@@ -0,0 +1,76 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityVersionsTest {
+
+    private EntityVersions entityVersions;
+
+    @BeforeEach
+    void setUp() {
+        entityVersions = new EntityVersions();
+    }
+
+    @Test
+    void onBoardChanged_ShouldBumpOnlyChangedType() {
+        // When
+        entityVersions.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.TASK, 1));
+
+        // Then
+        assertEquals(1, entityVersions.version(BoardEntityType.TASK));
+        assertEquals(0, entityVersions.version(BoardEntityType.COLUMN));
+        assertEquals(0, entityVersions.version(BoardEntityType.USER));
+    }
+
+    @Test
+    void onBoardChanged_ShouldBumpEveryType_WhenBoardReloaded() {
+        // When
+        entityVersions.onBoardChanged(BoardChangedEvent.reloaded());
+
+        // Then
+        for (BoardEntityType type : BoardEntityType.values()) {
+            assertEquals(1, entityVersions.version(type));
+        }
+    }
+
+    @Test
+    void eTag_ShouldBeQuotedAndStable_WhenNothingChanged() {
+        // When
+        String first = entityVersions.eTag("columns", BoardEntityType.COLUMN, BoardEntityType.TASK);
+        String second = entityVersions.eTag("columns", BoardEntityType.COLUMN, BoardEntityType.TASK);
+
+        // Then
+        assertEquals(first, second);
+        assertTrue(first.startsWith("\"columns-"));
+        assertTrue(first.endsWith("-0-0\""));
+    }
+
+    @Test
+    void eTag_ShouldChange_WhenAnyIncludedTypeChanges() {
+        // Given
+        String before = entityVersions.eTag("columns", BoardEntityType.COLUMN, BoardEntityType.TASK);
+
+        // When
+        entityVersions.onBoardChanged(BoardChangedEvent.deleted(BoardEntityType.TASK, 3));
+
+        // Then
+        assertNotEquals(before, entityVersions.eTag("columns", BoardEntityType.COLUMN, BoardEntityType.TASK));
+    }
+
+    @Test
+    void eTag_ShouldNotChange_WhenUnrelatedTypeChanges() {
+        // Given
+        String before = entityVersions.eTag("rows", BoardEntityType.ROW, BoardEntityType.TASK);
+
+        // When
+        entityVersions.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.USER, 7));
+
+        // Then
+        assertEquals(before, entityVersions.eTag("rows", BoardEntityType.ROW, BoardEntityType.TASK));
+    }
+}
@@ -0,0 +1,88 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.myproject.kanbanproject2.dto.LabelUsageDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskLabelsChangedEvent;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LabelCatalogueTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private LabelCatalogue labelCatalogue;
+
+    @BeforeEach
+    void setUp() {
+        labelCatalogue = new LabelCatalogue(taskRepository);
+    }
+
+    @Test
+    void getLabelUsage_ShouldLoadOnceFromGroupedQuery() {
+        // Given
+        when(taskRepository.findLabelUsage()).thenReturn(List.of(new LabelUsageDTO("bug", 2L), new LabelUsageDTO("ui", 1L)));
+
+        // When
+        List<LabelUsageDTO> first = labelCatalogue.getLabelUsage();
+        Set<String> labels = labelCatalogue.getLabels();
+
+        // Then
+        assertEquals(List.of(new LabelUsageDTO("bug", 2L), new LabelUsageDTO("ui", 1L)), first);
+        assertEquals(Set.of("bug", "ui"), labels);
+        verify(taskRepository, times(1)).findLabelUsage();
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void onLabelsChanged_ShouldApplyDeltasWithoutQuerying() {
+        // Given
+        when(taskRepository.findLabelUsage()).thenReturn(List.of(new LabelUsageDTO("bug", 2L), new LabelUsageDTO("ui", 1L)));
+        labelCatalogue.getLabels();
+
+        // When
+        labelCatalogue.onLabelsChanged(TaskLabelsChangedEvent.of(Set.of("ui", "bug"), Set.of("bug", "backend")));
+
+        // Then
+        assertEquals(List.of(new LabelUsageDTO("backend", 1L), new LabelUsageDTO("bug", 2L)), labelCatalogue.getLabelUsage());
+        verify(taskRepository, times(1)).findLabelUsage();
+    }
+
+    @Test
+    void onLabelsChanged_ShouldIgnoreDeltas_WhenNotLoaded() {
+        // When
+        labelCatalogue.onLabelsChanged(TaskLabelsChangedEvent.of(null, Set.of("bug")));
+
+        // Then
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void onBoardChanged_ShouldReload_WhenColumnDeleted() {
+        // Given
+        when(taskRepository.findLabelUsage())
+                .thenReturn(List.of(new LabelUsageDTO("bug", 2L)))
+                .thenReturn(List.of());
+        labelCatalogue.getLabels();
+
+        // When
+        labelCatalogue.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.TASK, 1));
+        labelCatalogue.onBoardChanged(BoardChangedEvent.deleted(BoardEntityType.COLUMN, 1));
+
+        // Then
+        assertTrue(labelCatalogue.getLabels().isEmpty());
+        verify(taskRepository, times(2)).findLabelUsage();
+    }
+}
@@ -0,0 +1,73 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankKeyTest {
+
+    @Test
+    void between_ShouldReturnKeyStrictlyBetweenNeighbours() {
+        // When
+        String key = RankKey.between("a", "b");
+
+        // Then
+        assertTrue("a".compareTo(key) < 0);
+        assertTrue(key.compareTo("b") < 0);
+    }
+
+    @Test
+    void between_ShouldHandleOpenEnds() {
+        // When
+        String first = RankKey.between(null, null);
+        String before = RankKey.between(null, first);
+        String after = RankKey.between(first, null);
+
+        // Then
+        assertTrue(before.compareTo(first) < 0);
+        assertTrue(first.compareTo(after) < 0);
+    }
+
+    @Test
+    void between_ShouldKeepFindingRoom_WhenInsertingRepeatedlyAtSameSpot() {
+        // Given
+        String lower = "1";
+        String upper = "2";
+
+        // When & Then
+        for (int i = 0; i < 200; i++) {
+            String key = RankKey.between(lower, upper);
+            assertTrue(lower.compareTo(key) < 0, key);
+            assertTrue(key.compareTo(upper) < 0, key);
+            assertNotEquals('0', key.charAt(key.length() - 1));
+            upper = key;
+        }
+    }
+
+    @Test
+    void between_ShouldRejectNeighboursInWrongOrder() {
+        assertThrows(IllegalArgumentException.class, () -> RankKey.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKey.between("a", "a"));
+    }
+
+    @Test
+    void evenlySpaced_ShouldReturnSortedDistinctKeysWithRoomBetween() {
+        // When
+        List<String> keys = RankKey.evenlySpaced(10_000);
+
+        // Then
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(null);
+        assertEquals(sorted, keys);
+        assertEquals(10_000, keys.stream().distinct().count());
+        assertTrue(keys.stream().allMatch(key -> key.length() <= 4));
+        for (int i = 1; i < keys.size(); i++) {
+            String key = RankKey.between(keys.get(i - 1), keys.get(i));
+            assertTrue(keys.get(i - 1).compareTo(key) < 0 && key.compareTo(keys.get(i)) < 0, key);
+            assertTrue(key.length() <= 5, key);
+        }
+    }
+}
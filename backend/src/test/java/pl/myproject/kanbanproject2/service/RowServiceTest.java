@@ -7,7 +7,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
 import pl.myproject.kanbanproject2.dto.RowDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.RowMapper;
 import pl.myproject.kanbanproject2.model.Row;
 import pl.myproject.kanbanproject2.repository.RowRepository;
@@ -16,10 +22,12 @@ import pl.myproject.kanbanproject2.repository.TaskRepository;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +42,15 @@ class RowServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private BoardReadModel boardReadModel;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityVersions entityVersions;
+
     @InjectMocks
     private RowService rowService;
 
@@ -54,20 +71,10 @@ class RowServiceTest {
     @Test
     void getAllRows_ShouldReturnListOfRowDTOs() {
         // Given
-        Row row2 = new Row();
-        row2.setId(2);
-        row2.setName("Low Priority");
-        row2.setPosition(2);
-        row2.setWipLimit(5);
-
         RowDTO rowDTO2 = new RowDTO(2, "Low Priority", 2, 5, null);
-
-        List<Row> rows = Arrays.asList(row, row2);
         List<RowDTO> expectedDTOs = Arrays.asList(rowDTO, rowDTO2);
 
-        when(rowRepository.findAll()).thenReturn(rows);
-        when(rowMapper.apply(row)).thenReturn(rowDTO);
-        when(rowMapper.apply(row2)).thenReturn(rowDTO2);
+        when(boardReadModel.getAllRows()).thenReturn(expectedDTOs);
 
         // When
         List<RowDTO> result = rowService.getAllRows();
@@ -75,21 +82,22 @@ class RowServiceTest {
         // Then
         assertEquals(2, result.size());
         assertEquals(expectedDTOs, result);
-        verify(rowRepository).findAll();
-        verify(rowMapper, times(2)).apply(any(Row.class));
+        verify(boardReadModel).getAllRows();
+        verify(rowRepository, never()).findAll();
+        verify(rowMapper, never()).apply(any(Row.class));
     }
 
     @Test
     void getAllRows_ShouldReturnEmptyList_WhenNoRowsExist() {
         // Given
-        when(rowRepository.findAll()).thenReturn(Arrays.asList());
+        when(boardReadModel.getAllRows()).thenReturn(Arrays.asList());
 
         // When
         List<RowDTO> result = rowService.getAllRows();
 
         // Then
         assertTrue(result.isEmpty());
-        verify(rowRepository).findAll();
+        verify(boardReadModel).getAllRows();
         verify(rowMapper, never()).apply(any(Row.class));
     }
 
@@ -144,11 +152,11 @@ class RowServiceTest {
         updatedRow.setWipLimit(10);
 
         when(rowRepository.findById(id)).thenReturn(Optional.of(row));
-        when(rowRepository.save(any(Row.class))).thenReturn(updatedRow);
+        when(rowRepository.saveAndFlush(any(Row.class))).thenReturn(updatedRow);
         when(rowMapper.apply(updatedRow)).thenReturn(updateDTO);
 
         // When
-        RowDTO result = rowService.patchRow(updateDTO, id);
+        RowDTO result = rowService.patchRow(updateDTO, id, null);
 
         // Then
         assertEquals("Updated Name", row.getName());
@@ -156,7 +164,7 @@ class RowServiceTest {
         assertEquals(10, row.getWipLimit());
         assertEquals(updateDTO, result);
         verify(rowRepository).findById(id);
-        verify(rowRepository).save(row);
+        verify(rowRepository).saveAndFlush(row);
         verify(rowMapper).apply(updatedRow);
     }
 
@@ -167,18 +175,18 @@ class RowServiceTest {
         RowDTO updateDTO = new RowDTO(1, "Updated Name", null, null, null);
 
         when(rowRepository.findById(id)).thenReturn(Optional.of(row));
-        when(rowRepository.save(any(Row.class))).thenReturn(row);
+        when(rowRepository.saveAndFlush(any(Row.class))).thenReturn(row);
         when(rowMapper.apply(row)).thenReturn(rowDTO);
 
         // When
-        RowDTO result = rowService.patchRow(updateDTO, id);
+        RowDTO result = rowService.patchRow(updateDTO, id, null);
 
         // Then
         assertEquals("Updated Name", row.getName());
         assertEquals(1, row.getPosition()); // pozostaje bez zmian
         assertEquals(3, row.getWipLimit()); // pozostaje bez zmian
         verify(rowRepository).findById(id);
-        verify(rowRepository).save(row);
+        verify(rowRepository).saveAndFlush(row);
     }
 
     @Test
@@ -192,7 +200,7 @@ class RowServiceTest {
         // When & Then
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> rowService.patchRow(updateDTO, id)
+                () -> rowService.patchRow(updateDTO, id, null)
         );
 
         assertEquals("Nie ma takiego wiersza", exception.getMessage());
@@ -236,23 +244,22 @@ class RowServiceTest {
     void getRowById_ShouldReturnRowDTO_WhenRowExists() {
         // Given
         Integer id = 1;
-        when(rowRepository.findById(id)).thenReturn(Optional.of(row));
-        when(rowMapper.apply(row)).thenReturn(rowDTO);
+        when(boardReadModel.getRow(id)).thenReturn(Optional.of(rowDTO));
 
         // When
         RowDTO result = rowService.getRowById(id);
 
         // Then
         assertEquals(rowDTO, result);
-        verify(rowRepository).findById(id);
-        verify(rowMapper).apply(row);
+        verify(boardReadModel).getRow(id);
+        verify(rowRepository, never()).findById(anyInt());
     }
 
     @Test
     void getRowById_ShouldThrowEntityNotFoundException_WhenRowNotFound() {
         // Given
         Integer id = 999;
-        when(rowRepository.findById(id)).thenReturn(Optional.empty());
+        when(boardReadModel.getRow(id)).thenReturn(Optional.empty());
 
         // When & Then
         EntityNotFoundException exception = assertThrows(
@@ -261,8 +268,7 @@ class RowServiceTest {
         );
 
         assertEquals("Nie ma wiersza", exception.getMessage());
-        verify(rowRepository).findById(id);
-        verify(rowMapper, never()).apply(any(Row.class));
+        verify(boardReadModel).getRow(id);
     }
 
     @Test
@@ -279,17 +285,17 @@ class RowServiceTest {
         RowDTO updatedDTO = new RowDTO(1, "High Priority", 5, 3, null);
 
         when(rowRepository.findById(id)).thenReturn(Optional.of(row));
-        when(rowRepository.save(row)).thenReturn(updatedRow);
+        when(rowRepository.saveAndFlush(row)).thenReturn(updatedRow);
         when(rowMapper.apply(updatedRow)).thenReturn(updatedDTO);
 
         // When
-        RowDTO result = rowService.updateRowPosition(id, newPosition);
+        RowDTO result = rowService.updateRowPosition(id, newPosition, null);
 
         // Then
         assertEquals(5, row.getPosition());
         assertEquals(updatedDTO, result);
         verify(rowRepository).findById(id);
-        verify(rowRepository).save(row);
+        verify(rowRepository).saveAndFlush(row);
         verify(rowMapper).apply(updatedRow);
     }
 
@@ -303,7 +309,7 @@ class RowServiceTest {
         // When & Then
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> rowService.updateRowPosition(id, newPosition)
+                () -> rowService.updateRowPosition(id, newPosition, null)
         );
 
         assertEquals("Nie ma wiersza o takim id", exception.getMessage());
@@ -311,4 +317,44 @@ class RowServiceTest {
         verify(rowRepository, never()).save(any(Row.class));
         verify(rowMapper, never()).apply(any(Row.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void reorderRows_ShouldWriteAllPositionsInOneBatch() {
+        // Given
+        List<PositionDTO> positions = List.of(new PositionDTO(1, 2), new PositionDTO(2, 1));
+        Row second = new Row();
+        second.setId(2);
+        when(rowRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(row, second));
+
+        // When
+        rowService.reorderRows(positions);
+
+        // Then
+        verify(rowRepository).batchUpdatePositions(positions);
+        verify(rowRepository, never()).save(any(Row.class));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.ROW, Set.of(1, 2)));
+    }
+
+    @Test
+    void reorderRows_ShouldRejectDuplicateIds() {
+        // Given
+        List<PositionDTO> positions = List.of(new PositionDTO(1, 2), new PositionDTO(1, 1));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> rowService.reorderRows(positions));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(rowRepository, never()).batchUpdatePositions(anyList());
+    }
+
+    @Test
+    void reorderRows_ShouldThrowEntityNotFound_WhenAnyIdIsMissing() {
+        // Given
+        List<PositionDTO> positions = List.of(new PositionDTO(1, 2), new PositionDTO(99, 1));
+        when(rowRepository.findAllById(Set.of(1, 99))).thenReturn(List.of(row));
+
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> rowService.reorderRows(positions));
+        verify(rowRepository, never()).batchUpdatePositions(anyList());
+    }
+}
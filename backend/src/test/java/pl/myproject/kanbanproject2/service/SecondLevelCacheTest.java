@@ -0,0 +1,128 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.myproject.kanbanproject2.dto.PositionDTO;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.User;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.UserRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read-write cache entries only become visible after commit, so every step runs
+ * in its own transaction instead of the usual rolled-back test transaction.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Task").executeUpdate();
+            entityManager.createQuery("delete from Column").executeUpdate();
+            entityManager.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    void column_ShouldBeServedFromCache_AfterFirstRead() {
+        Column column = new Column();
+        column.setName("To Do");
+        column.setPosition(1);
+        transaction.executeWithoutResult(status -> entityManager.persist(column));
+        transaction.executeWithoutResult(status -> entityManager.find(Column.class, column.getId()));
+        statistics.clear();
+
+        Column cached = transaction.execute(status -> entityManager.find(Column.class, column.getId()));
+
+        assertEquals("To Do", cached.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("columns").getHitCount());
+    }
+
+    @Test
+    void column_ShouldBeEvicted_WhenPositionsAreWrittenWithJdbcBatch() {
+        Column column = new Column();
+        column.setName("To Do");
+        column.setPosition(1);
+        transaction.executeWithoutResult(status -> entityManager.persist(column));
+        transaction.executeWithoutResult(status -> entityManager.find(Column.class, column.getId()));
+
+        transaction.executeWithoutResult(status ->
+                columnRepository.batchUpdatePositions(List.of(new PositionDTO(column.getId(), 7))));
+
+        Column reloaded = transaction.execute(status -> entityManager.find(Column.class, column.getId()));
+        assertEquals(7, reloaded.getPosition());
+    }
+
+    @Test
+    void taskLabels_ShouldBeRefreshed_WhenChangedThroughSession() {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setLabels(new HashSet<>(Set.of("bug")));
+        transaction.executeWithoutResult(status -> entityManager.persist(task));
+        transaction.executeWithoutResult(status -> entityManager.find(Task.class, task.getId()).getLabels().size());
+
+        transaction.executeWithoutResult(status -> entityManager.find(Task.class, task.getId()).getLabels().add("ui"));
+
+        Set<String> labels = transaction.execute(status -> Set.copyOf(entityManager.find(Task.class, task.getId()).getLabels()));
+        assertEquals(Set.of("bug", "ui"), labels);
+    }
+
+    @Test
+    void findByEmail_ShouldUseQueryCache_WhenUsersUnchanged() {
+        transaction.executeWithoutResult(status -> entityManager.persist(new User("User", "cached@example.com", "password")));
+        userRepository.findByEmail("cached@example.com");
+        statistics.clear();
+
+        assertTrue(userRepository.findByEmail("cached@example.com").isPresent());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -7,9 +7,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import pl.myproject.kanbanproject2.dto.SubTaskDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.SubTaskMapper;
 import pl.myproject.kanbanproject2.model.SubTask;
 import pl.myproject.kanbanproject2.model.Task;
@@ -34,6 +37,9 @@ class SubTaskServiceTest {
     @Mock
     private SubTaskMapper subTaskMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SubTaskService subTaskService;
 
@@ -93,6 +99,24 @@ class SubTaskServiceTest {
         verify(subTaskRepository).save(subTaskWithoutPosition);
     }
 
+    @Test
+    void addSubTask_WithTask_ShouldCountItOnTask() {
+        // Given
+        SubTask subTask = new SubTask();
+        subTask.setPosition(1);
+        subTask.setCompleted(true);
+        subTask.setTask(testTask);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(testTask));
+        when(subTaskRepository.save(subTask)).thenReturn(subTask);
+
+        // When
+        subTaskService.addSubTask(subTask);
+
+        // Then
+        verify(taskRepository).adjustSubtaskCounts(1, 1, 1);
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, 1));
+    }
+
     @Test
     void getAllSubTasks_ShouldReturnListOfSubTaskDTOs() {
         // Given
@@ -115,21 +139,22 @@ class SubTaskServiceTest {
     void deleteSubTask_ExistingId_ShouldDeleteSuccessfully() {
         // Given
         Integer subTaskId = 1;
-        when(subTaskRepository.existsById(subTaskId)).thenReturn(true);
+        testSubTask.setCompleted(true);
+        when(subTaskRepository.findById(subTaskId)).thenReturn(Optional.of(testSubTask));
 
         // When
         assertDoesNotThrow(() -> subTaskService.deleteSubTask(subTaskId));
 
         // Then
-        verify(subTaskRepository).existsById(subTaskId);
-        verify(subTaskRepository).deleteById(subTaskId);
+        verify(subTaskRepository).delete(testSubTask);
+        verify(taskRepository).adjustSubtaskCounts(1, -1, -1);
     }
 
     @Test
     void deleteSubTask_NonExistingId_ShouldThrowResponseStatusException() {
         // Given
         Integer subTaskId = 999;
-        when(subTaskRepository.existsById(subTaskId)).thenReturn(false);
+        when(subTaskRepository.findById(subTaskId)).thenReturn(Optional.empty());
 
         // When & Then
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -137,8 +162,8 @@ class SubTaskServiceTest {
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
         assertTrue(exception.getReason().contains("Nie ma podzadania o takim id"));
-        verify(subTaskRepository).existsById(subTaskId);
-        verify(subTaskRepository, never()).deleteById(subTaskId);
+        verify(subTaskRepository, never()).delete(any(SubTask.class));
+        verify(taskRepository, never()).adjustSubtaskCounts(anyInt(), anyInt(), anyInt());
     }
 
     @Test
@@ -185,11 +210,11 @@ class SubTaskServiceTest {
         updateData.setPosition(2);
 
         when(subTaskRepository.findById(subTaskId)).thenReturn(Optional.of(testSubTask));
-        when(subTaskRepository.save(any(SubTask.class))).thenReturn(testSubTask);
+        when(subTaskRepository.saveAndFlush(any(SubTask.class))).thenReturn(testSubTask);
         when(subTaskMapper.toDto(testSubTask)).thenReturn(testSubTaskDTO);
 
         // When
-        SubTaskDTO result = subTaskService.patchSubTask(subTaskId, updateData);
+        SubTaskDTO result = subTaskService.patchSubTask(subTaskId, updateData, null);
 
         // Then
         assertNotNull(result);
@@ -198,7 +223,7 @@ class SubTaskServiceTest {
         assertTrue(testSubTask.isCompleted());
         assertEquals(2, testSubTask.getPosition());
         verify(subTaskRepository).findById(subTaskId);
-        verify(subTaskRepository).save(testSubTask);
+        verify(subTaskRepository).saveAndFlush(testSubTask);
         verify(subTaskMapper).toDto(testSubTask);
     }
 
@@ -211,7 +236,7 @@ class SubTaskServiceTest {
 
         // When & Then
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
-                () -> subTaskService.patchSubTask(subTaskId, updateData));
+                () -> subTaskService.patchSubTask(subTaskId, updateData, null));
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
         verify(subTaskRepository).findById(subTaskId);
@@ -240,6 +265,7 @@ class SubTaskServiceTest {
         verify(taskRepository).save(testTask);
         verify(subTaskRepository).save(testSubTask);
         verify(subTaskMapper).toDto(testSubTask);
+        verify(taskRepository, never()).adjustSubtaskCounts(anyInt(), anyInt(), anyInt());
     }
 
     @Test
@@ -325,6 +351,7 @@ class SubTaskServiceTest {
         assertTrue(testSubTask.isCompleted());
         verify(subTaskRepository).findById(subTaskId);
         verify(subTaskRepository).save(testSubTask);
+        verify(taskRepository).adjustSubtaskCounts(1, 0, 1);
         verify(subTaskMapper).toDto(testSubTask);
     }
 
@@ -349,17 +376,17 @@ class SubTaskServiceTest {
         Integer subTaskId = 1;
         Integer newPosition = 5;
         when(subTaskRepository.findById(subTaskId)).thenReturn(Optional.of(testSubTask));
-        when(subTaskRepository.save(testSubTask)).thenReturn(testSubTask);
+        when(subTaskRepository.saveAndFlush(testSubTask)).thenReturn(testSubTask);
         when(subTaskMapper.toDto(testSubTask)).thenReturn(testSubTaskDTO);
 
         // When
-        SubTaskDTO result = subTaskService.updateSubTaskPosition(subTaskId, newPosition);
+        SubTaskDTO result = subTaskService.updateSubTaskPosition(subTaskId, newPosition, null);
 
         // Then
         assertNotNull(result);
         assertEquals(newPosition, testSubTask.getPosition());
         verify(subTaskRepository).findById(subTaskId);
-        verify(subTaskRepository).save(testSubTask);
+        verify(subTaskRepository).saveAndFlush(testSubTask);
         verify(subTaskMapper).toDto(testSubTask);
     }
 
@@ -372,7 +399,7 @@ class SubTaskServiceTest {
 
         // When & Then
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
-                () -> subTaskService.updateSubTaskPosition(subTaskId, newPosition));
+                () -> subTaskService.updateSubTaskPosition(subTaskId, newPosition, null));
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
         verify(subTaskRepository).findById(subTaskId);
@@ -388,7 +415,7 @@ class SubTaskServiceTest {
         // Pozostałe pola null
 
         when(subTaskRepository.findById(subTaskId)).thenReturn(Optional.of(testSubTask));
-        when(subTaskRepository.save(testSubTask)).thenReturn(testSubTask);
+        when(subTaskRepository.saveAndFlush(testSubTask)).thenReturn(testSubTask);
         when(subTaskMapper.toDto(testSubTask)).thenReturn(testSubTaskDTO);
 
         String originalDescription = testSubTask.getDescription();
@@ -396,7 +423,7 @@ class SubTaskServiceTest {
         Integer originalPosition = testSubTask.getPosition();
 
         // When
-        SubTaskDTO result = subTaskService.patchSubTask(subTaskId, partialUpdate);
+        SubTaskDTO result = subTaskService.patchSubTask(subTaskId, partialUpdate, null);
 
         // Then
         assertNotNull(result);
@@ -417,15 +444,19 @@ class SubTaskServiceTest {
         updateData.setTask(newTask);
 
         when(subTaskRepository.findById(subTaskId)).thenReturn(Optional.of(testSubTask));
-        when(subTaskRepository.save(testSubTask)).thenReturn(testSubTask);
+        when(taskRepository.findById(2)).thenReturn(Optional.of(newTask));
+        when(subTaskRepository.saveAndFlush(testSubTask)).thenReturn(testSubTask);
         when(subTaskMapper.toDto(testSubTask)).thenReturn(testSubTaskDTO);
 
         // When
-        SubTaskDTO result = subTaskService.patchSubTask(subTaskId, updateData);
+        SubTaskDTO result = subTaskService.patchSubTask(subTaskId, updateData, null);
 
         // Then
         assertNotNull(result);
         assertEquals(newTask, testSubTask.getTask());
-        verify(subTaskRepository).save(testSubTask);
+        verify(subTaskRepository).saveAndFlush(testSubTask);
+        verify(taskRepository).adjustSubtaskCounts(1, -1, 0);
+        verify(taskRepository).adjustSubtaskCounts(2, 1, 0);
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, Set.of(1, 2)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.BulkTaskOperation;
+import pl.myproject.kanbanproject2.dto.BulkTaskRequestDTO;
+import pl.myproject.kanbanproject2.dto.BulkTaskResultDTO;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+import pl.myproject.kanbanproject2.dto.TaskHistoryOrder;
+import pl.myproject.kanbanproject2.dto.TaskLabel;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskLabelsChangedEvent;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.TaskColumnHistory;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
+import pl.myproject.kanbanproject2.repository.TaskColumnHistoryRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+import pl.myproject.kanbanproject2.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBulkServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ColumnRepository columnRepository;
+
+    @Mock
+    private RowRepository rowRepository;
+
+    @Mock
+    private TaskColumnHistoryRepository taskColumnHistoryRepository;
+
+    @Mock
+    private TaskRanking taskRanking;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private WipCounters wipCounters;
+
+    @InjectMocks
+    private TaskBulkService taskBulkService;
+
+    @Test
+    void apply_ShouldAddLabelOnlyWhereMissingAndReportEveryId() {
+        // Given
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1, 2, 3)))
+                .thenReturn(List.of(rank(1, 1, "a"), rank(2, 1, "b")));
+        when(taskRepository.findTaskLabelsByTaskIdIn(Set.of(1, 2))).thenReturn(List.of(new TaskLabel(2, "bug")));
+
+        // When
+        List<BulkTaskResultDTO> results = taskBulkService.apply(request(Set.of(1, 2, 3), BulkTaskOperation.ADD_LABEL, "bug"));
+
+        // Then
+        verify(taskRepository).insertLabel(Set.of(1), "bug");
+        verify(eventPublisher).publishEvent(TaskLabelsChangedEvent.of(null, Set.of("bug")));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, 1));
+        assertEquals(List.of(
+                new BulkTaskResultDTO(1, BulkTaskResultDTO.Status.UPDATED),
+                new BulkTaskResultDTO(2, BulkTaskResultDTO.Status.UNCHANGED),
+                new BulkTaskResultDTO(3, BulkTaskResultDTO.Status.NOT_FOUND)), results);
+    }
+
+    @Test
+    void apply_ShouldThrowConflict_WhenAssignmentExceedsUserWipLimit() {
+        // Given
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1, 2))).thenReturn(List.of(rank(1, 1, "a"), rank(2, 1, "b")));
+        when(userRepository.existsById(7)).thenReturn(true);
+        when(taskRepository.findTaskAssignmentsByTaskIdIn(Set.of(1, 2))).thenReturn(List.of());
+        when(taskRepository.findIdsByIdInAndCompleted(Set.of(1, 2), false)).thenReturn(List.of(1, 2));
+        doThrow(new IllegalStateException("Przypisanie przekroczyłoby limit WIP użytkownika"))
+                .when(wipCounters).assign(List.of(7, 7));
+        BulkTaskRequestDTO request = new BulkTaskRequestDTO(Set.of(1, 2), BulkTaskOperation.ASSIGN_USER,
+                null, 7, null, null, null, null);
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> taskBulkService.apply(request));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(taskRepository, never()).insertAssignments(any(), any());
+    }
+
+    @Test
+    void apply_ShouldMoveTasksToEndOfLaneInOrderAndRecordHistory() {
+        // Given
+        Column from = column(1);
+        Column to = column(2);
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1, 2, 3)))
+                .thenReturn(List.of(rank(1, 1, "m"), rank(2, 1, "c"), rank(3, 2, "x")));
+        when(columnRepository.findWithoutTasksById(2)).thenReturn(Optional.of(to));
+        when(taskRepository.findIdsByIdInAndCompleted(Set.of(1, 2), false)).thenReturn(List.of(1));
+        when(taskRanking.keyAtEnd(2, null)).thenReturn("y");
+        when(taskColumnHistoryRepository.findMaxHistoryOrders(Set.of(1, 2))).thenReturn(List.of(new TaskHistoryOrder(1, 4)));
+        when(columnRepository.findAllById(Set.of(1))).thenReturn(List.of(from));
+        when(taskRepository.getReferenceById(anyInt())).thenAnswer(invocation -> {
+            Task task = new Task();
+            task.setId(invocation.getArgument(0));
+            return task;
+        });
+        BulkTaskRequestDTO request = new BulkTaskRequestDTO(Set.of(1, 2, 3), BulkTaskOperation.MOVE,
+                null, null, null, 2, null, null);
+
+        // When
+        List<BulkTaskResultDTO> results = taskBulkService.apply(request);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskRank>> lanes = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).batchUpdateLanes(lanes.capture());
+        assertEquals(List.of(2, 1), lanes.getValue().stream().map(TaskRank::id).toList());
+        assertEquals("y", lanes.getValue().get(0).rankKey());
+        assertTrue(lanes.getValue().get(1).rankKey().compareTo("y") > 0);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskColumnHistory>> history = ArgumentCaptor.forClass(List.class);
+        verify(taskColumnHistoryRepository).saveAll(history.capture());
+        assertEquals(List.of(0, 1, 5, 6), history.getValue().stream().map(TaskColumnHistory::getHistoryOrder).toList());
+        verify(wipCounters).move(List.of(new TaskLane(1, null)), List.of(new TaskLane(2, null)));
+        assertEquals(BulkTaskResultDTO.Status.UNCHANGED, results.get(2).status());
+    }
+
+    @Test
+    void apply_ShouldRejectCompletingTasksWithOpenParent() {
+        // Given: 2 has an open parent, 3 is already completed
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1, 2, 3)))
+                .thenReturn(List.of(rank(1, 1, "a"), rank(2, 1, "b"), rank(3, 1, "c")));
+        when(taskRepository.findIdsByIdInAndCompleted(Set.of(1, 2, 3), false)).thenReturn(List.of(1, 2));
+        when(taskRepository.findIdsWithOpenParentByIdIn(Set.of(1, 2))).thenReturn(List.of(2));
+        when(taskRepository.findAssigneeIdsByIdInAndCompleted(Set.of(1), false)).thenReturn(List.of(7));
+
+        // When
+        List<BulkTaskResultDTO> results = taskBulkService.apply(completedRequest(Set.of(1, 2, 3), true));
+
+        // Then
+        verify(taskRepository).updateCompleted(Set.of(1), true);
+        verify(wipCounters).leave(List.of(new TaskLane(1, null)));
+        verify(wipCounters).unassign(List.of(7));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, 1));
+        assertEquals(List.of(
+                new BulkTaskResultDTO(1, BulkTaskResultDTO.Status.UPDATED),
+                new BulkTaskResultDTO(2, BulkTaskResultDTO.Status.REJECTED),
+                new BulkTaskResultDTO(3, BulkTaskResultDTO.Status.UNCHANGED)), results);
+    }
+
+    @Test
+    void apply_ShouldReopenCompletedDescendantsWithTheirAncestors() {
+        // Given: 1 is reopened, its completed descendant 4 is not in the request
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1))).thenReturn(List.of(rank(1, 1, "a")));
+        when(taskRepository.findIdsByIdInAndCompleted(Set.of(1), true)).thenReturn(List.of(1));
+        when(taskRepository.findCompletedDescendantIdsByAncestorIdIn(Set.of(1))).thenReturn(List.of(4));
+        when(taskRepository.findTaskRanksByIdIn(List.of(4))).thenReturn(List.of(rank(4, 2, "b")));
+        when(taskRepository.findAssigneeIdsByIdInAndCompleted(Set.of(1, 4), true)).thenReturn(List.of(7));
+
+        // When
+        List<BulkTaskResultDTO> results = taskBulkService.apply(completedRequest(Set.of(1), false));
+
+        // Then
+        verify(taskRepository).updateCompleted(Set.of(1, 4), false);
+        verify(wipCounters).enter(argThat(lanes -> lanes.size() == 2
+                && lanes.containsAll(List.of(new TaskLane(1, null), new TaskLane(2, null)))));
+        verify(wipCounters).assign(List.of(7));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, Set.of(1, 4)));
+        assertEquals(List.of(
+                new BulkTaskResultDTO(1, BulkTaskResultDTO.Status.UPDATED),
+                new BulkTaskResultDTO(4, BulkTaskResultDTO.Status.UPDATED)), results);
+    }
+
+    @Test
+    void apply_ShouldDeleteTasksAndDetachChildrenOutsideTheSet() {
+        // Given
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1, 2))).thenReturn(List.of(rank(1, 1, "a"), rank(2, 1, "b")));
+        when(taskRepository.findTaskLabelsByTaskIdIn(Set.of(1, 2))).thenReturn(List.of(new TaskLabel(1, "bug")));
+        when(taskRepository.findTaskChildrenByParentIdIn(Set.of(1, 2)))
+                .thenReturn(List.of(new TaskChild(1, 2), new TaskChild(1, 5)));
+
+        // When
+        List<BulkTaskResultDTO> results = taskBulkService.apply(request(Set.of(1, 2), BulkTaskOperation.DELETE, null));
+
+        // Then
+        verify(taskRepository).deleteAllWithDependents(Set.of(1, 2));
+        verify(eventPublisher).publishEvent(TaskLabelsChangedEvent.of(Set.of("bug"), null));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.deleted(BoardEntityType.TASK, Set.of(1, 2)));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, 5));
+        assertTrue(results.stream().allMatch(result -> result.status() == BulkTaskResultDTO.Status.DELETED));
+    }
+
+    @Test
+    void apply_ShouldThrowBadRequest_WhenOperationArgumentIsMissing() {
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskBulkService.apply(request(Set.of(1), BulkTaskOperation.ADD_LABEL, null)));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(taskRepository);
+    }
+
+    private static BulkTaskRequestDTO request(Set<Integer> taskIds, BulkTaskOperation operation, String label) {
+        return new BulkTaskRequestDTO(taskIds, operation, label, null, null, null, null, null);
+    }
+
+    private static BulkTaskRequestDTO completedRequest(Set<Integer> taskIds, boolean completed) {
+        return new BulkTaskRequestDTO(taskIds, BulkTaskOperation.SET_COMPLETED, null, null, completed, null, null, null);
+    }
+
+    private static TaskRank rank(Integer id, Integer columnId, String rankKey) {
+        return new TaskRank(id, columnId, null, id, rankKey);
+    }
+
+    private static Column column(Integer id) {
+        Column column = new Column();
+        column.setId(id);
+        column.setName("Column " + id);
+        return column;
+    }
+}
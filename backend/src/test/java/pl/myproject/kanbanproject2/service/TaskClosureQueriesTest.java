@@ -0,0 +1,161 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pl.myproject.kanbanproject2.dto.TaskChild;
+import pl.myproject.kanbanproject2.dto.TaskTreeRow;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.repository.TaskClosureRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class TaskClosureQueriesTest {
+
+    @Autowired
+    private TaskClosureRepository taskClosureRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void link_ShouldPairMovedSubtreeWithAllNewAncestors() {
+        // Given: root -> a, b -> c
+        Task root = task(null);
+        Task a = task(root);
+        Task b = task(null);
+        Task c = task(b);
+        entityManager.flush();
+        TaskHierarchy taskHierarchy = new TaskHierarchy(taskClosureRepository);
+        taskHierarchy.addChildren(List.of(new TaskChild(root.getId(), a.getId()), new TaskChild(b.getId(), c.getId())));
+
+        // When: b (with c) goes under a
+        taskHierarchy.changeParent(b.getId(), null, a.getId());
+
+        // Then
+        assertEquals(List.of(a.getId(), root.getId()), taskClosureRepository.findAncestorIds(b.getId()));
+        assertEquals(List.of(b.getId(), a.getId(), root.getId()), taskClosureRepository.findAncestorIds(c.getId()));
+        assertEquals(List.of(a.getId(), b.getId(), c.getId()), taskClosureRepository.findDescendantIds(root.getId()));
+        assertTrue(taskHierarchy.wouldCreateCycle(root.getId(), c.getId()));
+        assertFalse(taskHierarchy.wouldCreateCycle(c.getId(), root.getId()));
+    }
+
+    @Test
+    void unlink_ShouldKeepPairsInsideDetachedSubtree() {
+        // Given: root -> a -> b -> c
+        Task root = task(null);
+        Task a = task(root);
+        Task b = task(a);
+        Task c = task(b);
+        entityManager.flush();
+        taskClosureRepository.rebuildIfOutOfSync();
+
+        // When
+        new TaskHierarchy(taskClosureRepository).changeParent(b.getId(), a.getId(), null);
+
+        // Then
+        assertEquals(List.of(a.getId()), taskClosureRepository.findDescendantIds(root.getId()));
+        assertEquals(List.of(b.getId()), taskClosureRepository.findAncestorIds(c.getId()));
+        assertTrue(taskClosureRepository.findAncestorIds(b.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteAllWithDependents_ShouldDropPairsThroughDeletedTasks() {
+        // Given: root -> a -> b -> c
+        Task root = task(null);
+        Task a = task(root);
+        Task b = task(a);
+        Task c = task(b);
+        entityManager.flush();
+        taskClosureRepository.rebuildIfOutOfSync();
+
+        // When
+        taskRepository.deleteAllWithDependents(Set.of(a.getId()));
+
+        // Then: b keeps its subtree and becomes a root
+        assertTrue(taskClosureRepository.findDescendantIds(root.getId()).isEmpty());
+        assertTrue(taskClosureRepository.findAncestorIds(b.getId()).isEmpty());
+        assertEquals(List.of(b.getId()), taskClosureRepository.findAncestorIds(c.getId()));
+        assertFalse(taskClosureRepository.rebuildIfOutOfSync());
+    }
+
+    @Test
+    void findCompletedDescendantIds_ShouldReturnWholeSubtreeLevelByLevel() {
+        // Given: root -> a -> b, root -> c (open), other -> d
+        Task root = task(null);
+        Task a = completed(task(root));
+        Task b = completed(task(a));
+        task(root);
+        Task other = task(null);
+        completed(task(other));
+        entityManager.flush();
+        taskClosureRepository.rebuildIfOutOfSync();
+
+        // When & Then
+        assertEquals(List.of(a.getId(), b.getId()), taskRepository.findCompletedDescendantIds(root.getId()));
+    }
+
+    @Test
+    void findTaskTree_ShouldCutOffAtDepthButRollUpWholeSubtree() {
+        // Given: root -> a -> b (completed, 2 subtasks), root has 1 completed subtask
+        Task root = task(null);
+        Task a = task(root);
+        Task b = completed(task(a));
+        entityManager.flush();
+        taskRepository.adjustSubtaskCounts(root.getId(), 1, 1);
+        taskRepository.adjustSubtaskCounts(b.getId(), 2, 1);
+        taskClosureRepository.rebuildIfOutOfSync();
+
+        // When
+        List<TaskTreeRow> rows = taskRepository.findTaskTree(root.getId(), 1);
+
+        // Then: b is below the limit but still counted in a and root
+        assertEquals(List.of(
+                new TaskTreeRow(root.getId(), "Task", false, null, null, null, 0, 2, 1, 3, 2),
+                new TaskTreeRow(a.getId(), "Task", false, null, null, root.getId(), 1, 1, 1, 2, 1)), rows);
+        assertTrue(taskRepository.findTaskTree(-1, 1).isEmpty());
+    }
+
+    @Test
+    void rebuildIfOutOfSync_ShouldRebuildAllLevelsOnlyWhenParentLinksDiffer() {
+        // Given
+        Task root = task(null);
+        Task a = task(root);
+        Task b = task(a);
+        entityManager.flush();
+
+        // When & Then
+        assertTrue(taskClosureRepository.rebuildIfOutOfSync());
+        assertFalse(taskClosureRepository.rebuildIfOutOfSync());
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from task_closure", Integer.class));
+        assertEquals(List.of(a.getId(), root.getId()), taskClosureRepository.findAncestorIds(b.getId()));
+    }
+
+    private Task completed(Task task) {
+        task.setCompleted(true);
+        return task;
+    }
+
+    private Task task(Task parent) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setParentTask(parent);
+        entityManager.persist(task);
+        return task;
+    }
+}
@@ -0,0 +1,134 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.myproject.kanbanproject2.dto.TaskDependencyDTO;
+import pl.myproject.kanbanproject2.dto.TaskDependencyGraphDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskDependencyChangedEvent;
+import pl.myproject.kanbanproject2.repository.TaskDependencyRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDependencyGraphTest {
+
+    @Mock
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskDependencyGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new TaskDependencyGraph(taskDependencyRepository, taskRepository);
+    }
+
+    @Test
+    void snapshot_ShouldReportBlockedTasksAndLongestOpenChain() {
+        // Given: 1 -> 2 -> 3, 4 -> 3
+        givenDependencies(dependency(1, 2), dependency(2, 3), dependency(4, 3));
+        when(taskRepository.findIdsByIdInAndCompleted(anyCollection(), eq(true))).thenReturn(List.of());
+
+        // When
+        TaskDependencyGraphDTO snapshot = graph.snapshot();
+
+        // Then
+        assertEquals(Set.of(2, 3), snapshot.blockedTaskIds());
+        assertEquals(List.of(1, 2, 3), snapshot.criticalPath());
+        assertEquals(3, snapshot.dependencies().size());
+        assertTrue(graph.wouldCreateCycle(3, 1));
+        assertTrue(graph.wouldCreateCycle(2, 2));
+        assertFalse(graph.wouldCreateCycle(1, 3));
+        assertFalse(graph.wouldCreateCycle(4, 1));
+    }
+
+    @Test
+    void onBoardChanged_ShouldUnblockTasksWhenBlockerCompletes() {
+        // Given
+        givenDependencies(dependency(1, 2), dependency(2, 3), dependency(4, 3));
+        when(taskRepository.findIdsByIdInAndCompleted(anyCollection(), eq(true))).thenReturn(List.of());
+        graph.snapshot();
+        when(taskRepository.findIdsByIdInAndCompleted(List.of(1), true)).thenReturn(List.of(1));
+
+        // When: 5 has no dependencies and is not read at all
+        graph.onBoardChanged(BoardChangedEvent.upserted(BoardEntityType.TASK, 1, 5));
+
+        // Then
+        assertFalse(graph.isBlocked(2));
+        assertTrue(graph.isBlocked(3));
+        assertEquals(List.of(2, 3), graph.getCriticalPath());
+        verify(taskRepository, never()).findIdsByIdInAndCompleted(argThat(ids -> ids.contains(5)), anyBoolean());
+    }
+
+    @Test
+    void onDependencyChanged_ShouldReorderWhenEdgeGoesAgainstTopologicalOrder() {
+        // Given: 1 -> 2, then 3 (loaded last) starts blocking 1
+        givenDependencies(dependency(1, 2));
+        when(taskRepository.findIdsByIdInAndCompleted(anyCollection(), eq(true))).thenReturn(List.of());
+        graph.snapshot();
+
+        // When
+        graph.onDependencyChanged(TaskDependencyChangedEvent.added(3, 1));
+
+        // Then
+        assertTrue(graph.wouldCreateCycle(2, 3));
+        assertFalse(graph.wouldCreateCycle(3, 2));
+        assertEquals(List.of(3, 1, 2), graph.getCriticalPath());
+        assertEquals(Set.of(1, 2), graph.snapshot().blockedTaskIds());
+    }
+
+    @Test
+    void onDependencyChanged_ShouldIgnoreEdgeClosingCycle() {
+        // Given
+        givenDependencies(dependency(1, 2), dependency(2, 3));
+        when(taskRepository.findIdsByIdInAndCompleted(anyCollection(), eq(true))).thenReturn(List.of());
+        graph.snapshot();
+
+        // When
+        graph.onDependencyChanged(TaskDependencyChangedEvent.added(3, 1));
+
+        // Then
+        assertFalse(graph.isBlocked(1));
+        assertEquals(List.of(dependency(1, 2), dependency(2, 3)), graph.snapshot().dependencies());
+    }
+
+    @Test
+    void removingEdgesAndTasks_ShouldDropTasksLeftWithoutDependencies() {
+        // Given: 1 -> 2 -> 3
+        givenDependencies(dependency(1, 2), dependency(2, 3));
+        when(taskRepository.findIdsByIdInAndCompleted(anyCollection(), eq(true))).thenReturn(List.of());
+        graph.snapshot();
+
+        // When
+        graph.onDependencyChanged(TaskDependencyChangedEvent.removed(1, 2));
+        graph.onBoardChanged(BoardChangedEvent.deleted(BoardEntityType.TASK, 3));
+
+        // Then
+        TaskDependencyGraphDTO snapshot = graph.snapshot();
+        assertTrue(snapshot.dependencies().isEmpty());
+        assertTrue(snapshot.blockedTaskIds().isEmpty());
+        assertTrue(snapshot.criticalPath().isEmpty());
+        verify(taskDependencyRepository, times(1)).findAllDependencies();
+    }
+
+    private void givenDependencies(TaskDependencyDTO... dependencies) {
+        when(taskDependencyRepository.findAllDependencies()).thenReturn(List.of(dependencies));
+    }
+
+    private static TaskDependencyDTO dependency(Integer blockerId, Integer blockedId) {
+        return new TaskDependencyDTO(blockerId, blockedId);
+    }
+}
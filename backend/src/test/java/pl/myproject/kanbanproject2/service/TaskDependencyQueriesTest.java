@@ -0,0 +1,56 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pl.myproject.kanbanproject2.dto.TaskDependencyDTO;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.TaskDependency;
+import pl.myproject.kanbanproject2.repository.TaskDependencyRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class TaskDependencyQueriesTest {
+
+    @Autowired
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findAllDependencies_ShouldSkipEdgesToDeletedTasks() {
+        // Given: a -> b, a -> c, a c zostaje usunięte z pominięciem task_dependency (brak klucza obcego)
+        Task a = task("A");
+        Task b = task("B");
+        Task c = task("C");
+        entityManager.persist(new TaskDependency(a.getId(), b.getId()));
+        entityManager.persist(new TaskDependency(a.getId(), c.getId()));
+        entityManager.flush();
+        jdbcTemplate.update("delete from task where id = ?", c.getId());
+        entityManager.clear();
+
+        // When
+        List<TaskDependencyDTO> dependencies = taskDependencyRepository.findAllDependencies();
+
+        // Then
+        assertEquals(List.of(new TaskDependencyDTO(a.getId(), b.getId())), dependencies);
+    }
+
+    private Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        entityManager.persist(task);
+        return task;
+    }
+}
@@ -0,0 +1,102 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.TaskDependencyDTO;
+import pl.myproject.kanbanproject2.event.TaskDependencyChangedEvent;
+import pl.myproject.kanbanproject2.model.TaskDependency;
+import pl.myproject.kanbanproject2.repository.TaskDependencyRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDependencyServiceTest {
+
+    @Mock
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskDependencyGraph taskDependencyGraph;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaskDependencyService taskDependencyService;
+
+    @Test
+    void addBlocker_ShouldSaveEdgeAndPublishIt() {
+        // Given
+        when(taskRepository.existsById(anyInt())).thenReturn(true);
+
+        // When
+        TaskDependencyDTO result = taskDependencyService.addBlocker(2, 1);
+
+        // Then
+        assertEquals(new TaskDependencyDTO(1, 2), result);
+        verify(taskDependencyRepository).save(argThat(dependency ->
+                dependency.getBlockerId() == 1 && dependency.getBlockedId() == 2));
+        verify(eventPublisher).publishEvent(TaskDependencyChangedEvent.added(1, 2));
+    }
+
+    @Test
+    void addBlocker_ShouldThrowBadRequest_WhenEdgeClosesCycle() {
+        // Given
+        when(taskRepository.existsById(anyInt())).thenReturn(true);
+        when(taskDependencyGraph.wouldCreateCycle(1, 2)).thenReturn(true);
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskDependencyService.addBlocker(2, 1));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(taskDependencyRepository, never()).save(any(TaskDependency.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void addBlocker_ShouldThrowConflict_WhenEdgeExists() {
+        // Given
+        when(taskRepository.existsById(anyInt())).thenReturn(true);
+        when(taskDependencyRepository.existsByBlockerIdAndBlockedId(1, 2)).thenReturn(true);
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskDependencyService.addBlocker(2, 1));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    @Test
+    void addBlocker_ShouldThrowNotFound_WhenTaskDoesNotExist() {
+        // Given
+        when(taskRepository.existsById(2)).thenReturn(false);
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskDependencyService.addBlocker(2, 1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    void removeBlocker_ShouldThrowNotFound_WhenEdgeDoesNotExist() {
+        // Given
+        when(taskDependencyRepository.deleteDependency(1, 2)).thenReturn(0);
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskDependencyService.removeBlocker(2, 1));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,134 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.mapper.TaskMapper;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.User;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class TaskFetchPlanStatementCountTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final TaskMapper taskMapper = new TaskMapper();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listPlan_ShouldUseConstantNumberOfStatements_WhenTaskCountGrows() {
+        seedTasks(5);
+        long fewTasks = countStatements(() -> mapAll(5));
+
+        seedTasks(35);
+        long manyTasks = countStatements(() -> mapAll(40));
+
+        assertEquals(fewTasks, manyTasks);
+    }
+
+    @Test
+    void detailPlan_ShouldLoadTaskWithAssociationsInOneStatement() {
+        List<Task> tasks = seedTasks(6);
+        Integer parentId = tasks.get(0).getId();
+
+        long statements = countStatements(() -> {
+            TaskDTO dto = taskMapper.apply(taskRepository.findById(parentId).orElseThrow());
+            assertFalse(dto.userIds().isEmpty());
+            assertFalse(dto.labels().isEmpty());
+            assertEquals(5, dto.childTaskIds().size());
+        });
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void hierarchyPlan_ShouldLoadParentAndChildrenInOneStatement() {
+        List<Task> tasks = seedTasks(4);
+        Integer childId = tasks.get(1).getId();
+
+        long statements = countStatements(() -> {
+            Task task = taskRepository.findWithHierarchyById(childId).orElseThrow();
+            assertEquals(tasks.get(0).getId(), task.getParentTask().getId());
+            assertTrue(task.getChildTasks().isEmpty());
+        });
+
+        assertEquals(1, statements);
+    }
+
+    private void mapAll(int expectedTasks) {
+        List<TaskDTO> dtos = taskRepository.findAll().stream().map(taskMapper).toList();
+        assertEquals(expectedTasks, dtos.size());
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Task> seedTasks(int taskCount) {
+        Column column = new Column();
+        column.setName("To Do");
+        column.setPosition(1);
+        entityManager.persist(column);
+
+        Row row = new Row();
+        row.setName("Row");
+        row.setPosition(1);
+        entityManager.persist(row);
+
+        User user = new User("User", "user" + System.nanoTime() + "@example.com", "password");
+        entityManager.persist(user);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setPosition(i);
+            task.setColumn(column);
+            task.setRow(row);
+            task.setLabels(new HashSet<>(Set.of("label" + (i % 3), "common")));
+            task.getUsers().add(user);
+            if (i > 0) {
+                task.setParentTask(tasks.get(0));
+                tasks.get(0).getChildTasks().add(task);
+            }
+            entityManager.persist(task);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,113 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskPositionDTO;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class TaskRankQueriesTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void laneQueries_ShouldSeparateLanesWithAndWithoutRow() {
+        // Given
+        Column column = persist(new Column());
+        Row row = new Row();
+        row.setName("Row");
+        entityManager.persist(row);
+        Task inRow = task(column, row, "m", 1);
+        Task withoutRow = task(column, null, "c", 2);
+        Task unranked = task(column, null, null, 3);
+        entityManager.flush();
+
+        // When & Then
+        assertEquals("m", taskRepository.findLastRankKey(column.getId(), row.getId()));
+        assertEquals("c", taskRepository.findLastRankKey(column.getId(), null));
+        assertEquals(List.of(withoutRow.getId(), unranked.getId()),
+                taskRepository.findLaneRanks(column.getId(), null).stream().map(TaskRank::id).toList());
+        assertEquals(List.of(new TaskLane(column.getId(), null)), taskRepository.findLanesToRebalance(TaskRanking.MAX_KEY_LENGTH));
+        assertEquals(inRow.getId(), taskRepository.findLaneRanks(column.getId(), row.getId()).get(0).id());
+    }
+
+    @Test
+    void rebalanceLanes_ShouldGiveEveryTaskAKeyInPositionOrder() {
+        // Given
+        Column column = persist(new Column());
+        Task second = task(column, null, null, 2);
+        Task first = task(column, null, null, 1);
+        entityManager.flush();
+        TaskRanking taskRanking = new TaskRanking(taskRepository, mock(ApplicationEventPublisher.class));
+
+        // When
+        taskRanking.rebalanceLanes();
+        entityManager.clear();
+
+        // Then
+        List<TaskRank> ranks = taskRepository.findLaneRanks(column.getId(), null);
+        assertEquals(List.of(first.getId(), second.getId()), ranks.stream().map(TaskRank::id).toList());
+        assertTrue(ranks.get(0).rankKey().compareTo(ranks.get(1).rankKey()) < 0);
+        assertTrue(taskRepository.findLanesToRebalance(TaskRanking.MAX_KEY_LENGTH).isEmpty());
+    }
+
+    @Test
+    void batchUpdatePositions_ShouldMoveTasksAndReRankTargetLane() {
+        // Given
+        Column todo = persist(new Column());
+        Column done = persist(new Column());
+        Task moved = task(todo, null, "a", 1);
+        Task staying = task(done, null, "b", 2);
+        entityManager.flush();
+        TaskRanking taskRanking = new TaskRanking(taskRepository, mock(ApplicationEventPublisher.class));
+
+        // When
+        taskRepository.batchUpdatePositions(List.of(
+                new TaskPositionDTO(moved.getId(), done.getId(), null, 1),
+                new TaskPositionDTO(staying.getId(), done.getId(), null, 2)));
+        taskRanking.rankByPosition(new TaskLane(done.getId(), null), Set.of(moved.getId(), staying.getId()));
+        entityManager.clear();
+
+        // Then
+        List<TaskRank> ranks = taskRepository.findLaneRanks(done.getId(), null);
+        assertEquals(List.of(moved.getId(), staying.getId()), ranks.stream().map(TaskRank::id).toList());
+        assertTrue(taskRepository.findLaneRanks(todo.getId(), null).isEmpty());
+    }
+
+    private Column persist(Column column) {
+        column.setName("Column");
+        entityManager.persist(column);
+        return column;
+    }
+
+    private Task task(Column column, Row row, String rankKey, int position) {
+        Task task = new Task();
+        task.setTitle("Task " + position);
+        task.setColumn(column);
+        task.setRow(row);
+        task.setRankKey(rankKey);
+        task.setPosition(position);
+        entityManager.persist(task);
+        return task;
+    }
+}
@@ -0,0 +1,167 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskRankingTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaskRanking taskRanking;
+
+    @Test
+    void keyAtEnd_ShouldFollowLastKeyOfLane() {
+        // Given
+        when(taskRepository.findLastRankKey(1, 2)).thenReturn("m");
+
+        // When
+        String key = taskRanking.keyAtEnd(1, 2);
+
+        // Then
+        assertTrue(key.compareTo("m") > 0);
+    }
+
+    @Test
+    void keyBetween_ShouldReturnKeyBetweenNeighbours_WithoutWritingAnything() {
+        // Given
+        when(taskRepository.findTaskRanksByIdIn(Set.of(2, 3)))
+                .thenReturn(List.of(new TaskRank(2, 1, null, null, "a"), new TaskRank(3, 1, null, null, "c")));
+
+        // When
+        String key = taskRanking.keyBetween(1, 1, null, 2, 3);
+
+        // Then
+        assertTrue("a".compareTo(key) < 0 && key.compareTo("c") < 0);
+        verify(taskRepository, never()).batchUpdateRankKeys(anyMap());
+    }
+
+    @Test
+    void keyBetween_ShouldPlaceTaskAtEnd_WhenNoNeighboursGiven() {
+        // Given
+        when(taskRepository.findLastRankKey(1, null)).thenReturn("x");
+
+        // When
+        String key = taskRanking.keyBetween(1, 1, null, null, null);
+
+        // Then
+        assertTrue(key.compareTo("x") > 0);
+        verify(taskRepository, never()).findTaskRanksByIdIn(any());
+    }
+
+    @Test
+    void keyBetween_ShouldRejectNeighbourFromAnotherLane() {
+        // Given
+        when(taskRepository.findTaskRanksByIdIn(Set.of(2))).thenReturn(List.of(new TaskRank(2, 5, null, null, "a")));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> taskRanking.keyBetween(1, 1, null, 2, null));
+    }
+
+    @Test
+    void keyBetween_ShouldReportConflict_WhenNeighboursAreOutOfOrder() {
+        // Given
+        when(taskRepository.findTaskRanksByIdIn(Set.of(2, 3)))
+                .thenReturn(List.of(new TaskRank(2, 1, 1, null, "c"), new TaskRank(3, 1, 1, null, "a")));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> taskRanking.keyBetween(1, 1, 1, 2, 3));
+    }
+
+    @Test
+    void rebalance_ShouldRewriteOnlyKeysThatChange() {
+        // Given
+        List<String> spaced = RankKey.evenlySpaced(3);
+        when(taskRepository.findLaneRanks(1, null)).thenReturn(List.of(
+                new TaskRank(10, 1, null, null, spaced.get(0)),
+                new TaskRank(11, 1, null, null, "zzzzzzzzzzzzzz"),
+                new TaskRank(12, 1, null, null, null)));
+
+        // When
+        taskRanking.rebalance(new TaskLane(1, null));
+
+        // Then
+        verify(taskRepository).batchUpdateRankKeys(Map.of(11, spaced.get(1), 12, spaced.get(2)));
+        verify(eventPublisher).publishEvent(any(BoardChangedEvent.class));
+    }
+
+    @Test
+    void rankByPosition_ShouldKeyOnlySubmittedTasksBetweenTheirNeighbours() {
+        // Given
+        when(taskRepository.findLaneRanks(1, 2)).thenReturn(List.of(
+                new TaskRank(10, 1, 2, 1, "a"),
+                new TaskRank(11, 1, 2, 2, "x"),
+                new TaskRank(12, 1, 2, 3, "c"),
+                new TaskRank(13, 1, 2, 4, "b")));
+
+        // When
+        taskRanking.rankByPosition(new TaskLane(1, 2), Set.of(11, 13));
+
+        // Then
+        String between = RankKey.between("a", "c");
+        verify(taskRepository).batchUpdateRankKeys(Map.of(11, between, 13, RankKey.between("c", null)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void rankByPosition_ShouldSpreadRunOfSubmittedTasksBetweenNeighbours() {
+        // Given
+        when(taskRepository.findLaneRanks(1, null)).thenReturn(List.of(
+                new TaskRank(10, 1, null, 1, "a"),
+                new TaskRank(11, 1, null, 2, null),
+                new TaskRank(12, 1, null, 3, null),
+                new TaskRank(13, 1, null, 4, null),
+                new TaskRank(14, 1, null, 5, "b")));
+
+        // When
+        taskRanking.rankByPosition(new TaskLane(1, null), Set.of(11, 12, 13));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Integer, String>> keys = ArgumentCaptor.forClass(Map.class);
+        verify(taskRepository).batchUpdateRankKeys(keys.capture());
+        List<String> ordered = List.of("a", keys.getValue().get(11), keys.getValue().get(12), keys.getValue().get(13), "b");
+        assertEquals(ordered.stream().sorted().toList(), ordered);
+        assertEquals(3, keys.getValue().size());
+    }
+
+    @Test
+    void rankByPosition_ShouldReKeyWholeLane_WhenUntouchedTasksAreOutOfOrder() {
+        // Given
+        List<String> spaced = RankKey.evenlySpaced(3);
+        when(taskRepository.findLaneRanks(1, 2)).thenReturn(List.of(
+                new TaskRank(10, 1, 2, 1, "c"),
+                new TaskRank(11, 1, 2, 2, "a"),
+                new TaskRank(12, 1, 2, 3, null)));
+
+        // When
+        taskRanking.rankByPosition(new TaskLane(1, 2), Set.of(12));
+
+        // Then
+        verify(taskRepository).batchUpdateRankKeys(Map.of(10, spaced.get(0), 11, spaced.get(1), 12, spaced.get(2)));
+        verify(eventPublisher).publishEvent(any(BoardChangedEvent.class));
+    }
+}
@@ -4,20 +4,41 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import pl.myproject.kanbanproject2.dto.BoardChangesDTO;
+import pl.myproject.kanbanproject2.dto.MoveTaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskCursor;
+import pl.myproject.kanbanproject2.dto.TaskCompletionDTO;
 import pl.myproject.kanbanproject2.dto.TaskDTO;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.dto.TaskMovedDTO;
+import pl.myproject.kanbanproject2.dto.TaskPositionDTO;
+import pl.myproject.kanbanproject2.dto.TaskRank;
+import pl.myproject.kanbanproject2.dto.TaskTreeDTO;
+import pl.myproject.kanbanproject2.dto.TaskTreeRow;
 import pl.myproject.kanbanproject2.dto.TaskColumnHistoryDTO;
+import pl.myproject.kanbanproject2.dto.TaskFilter;
+import pl.myproject.kanbanproject2.dto.TaskHistoryOrder;
+import pl.myproject.kanbanproject2.dto.TaskPageDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.TaskLabelsChangedEvent;
 import pl.myproject.kanbanproject2.mapper.TaskMapper;
 import pl.myproject.kanbanproject2.mapper.TaskColumnHistoryMapper;
 import pl.myproject.kanbanproject2.model.Column;
 import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.model.SubTask;
 import pl.myproject.kanbanproject2.model.Task;
 import pl.myproject.kanbanproject2.model.TaskColumnHistory;
 import pl.myproject.kanbanproject2.model.User;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
 import pl.myproject.kanbanproject2.repository.TaskColumnHistoryRepository;
 import pl.myproject.kanbanproject2.repository.TaskRepository;
 import pl.myproject.kanbanproject2.repository.UserRepository;
@@ -41,15 +62,45 @@ class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
-    @Mock
-    private UserService userService;
-
     @Mock
     private TaskColumnHistoryRepository taskColumnHistoryRepository;
 
     @Mock
     private TaskColumnHistoryMapper historyMapper;
 
+    @Mock
+    private BoardReadModel boardReadModel;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityVersions entityVersions;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private LabelCatalogue labelCatalogue;
+
+    @Mock
+    private TaskRanking taskRanking;
+
+    @Mock
+    private ColumnRepository columnRepository;
+
+    @Mock
+    private RowRepository rowRepository;
+
+    @Mock
+    private TaskBulkService taskBulkService;
+
+    @Mock
+    private WipCounters wipCounters;
+
+    @Mock
+    private TaskHierarchy taskHierarchy;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -130,6 +181,24 @@ class TaskServiceTest {
         verify(taskRepository).save(task);
     }
 
+    @Test
+    void addTask_ShouldPlaceTaskAtEndOfItsLane() {
+        // Given
+        task.setColumn(column);
+        task.setRow(row);
+        task.setRankKey("client-supplied");
+        when(columnRepository.findAllById(Set.of(1))).thenReturn(List.of(column));
+        when(rowRepository.findAllById(Set.of(row.getId()))).thenReturn(List.of(row));
+        when(taskRanking.keyAtEnd(1, row.getId())).thenReturn("x");
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        // When
+        Task result = taskService.addTask(task);
+
+        // Then
+        assertEquals("x", result.getRankKey());
+    }
+
     @Test
     void addTask_ShouldInitializeLabelsWhenNull() {
         // Given
@@ -149,8 +218,8 @@ class TaskServiceTest {
     void addTask_ShouldSaveTaskColumnHistoryWhenColumnExists() {
         // Given
         task.setColumn(column);
+        when(columnRepository.findAllById(Set.of(1))).thenReturn(List.of(column));
         when(taskRepository.save(any(Task.class))).thenReturn(task);
-        when(taskColumnHistoryRepository.findByTaskOrderByChangedAtDesc(task)).thenReturn(new ArrayList<>());
 
         // When
         taskService.addTask(task);
@@ -160,11 +229,68 @@ class TaskServiceTest {
     }
 
     @Test
-    void getAllTasks_ShouldReturnSortedTaskDTOs() {
+    void addTasks_ShouldChainRankKeysWithinLaneAndLinkSubTasks() {
         // Given
-        List<Task> tasks = Arrays.asList(task);
-        when(taskRepository.findAll()).thenReturn(tasks);
-        when(taskMapper.apply(task)).thenReturn(taskDTO);
+        Column laneColumn = new Column();
+        laneColumn.setId(1);
+        Task second = new Task();
+        second.setColumn(laneColumn);
+        second.setPosition(null);
+        SubTask subTask = new SubTask();
+        second.setSubTasks(new ArrayList<>(List.of(subTask)));
+        task.setColumn(laneColumn);
+        task.setPosition(null);
+        List<Task> tasks = List.of(task, second);
+
+        when(columnRepository.findAllById(Set.of(1))).thenReturn(List.of(column));
+        when(rowRepository.findAllById(Set.of())).thenReturn(List.of());
+        when(taskRepository.count()).thenReturn(3L);
+        when(taskRanking.keyAtEnd(1, null)).thenReturn("i");
+        when(taskRepository.saveAll(tasks)).thenReturn(tasks);
+
+        // When
+        taskService.addTasks(tasks);
+
+        // Then
+        verify(taskRanking, times(1)).keyAtEnd(1, null);
+        assertEquals("i", task.getRankKey());
+        assertTrue(second.getRankKey().compareTo("i") > 0);
+        assertEquals(List.of(4, 5), List.of(task.getPosition(), second.getPosition()));
+        assertSame(column, second.getColumn());
+        assertSame(second, subTask.getTask());
+        assertEquals(1, subTask.getPosition());
+        assertEquals(1, second.getSubtasksTotal());
+        assertEquals(0, task.getSubtasksTotal());
+        verify(taskColumnHistoryRepository).saveAll(argThat(history -> ((List<?>) history).size() == 2));
+    }
+
+    @Test
+    void addTasks_ShouldThrowNotFound_WhenColumnDoesNotExist() {
+        // Given
+        Column missing = new Column();
+        missing.setId(9);
+        task.setColumn(missing);
+        when(columnRepository.findAllById(Set.of(9))).thenReturn(List.of());
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.addTasks(List.of(task)));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verify(taskRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void addTasks_ShouldThrowBadRequest_WhenListIsEmpty() {
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.addTasks(List.of()));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void getAllTasks_ShouldServeTaskDTOsFromReadModel() {
+        // Given
+        when(boardReadModel.getAllTasks()).thenReturn(List.of(taskDTO));
 
         // When
         List<TaskDTO> result = taskService.getAllTasks();
@@ -172,59 +298,90 @@ class TaskServiceTest {
         // Then
         assertEquals(1, result.size());
         assertEquals(taskDTO, result.get(0));
-        verify(taskRepository).findAll();
-        verify(taskMapper).apply(task);
+        verify(boardReadModel).getAllTasks();
+        verify(taskRepository, never()).findAll();
     }
 
     @Test
-    void deleteTask_ShouldDeleteTaskAndHistory() {
+    void getChangesSince_ShouldDelegateToReadModel() {
         // Given
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        when(taskColumnHistoryRepository.findByTaskOrderByChangedAtDesc(task))
-                .thenReturn(Arrays.asList(taskColumnHistory));
+        BoardChangesDTO changes = new BoardChangesDTO("epoch-5", false, List.of(taskDTO), List.of(), List.of(),
+                List.of(), Set.of(2), Set.of(), Set.of(), Set.of());
+        when(boardReadModel.getChangesSince("epoch-3")).thenReturn(changes);
 
         // When
-        taskService.deleteTask(1);
+        BoardChangesDTO result = taskService.getChangesSince("epoch-3");
 
         // Then
-        verify(taskColumnHistoryRepository).deleteAll(anyList());
-        verify(taskRepository).delete(task);
+        assertEquals(changes, result);
+        verify(taskRepository, never()).findAll();
     }
 
     @Test
-    void deleteTask_ShouldThrowExceptionWhenTaskNotFound() {
+    void getTaskPage_ShouldDecodeCursorAndUseDefaultLimit() {
         // Given
-        when(taskRepository.findById(1)).thenReturn(Optional.empty());
+        TaskFilter filter = new TaskFilter(1, null, null, null, false, null, null, null);
+        TaskCursor cursor = new TaskCursor(3, 10);
+        TaskPageDTO page = new TaskPageDTO(List.of(taskDTO), null);
+        when(boardService.getTaskPage(filter, cursor, TaskService.DEFAULT_PAGE_SIZE)).thenReturn(page);
 
-        // When & Then
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> taskService.deleteTask(1));
-        assertNotNull(exception);
+        // When
+        TaskPageDTO result = taskService.getTaskPage(filter, cursor.encode(), null);
+
+        // Then
+        assertEquals(page, result);
+        verify(taskRepository, never()).findAll();
     }
 
     @Test
-    void deleteTask_ShouldClearChildTasksParentReference() {
+    void getTaskPage_ShouldCapLimit() {
         // Given
-        Task childTask = new Task();
-        childTask.setId(2);
-        childTask.setParentTask(task);
+        TaskFilter filter = TaskFilter.none();
+        when(boardService.getTaskPage(filter, null, TaskService.MAX_PAGE_SIZE))
+                .thenReturn(new TaskPageDTO(List.of(), null));
 
-        // Use mutable HashSet instead of Set.of()
-        Set<Task> childTasks = new HashSet<>();
-        childTasks.add(childTask);
-        task.setChildTasks(childTasks);
+        // When
+        taskService.getTaskPage(filter, null, 10_000);
 
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        when(taskColumnHistoryRepository.findByTaskOrderByChangedAtDesc(task))
-                .thenReturn(new ArrayList<>());
+        // Then
+        verify(boardService).getTaskPage(filter, null, TaskService.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void getTaskPage_ShouldThrowBadRequest_WhenCursorIsInvalid() {
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.getTaskPage(TaskFilter.none(), "nie-kursor!", 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(boardService);
+    }
+
+    @Test
+    void deleteTask_ShouldDeleteWithSetBasedStatementsWithoutLoadingTask() {
+        // Given
+        when(taskRepository.existsById(1)).thenReturn(true);
 
         // When
         taskService.deleteTask(1);
 
         // Then
-        assertNull(childTask.getParentTask());
-        verify(taskRepository).save(childTask);
-        verify(taskRepository).delete(task);
+        verify(taskBulkService).deleteTasks(Set.of(1));
+        verify(taskRepository, never()).findById(anyInt());
+        verify(taskColumnHistoryRepository, never()).findByTaskOrderByChangedAtDesc(any());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void deleteTask_ShouldThrowExceptionWhenTaskNotFound() {
+        // Given
+        when(taskRepository.existsById(1)).thenReturn(false);
+
+        // When & Then
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> taskService.deleteTask(1));
+        assertNotNull(exception);
+        verifyNoInteractions(taskBulkService);
     }
 
     @Test
@@ -260,15 +417,31 @@ class TaskServiceTest {
         updateTask.setTitle("Updated Title");
 
         when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
         when(taskMapper.apply(task)).thenReturn(taskDTO);
 
         // When
-        TaskDTO result = taskService.patchTask(1, updateTask);
+        TaskDTO result = taskService.patchTask(1, updateTask, null);
 
         // Then
         assertEquals("Updated Title", task.getTitle());
-        verify(taskRepository).save(task);
+        verify(taskRepository).saveAndFlush(task);
+    }
+
+    @Test
+    void patchTask_ShouldThrowPreconditionFailed_WhenVersionDiffers() {
+        // Given
+        task.setVersion(4L);
+        Task updateTask = new Task();
+        updateTask.setTitle("Updated Title");
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.patchTask(1, updateTask, 3L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+        assertNotEquals("Updated Title", task.getTitle());
+        verify(taskRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -284,22 +457,26 @@ class TaskServiceTest {
         task.setColumn(column);
 
         when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+        when(columnRepository.findWithoutTasksById(2)).thenReturn(Optional.of(newColumn));
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
         when(taskMapper.apply(task)).thenReturn(taskDTO);
-        when(taskColumnHistoryRepository.findByTaskOrderByChangedAtDesc(task))
-                .thenReturn(new ArrayList<>());
+        when(taskColumnHistoryRepository.findMaxHistoryOrder(task)).thenReturn(Optional.of(4));
 
         // When
-        taskService.patchTask(1, updateTask);
+        taskService.patchTask(1, updateTask, null);
 
         // Then
-        verify(taskColumnHistoryRepository, times(2)).save(any(TaskColumnHistory.class));
+        ArgumentCaptor<TaskColumnHistory> captor = ArgumentCaptor.forClass(TaskColumnHistory.class);
+        verify(taskColumnHistoryRepository, times(2)).save(captor.capture());
+        verify(taskColumnHistoryRepository, times(1)).findMaxHistoryOrder(task);
+        verify(taskColumnHistoryRepository, never()).findByTaskOrderByChangedAtDesc(any());
+        assertEquals(List.of(5, 6), captor.getAllValues().stream().map(TaskColumnHistory::getHistoryOrder).toList());
+        assertEquals(List.of(column, newColumn), captor.getAllValues().stream().map(TaskColumnHistory::getColumn).toList());
     }
 
     @Test
     void assignUserToTask_ShouldAssignUserWhenWithinWipLimit() {
         // Given
-        when(userService.checkWipStatus(1)).thenReturn(true);
         when(taskRepository.findById(1)).thenReturn(Optional.of(task));
         when(userRepository.findById(1)).thenReturn(Optional.of(user));
         when(taskRepository.save(task)).thenReturn(task);
@@ -310,20 +487,42 @@ class TaskServiceTest {
 
         // Then
         assertTrue(task.getUsers().contains(user));
-        assertTrue(user.getTasks().contains(task));
-        verify(userRepository).save(user);
+        verify(wipCounters).assign(List.of(1));
+        verify(userRepository, never()).save(any());
         verify(taskRepository).save(task);
     }
 
     @Test
-    void assignUserToTask_ShouldThrowExceptionWhenExceedsWipLimit() {
+    void assignUserToTask_ShouldThrowConflictWhenExceedsWipLimit() {
         // Given
-        when(userService.checkWipStatus(1)).thenReturn(false);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        doThrow(new IllegalStateException("Przypisanie przekroczyłoby limit WIP użytkownika"))
+                .when(wipCounters).assign(List.of(1));
 
         // When & Then
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
                 () -> taskService.assignUserToTask(1, 1));
-        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertFalse(task.getUsers().contains(user));
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void assignUserToTask_ShouldNotCountCompletedTask() {
+        // Given
+        task.setCompleted(true);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(taskRepository.save(task)).thenReturn(task);
+        when(taskMapper.apply(task)).thenReturn(taskDTO);
+
+        // When
+        taskService.assignUserToTask(1, 1);
+
+        // Then
+        assertTrue(task.getUsers().contains(user));
+        verify(wipCounters, never()).assign(any());
     }
 
     @Test
@@ -342,8 +541,7 @@ class TaskServiceTest {
 
         // Then
         assertFalse(task.getUsers().contains(user));
-        assertFalse(user.getTasks().contains(task));
-        verify(userRepository).save(user);
+        verify(wipCounters).unassign(List.of(1));
         verify(taskRepository).save(task);
     }
 
@@ -351,15 +549,181 @@ class TaskServiceTest {
     void updateTaskPosition_ShouldUpdatePosition() {
         // Given
         when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
         when(taskMapper.apply(task)).thenReturn(taskDTO);
 
         // When
-        TaskDTO result = taskService.updateTaskPosition(1, 5);
+        TaskDTO result = taskService.updateTaskPosition(1, 5, null);
 
         // Then
         assertEquals(5, task.getPosition());
+        verify(taskRepository).saveAndFlush(task);
+    }
+
+    @Test
+    void moveTask_ShouldChangeColumnRankAndHistoryAndReturnDiff() {
+        // Given
+        Column done = new Column();
+        done.setId(2);
+        done.setWipLimit(3);
+        task.setColumn(column);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(columnRepository.findWithoutTasksById(2)).thenReturn(Optional.of(done));
+        when(taskRanking.keyBetween(1, 2, null, 5, null)).thenReturn("k");
+        when(taskColumnHistoryRepository.findMaxHistoryOrder(task)).thenReturn(Optional.empty());
+
+        // When
+        TaskMovedDTO result = taskService.moveTask(1, new MoveTaskDTO(2, null, 5, null));
+
+        // Then
+        assertEquals(new TaskMovedDTO(1, 1, null, 2, null, "k"), result);
+        assertEquals(done, task.getColumn());
+        verify(taskColumnHistoryRepository, times(2)).save(any(TaskColumnHistory.class));
         verify(taskRepository).save(task);
+        verify(eventPublisher).publishEvent(any(BoardChangedEvent.class));
+    }
+
+    @Test
+    void moveTask_ShouldReturnConflict_WhenTargetColumnIsAtWipLimit() {
+        // Given
+        Column done = new Column();
+        done.setId(2);
+        done.setWipLimit(2);
+        task.setColumn(column);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(columnRepository.findWithoutTasksById(2)).thenReturn(Optional.of(done));
+        doThrow(new IllegalStateException("Kolumna osiągnęła limit WIP")).when(wipCounters)
+                .move(List.of(new TaskLane(1, null)), List.of(new TaskLane(2, null)));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.moveTask(1, new MoveTaskDTO(2, null, null, null)));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals(column, task.getColumn());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskColumnHistoryRepository, never()).save(any(TaskColumnHistory.class));
+    }
+
+    @Test
+    void moveTask_ShouldSkipWipCheckAndHistory_WhenReorderingWithinColumn() {
+        // Given
+        column.setWipLimit(1);
+        task.setColumn(column);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(columnRepository.findWithoutTasksById(1)).thenReturn(Optional.of(column));
+        when(taskRanking.keyBetween(1, 1, null, null, 3)).thenReturn("a");
+
+        // When
+        TaskMovedDTO result = taskService.moveTask(1, new MoveTaskDTO(1, null, null, 3));
+
+        // Then
+        assertEquals("a", result.rankKey());
+        verify(wipCounters).move(List.of(new TaskLane(1, null)), List.of(new TaskLane(1, null)));
+        verify(taskColumnHistoryRepository, never()).save(any(TaskColumnHistory.class));
+    }
+
+    @Test
+    void reorderTasks_ShouldBatchUpdateAndReRankTargetLanes() {
+        // Given
+        Column done = new Column();
+        done.setId(2);
+        List<TaskPositionDTO> positions = List.of(
+                new TaskPositionDTO(1, 2, null, 1),
+                new TaskPositionDTO(2, 2, null, 2));
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1, 2))).thenReturn(List.of(
+                new TaskRank(1, 1, null, 5, "a"),
+                new TaskRank(2, 2, null, 1, "b")));
+        when(columnRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(column, done));
+        when(rowRepository.findAllById(Set.of())).thenReturn(List.of());
+        when(taskRepository.getReferenceById(1)).thenReturn(task);
+        when(taskColumnHistoryRepository.findMaxHistoryOrders(Set.of(1)))
+                .thenReturn(List.of(new TaskHistoryOrder(1, 4)));
+
+        // When
+        taskService.reorderTasks(positions);
+
+        // Then
+        verify(taskRepository).batchUpdatePositions(positions);
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskRanking).rankByPosition(new TaskLane(2, null), Set.of(1, 2));
+        // Tylko zadanie 1 zmieniło kolumnę: wpis dla starej i nowej kolumny w jednym zapisie
+        verify(taskColumnHistoryRepository, never()).findMaxHistoryOrder(any());
+        verify(taskColumnHistoryRepository, never()).save(any(TaskColumnHistory.class));
+        verify(taskColumnHistoryRepository).saveAll(argThat(history -> ((List<TaskColumnHistory>) history).stream()
+                .map(TaskColumnHistory::getHistoryOrder).toList().equals(List.of(5, 6))));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, Set.of(1, 2)));
+    }
+
+    @Test
+    void reorderTasks_ShouldRejectDuplicateTaskIds() {
+        // Given
+        List<TaskPositionDTO> positions = List.of(
+                new TaskPositionDTO(1, 1, null, 1),
+                new TaskPositionDTO(1, 2, null, 2));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.reorderTasks(positions));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(taskRepository, never()).batchUpdatePositions(anyList());
+    }
+
+    @Test
+    void reorderTasks_ShouldReturnNotFound_WhenColumnDoesNotExist() {
+        // Given
+        List<TaskPositionDTO> positions = List.of(new TaskPositionDTO(1, 9, null, 1));
+        when(taskRepository.findTaskRanksByIdIn(Set.of(1))).thenReturn(List.of(new TaskRank(1, 1, null, 1, "a")));
+        when(columnRepository.findAllById(Set.of(1, 9))).thenReturn(List.of(column));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.reorderTasks(positions));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verify(taskRepository, never()).batchUpdatePositions(anyList());
+    }
+
+    @Test
+    void rankTask_ShouldWriteOnlyTheMovedTaskWithKeyBetweenNeighbours() {
+        // Given
+        task.setColumn(column);
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRanking.keyBetween(1, 1, null, 2, 3)).thenReturn("i");
+        when(taskRepository.save(task)).thenReturn(task);
+        when(taskMapper.apply(task)).thenReturn(taskDTO);
+
+        // When
+        TaskDTO result = taskService.rankTask(1, 2, 3);
+
+        // Then
+        assertEquals(taskDTO, result);
+        assertEquals("i", task.getRankKey());
+        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(eventPublisher).publishEvent(any(BoardChangedEvent.class));
+    }
+
+    @Test
+    void rankTask_ShouldReturnConflict_WhenNeighboursAreStale() {
+        // Given
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRanking.keyBetween(1, null, null, 2, 3)).thenThrow(new IllegalStateException("stale"));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.rankTask(1, 2, 3));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void rankTask_ShouldReturnBadRequest_WhenNeighbourIsInAnotherLane() {
+        // Given
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRanking.keyBetween(1, null, null, 7, null)).thenThrow(new IllegalArgumentException("lane"));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.rankTask(1, 7, null));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
     }
 
     @Test
@@ -429,12 +793,7 @@ class TaskServiceTest {
     @Test
     void getAllLabels_ShouldReturnAllUniqueLabels() {
         // Given
-        Task task1 = new Task();
-        task1.setLabels(Set.of("label1", "label2"));
-        Task task2 = new Task();
-        task2.setLabels(Set.of("label2", "label3"));
-
-        when(taskRepository.findAll()).thenReturn(Arrays.asList(task1, task2));
+        when(labelCatalogue.getLabels()).thenReturn(Set.of("label1", "label2", "label3"));
 
         // When
         Set<String> result = taskService.getAllLabels();
@@ -444,6 +803,22 @@ class TaskServiceTest {
         assertTrue(result.contains("label1"));
         assertTrue(result.contains("label2"));
         assertTrue(result.contains("label3"));
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void updateTaskLabels_ShouldPublishLabelDelta() {
+        // Given
+        task.setLabels(new HashSet<>(Set.of("bug", "ui")));
+        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.save(task)).thenReturn(task);
+        when(taskMapper.apply(task)).thenReturn(taskDTO);
+
+        // When
+        taskService.updateTaskLabels(1, new HashSet<>(Set.of("ui", "backend")));
+
+        // Then
+        verify(eventPublisher).publishEvent(new TaskLabelsChangedEvent(Set.of("backend"), Set.of("bug")));
     }
 
     @Test
@@ -464,6 +839,7 @@ class TaskServiceTest {
         // Then
         assertEquals(parentTask, task.getParentTask());
         assertTrue(parentTask.getChildTasks().contains(task));
+        verify(taskHierarchy).changeParent(1, null, 2);
         verify(taskRepository).save(task);
         verify(taskRepository).save(parentTask);
     }
@@ -471,22 +847,20 @@ class TaskServiceTest {
     @Test
     void assignParentTask_ShouldThrowExceptionWhenCreatingCycle() {
         // Given
-        Task childTask = new Task();
-        childTask.setId(2);
-
-        // Use mutable HashSet
-        Set<Task> childTasks = new HashSet<>();
-        childTasks.add(task);
-        childTask.setChildTasks(childTasks);
-        task.setParentTask(childTask);
+        Task descendant = new Task();
+        descendant.setId(2);
 
         when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        when(taskRepository.findById(2)).thenReturn(Optional.of(childTask));
+        when(taskRepository.findById(2)).thenReturn(Optional.of(descendant));
+        when(taskHierarchy.wouldCreateCycle(1, 2)).thenReturn(true);
 
         // When & Then
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
                 () -> taskService.assignParentTask(1, 2));
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertNull(task.getParentTask());
+        verify(taskHierarchy, never()).changeParent(any(), any(), any());
+        verify(taskRepository, never()).save(any());
     }
 
     @Test
@@ -509,6 +883,7 @@ class TaskServiceTest {
         // Then
         assertNull(task.getParentTask());
         assertFalse(parentTask.getChildTasks().contains(task));
+        verify(taskHierarchy).changeParent(1, 2, null);
         verify(taskRepository, times(2)).save(any(Task.class));
     }
 
@@ -518,15 +893,11 @@ class TaskServiceTest {
         Task childTask = new Task();
         childTask.setId(2);
 
-        // Use mutable HashSet
-        Set<Task> childTasks = new HashSet<>();
-        childTasks.add(childTask);
-        task.setChildTasks(childTasks);
-
         TaskDTO childTaskDTO = new TaskDTO(2, "Child Task", 1, 1, 1,
                 Set.of(), Set.of(), false, "", 1, Set.of(), null, false);
 
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.existsById(1)).thenReturn(true);
+        when(taskRepository.findAllByParentTaskId(1)).thenReturn(List.of(childTask));
         when(taskMapper.apply(childTask)).thenReturn(childTaskDTO);
 
         // When
@@ -537,6 +908,18 @@ class TaskServiceTest {
         assertEquals(childTaskDTO, result.get(0));
     }
 
+    @Test
+    void getChildTasks_ShouldThrowNotFound_WhenTaskDoesNotExist() {
+        // Given
+        when(taskRepository.existsById(99)).thenReturn(false);
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.getChildTasks(99));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verify(taskRepository, never()).findAllByParentTaskId(anyInt());
+    }
+
     @Test
     void getParentTask_ShouldReturnParentTaskDTO() {
         // Given
@@ -547,7 +930,7 @@ class TaskServiceTest {
         TaskDTO parentTaskDTO = new TaskDTO(2, "Parent Task", 1, 1, 1,
                 Set.of(), Set.of(), false, "", null, Set.of(1), null, false);
 
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.findWithHierarchyById(1)).thenReturn(Optional.of(task));
         when(taskMapper.apply(parentTask)).thenReturn(parentTaskDTO);
 
         // When
@@ -560,7 +943,7 @@ class TaskServiceTest {
     @Test
     void getParentTask_ShouldThrowExceptionWhenNoParent() {
         // Given
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.findWithHierarchyById(1)).thenReturn(Optional.of(task));
 
         // When & Then
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -571,7 +954,7 @@ class TaskServiceTest {
     @Test
     void canTaskBeCompleted_ShouldReturnTrueWhenNoParent() {
         // Given
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.findWithHierarchyById(1)).thenReturn(Optional.of(task));
 
         // When
         boolean result = taskService.canTaskBeCompleted(1);
@@ -587,7 +970,7 @@ class TaskServiceTest {
         parentTask.setCompleted(false);
         task.setParentTask(parentTask);
 
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.findWithHierarchyById(1)).thenReturn(Optional.of(task));
 
         // When
         boolean result = taskService.canTaskBeCompleted(1);
@@ -603,7 +986,7 @@ class TaskServiceTest {
         parentTask.setCompleted(true);
         task.setParentTask(parentTask);
 
-        when(taskRepository.findById(1)).thenReturn(Optional.of(task));
+        when(taskRepository.findWithHierarchyById(1)).thenReturn(Optional.of(task));
 
         // When
         boolean result = taskService.canTaskBeCompleted(1);
@@ -620,11 +1003,14 @@ class TaskServiceTest {
         when(taskMapper.apply(task)).thenReturn(taskDTO);
 
         // When
-        TaskDTO result = taskService.updateTaskCompletion(1, true);
+        TaskCompletionDTO result = taskService.updateTaskCompletion(1, true);
 
         // Then
         assertTrue(task.isCompleted());
+        assertEquals(taskDTO, result.task());
+        assertTrue(result.reopenedTaskIds().isEmpty());
         verify(taskRepository).save(task);
+        verify(taskRepository, never()).findCompletedDescendantIds(anyInt());
     }
 
     @Test
@@ -645,29 +1031,82 @@ class TaskServiceTest {
     @Test
     void updateTaskCompletion_ShouldMarkChildTasksIncompleteWhenParentMarkedIncomplete() {
         // Given
-        Task childTask = new Task();
-        childTask.setId(2);
-        childTask.setCompleted(true);
-        childTask.setChildTasks(new HashSet<>());
-
-        // Use mutable HashSet
-        Set<Task> childTasks = new HashSet<>();
-        childTasks.add(childTask);
-        task.setChildTasks(childTasks);
         task.setCompleted(true);
-
         when(taskRepository.findById(1)).thenReturn(Optional.of(task));
-        // Use lenient to allow multiple saves of different objects
-        lenient().when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.findCompletedDescendantIds(1)).thenReturn(List.of(2, 3));
+        when(taskRepository.findTaskRanksByIdIn(List.of(2, 3)))
+                .thenReturn(List.of(new TaskRank(2, 5, null, 1, "a"), new TaskRank(3, 5, 7, 2, "b")));
+        when(taskRepository.findAssigneeIdsByIdInAndCompleted(List.of(2, 3), true)).thenReturn(List.of(4));
+        when(taskRepository.save(task)).thenReturn(task);
         when(taskMapper.apply(task)).thenReturn(taskDTO);
 
         // When
-        TaskDTO result = taskService.updateTaskCompletion(1, false);
+        TaskCompletionDTO result = taskService.updateTaskCompletion(1, false);
 
         // Then
         assertFalse(task.isCompleted());
-        assertFalse(childTask.isCompleted());
-        verify(taskRepository, atLeast(2)).save(any(Task.class));
+        assertEquals(List.of(2, 3), result.reopenedTaskIds());
+        verify(taskRepository).updateCompleted(List.of(2, 3), false);
+        verify(wipCounters).enter(List.of(new TaskLane(5, null), new TaskLane(5, 7)));
+        verify(wipCounters).assign(List.of(4));
+        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.TASK, Set.of(1, 2, 3)));
+    }
+
+    @Test
+    void getTaskTree_ShouldNestRowsUnderTheirParents() {
+        // Given: 1 -> 2 -> 4, 1 -> 3
+        when(taskRepository.findTaskTree(1, 2)).thenReturn(List.of(
+                new TaskTreeRow(1, "Root", false, 5, null, null, 0, 3, 1, 2, 1),
+                new TaskTreeRow(2, "A", false, 5, null, 1, 1, 1, 1, 0, 0),
+                new TaskTreeRow(3, "B", false, 5, null, 1, 1, 0, 0, 2, 1),
+                new TaskTreeRow(4, "C", true, 6, null, 2, 2, 0, 0, 0, 0)));
+
+        // When
+        TaskTreeDTO result = taskService.getTaskTree(1, 2);
+
+        // Then
+        assertEquals(3, result.descendantsTotal());
+        assertEquals(List.of(2, 3), result.children().stream().map(TaskTreeDTO::id).toList());
+        assertEquals(4, result.children().get(0).children().get(0).id());
+        assertTrue(result.children().get(1).children().isEmpty());
+    }
+
+    @Test
+    void getTaskTree_ShouldSkipRowsWhoseParentIsNotInTree() {
+        // Given: wiersz 3 wskazuje rodzica spoza drzewa, wiersz 4 jest jego dzieckiem
+        when(taskRepository.findTaskTree(1, 2)).thenReturn(List.of(
+                new TaskTreeRow(1, "Root", false, 5, null, null, 0, 3, 0, 0, 0),
+                new TaskTreeRow(2, "A", false, 5, null, 1, 1, 0, 0, 0, 0),
+                new TaskTreeRow(3, "B", false, 5, null, 9, 1, 1, 0, 0, 0),
+                new TaskTreeRow(4, "C", false, 5, null, 3, 2, 0, 0, 0, 0)));
+
+        // When
+        TaskTreeDTO result = taskService.getTaskTree(1, 2);
+
+        // Then
+        assertEquals(List.of(2), result.children().stream().map(TaskTreeDTO::id).toList());
+        assertTrue(result.children().get(0).children().isEmpty());
+    }
+
+    @Test
+    void getTaskTree_ShouldReadWholeSubtreeWhenDepthMissing() {
+        // Given
+        when(taskRepository.findTaskTree(1, Integer.MAX_VALUE)).thenReturn(List.of());
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.getTaskTree(1, null));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    void getTaskTree_ShouldThrowBadRequest_WhenDepthIsNegative() {
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.getTaskTree(1, -1));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(taskRepository, never()).findTaskTree(anyInt(), anyInt());
     }
 
     @Test
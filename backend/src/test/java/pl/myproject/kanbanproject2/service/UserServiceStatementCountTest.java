@@ -0,0 +1,69 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import pl.myproject.kanbanproject2.dto.UserSummaryDTO;
+import pl.myproject.kanbanproject2.model.File;
+import pl.myproject.kanbanproject2.model.Task;
+import pl.myproject.kanbanproject2.model.User;
+import pl.myproject.kanbanproject2.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class UserServiceStatementCountTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findAllUserSummaries_ShouldCountActiveTasksInOneStatement() {
+        User busy = persistUser("Busy", true);
+        persistUser("Idle", false);
+        for (int i = 0; i < 6; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setCompleted(i % 3 == 0);
+            task.getUsers().add(busy);
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UserSummaryDTO> summaries = userRepository.findAllUserSummaries();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, summaries.size());
+        assertEquals(4L, summaries.get(0).activeTaskCount());
+        assertNotNull(summaries.get(0).avatarVersion());
+        assertEquals(0L, summaries.get(1).activeTaskCount());
+        assertNull(summaries.get(1).avatarVersion());
+    }
+
+    private User persistUser(String name, boolean withAvatar) {
+        User user = new User(name, name.toLowerCase() + "@example.com", "password");
+        if (withAvatar) {
+            user.setAvatar(new File("avatar.png", "image/png", new byte[]{1, 2, 3}));
+        }
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -4,19 +4,25 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import pl.myproject.kanbanproject2.dto.TaskDTO;
 import pl.myproject.kanbanproject2.dto.UserDTO;
+import pl.myproject.kanbanproject2.dto.UserSummaryDTO;
+import pl.myproject.kanbanproject2.event.BoardChangedEvent;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
 import pl.myproject.kanbanproject2.mapper.UserMapper;
 import pl.myproject.kanbanproject2.model.File;
 import pl.myproject.kanbanproject2.model.Task;
 import pl.myproject.kanbanproject2.model.User;
 import pl.myproject.kanbanproject2.repository.FileRepository;
+import pl.myproject.kanbanproject2.repository.TaskRepository;
 import pl.myproject.kanbanproject2.repository.UserRepository;
 
 import java.io.IOException;
@@ -24,12 +30,14 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +55,21 @@ class UserServiceTest {
     @Mock
     private MultipartFile multipartFile;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityVersions entityVersions;
+
+    @Mock
+    private BoardReadModel boardReadModel;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskBulkService taskBulkService;
+
     @InjectMocks
     private UserService userService;
 
@@ -108,8 +131,10 @@ class UserServiceTest {
         testUser.setTasks(tasks);
 
         List<User> users = Arrays.asList(testUser);
+        Set<TaskDTO> userTasks = Set.of(testTaskDTO1);
         when(userRepository.findAll()).thenReturn(users);
-        when(userMapper.apply(testUser)).thenReturn(testUserDTO);
+        when(boardReadModel.getTasksByUser()).thenReturn(Map.of(1, userTasks));
+        when(userMapper.apply(testUser, userTasks)).thenReturn(testUserDTO);
 
         // When
         List<UserDTO> result = userService.getAllUsers();
@@ -119,7 +144,24 @@ class UserServiceTest {
         assertEquals(1, result.size());
         assertEquals(testUserDTO, result.get(0));
         verify(userRepository).findAll();
-        verify(userMapper).apply(testUser);
+        verify(userMapper).apply(testUser, userTasks);
+        verify(userMapper, never()).apply(any(User.class));
+    }
+
+    @Test
+    void getUserSummaries_ShouldUseAggregateQueryWithoutMapper() {
+        // Given
+        List<UserSummaryDTO> summaries = List.of(new UserSummaryDTO(1, "Test User", "test@example.com", 3, 2L, 5L));
+        when(userRepository.findAllUserSummaries()).thenReturn(summaries);
+
+        // When
+        List<UserSummaryDTO> result = userService.getUserSummaries();
+
+        // Then
+        assertEquals(summaries, result);
+        assertEquals("5", result.get(0).avatarVersion());
+        verify(userRepository, never()).findAll();
+        verify(userMapper, never()).apply(any(User.class));
     }
 
     @Test
@@ -127,7 +169,8 @@ class UserServiceTest {
         // Given
         List<User> users = Arrays.asList(testUser);
         when(userRepository.findAll()).thenReturn(users);
-        when(userMapper.apply(testUser)).thenReturn(testUserDTO);
+        when(boardReadModel.getTasksByUser()).thenReturn(Map.of());
+        when(userMapper.apply(testUser, null)).thenReturn(testUserDTO);
 
         // When
         List<UserDTO> result = userService.getAllUsers();
@@ -137,14 +180,16 @@ class UserServiceTest {
         assertEquals(1, result.size());
         assertEquals(testUserDTO, result.get(0));
         verify(userRepository).findAll();
-        verify(userMapper).apply(testUser);
+        verify(userMapper).apply(testUser, null);
     }
 
     @Test
     void getUserById_WithValidId_ShouldReturnUserDTO() {
         // Given
+        Set<TaskDTO> userTasks = Set.of(testTaskDTO1, testTaskDTO2);
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
-        when(userMapper.apply(testUser)).thenReturn(testUserDTO);
+        when(boardReadModel.getTasksByUser()).thenReturn(Map.of(1, userTasks));
+        when(userMapper.apply(testUser, userTasks)).thenReturn(testUserDTO);
 
         // When
         UserDTO result = userService.getUserById(1);
@@ -153,7 +198,7 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(testUserDTO, result);
         verify(userRepository).findById(1);
-        verify(userMapper).apply(testUser);
+        verify(userMapper).apply(testUser, userTasks);
     }
 
     @Test
@@ -182,12 +227,14 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(testUser, result);
         verify(userRepository).save(testUser);
+        verify(eventPublisher).publishEvent(BoardChangedEvent.upserted(BoardEntityType.USER, testUser.getId()));
     }
 
     @Test
     void deleteUser_WithValidId_ShouldDeleteUser() {
         // Given
         when(userRepository.existsById(1)).thenReturn(true);
+        when(taskRepository.findIdsByUserId(1)).thenReturn(List.of());
 
         // When
         userService.deleteUser(1);
@@ -195,6 +242,36 @@ class UserServiceTest {
         // Then
         verify(userRepository).existsById(1);
         verify(userRepository).deleteById(1);
+        verify(taskBulkService, never()).deleteTasks(anySet());
+        verify(eventPublisher).publishEvent(BoardChangedEvent.deleted(BoardEntityType.USER, 1));
+    }
+
+    @Test
+    void deleteUser_ShouldDeleteAssignedTasksThroughBulkDelete() {
+        // Given - zbiorcze usuwanie zwalnia liczniki WIP i czyści hierarchię oraz zależności
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(taskRepository.findIdsByUserId(1)).thenReturn(List.of(3, 4));
+
+        // When
+        userService.deleteUser(1);
+
+        // Then
+        InOrder inOrder = inOrder(taskBulkService, userRepository);
+        inOrder.verify(taskBulkService).deleteTasks(Set.of(3, 4));
+        inOrder.verify(userRepository).deleteById(1);
+        verify(eventPublisher, never()).publishEvent(BoardChangedEvent.reloaded());
+    }
+
+    @Test
+    void getUsersETag_ShouldCombineUserAndTaskVersions() {
+        // Given
+        when(entityVersions.eTag("users", BoardEntityType.USER, BoardEntityType.TASK)).thenReturn("\"users-x-1-2\"");
+
+        // When
+        String result = userService.getUsersETag();
+
+        // Then
+        assertEquals("\"users-x-1-2\"", result);
     }
 
     @Test
@@ -516,10 +593,7 @@ class UserServiceTest {
     void checkWipStatus_WithValidUserAndTasksBelowLimit_ShouldReturnTrue() {
         // Given
         testUser.setWipLimit(5);
-        Set<Task> tasks = new HashSet<>();
-        tasks.add(testTask1);
-        tasks.add(testTask2);
-        testUser.setTasks(tasks); // 2 tasks, limit is 5
+        testUser.setActiveTaskCount(2); // 2 active tasks, limit is 5
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
         // When
@@ -534,10 +608,7 @@ class UserServiceTest {
     void checkWipStatus_WithValidUserAndTasksAtLimit_ShouldReturnFalse() {
         // Given
         testUser.setWipLimit(2);
-        Set<Task> tasks = new HashSet<>();
-        tasks.add(testTask1);
-        tasks.add(testTask2);
-        testUser.setTasks(tasks); // 2 tasks, limit is 2
+        testUser.setActiveTaskCount(2); // 2 active tasks, limit is 2
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
         // When
@@ -552,10 +623,7 @@ class UserServiceTest {
     void checkWipStatus_WithValidUserAndTasksAboveLimit_ShouldReturnFalse() {
         // Given
         testUser.setWipLimit(1);
-        Set<Task> tasks = new HashSet<>();
-        tasks.add(testTask1);
-        tasks.add(testTask2);
-        testUser.setTasks(tasks); // 2 tasks, limit is 1
+        testUser.setActiveTaskCount(2); // 2 active tasks, limit is 1
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
         // When
@@ -570,10 +638,7 @@ class UserServiceTest {
     void checkWipStatus_WithValidUserAndNullWipLimit_ShouldReturnTrue() {
         // Given
         testUser.setWipLimit(null);
-        Set<Task> tasks = new HashSet<>();
-        tasks.add(testTask1);
-        tasks.add(testTask2);
-        testUser.setTasks(tasks); // Has tasks but no limit
+        testUser.setActiveTaskCount(2); // Has active tasks but no limit
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
         // When
@@ -588,7 +653,7 @@ class UserServiceTest {
     void checkWipStatus_WithValidUserAndNoTasks_ShouldReturnTrue() {
         // Given
         testUser.setWipLimit(5);
-        testUser.setTasks(new HashSet<>()); // 0 tasks, limit is 5
+        testUser.setActiveTaskCount(0); // 0 active tasks, limit is 5
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
         // When
@@ -603,7 +668,7 @@ class UserServiceTest {
     void checkWipStatus_WithValidUserAndZeroLimit_ShouldReturnFalse() {
         // Given
         testUser.setWipLimit(0);
-        testUser.setTasks(new HashSet<>()); // 0 tasks, limit is 0
+        testUser.setActiveTaskCount(0); // 0 active tasks, limit is 0
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
         // When
@@ -614,6 +679,21 @@ class UserServiceTest {
         verify(userRepository).findById(1);
     }
 
+    @Test
+    void checkWipStatus_ShouldUseActiveTaskCounter_InsteadOfAssignedTasks() {
+        // Given
+        testUser.setWipLimit(2);
+        testUser.setTasks(new HashSet<>(Set.of(testTask1, testTask2))); // completed ones are not counted
+        testUser.setActiveTaskCount(1);
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+
+        // When
+        boolean result = userService.checkWipStatus(1);
+
+        // Then
+        assertTrue(result);
+    }
+
     @Test
     void checkWipStatus_WithInvalidUserId_ShouldThrowResponseStatusException() {
         // Given
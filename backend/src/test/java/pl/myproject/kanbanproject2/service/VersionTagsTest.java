@@ -0,0 +1,43 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionTagsTest {
+
+    @Test
+    void parse_ShouldReadVersionWrittenByOf() {
+        // When & Then
+        assertEquals(7L, VersionTags.parse(VersionTags.of(7L)));
+        assertEquals(7L, VersionTags.parse("W/\"7\""));
+        assertEquals("\"0\"", VersionTags.of(null));
+    }
+
+    @Test
+    void parse_ShouldTreatMissingHeaderAndWildcardAsUnconditional() {
+        // When & Then
+        assertNull(VersionTags.parse(null));
+        assertNull(VersionTags.parse(" * "));
+    }
+
+    @Test
+    void parse_ShouldRejectForeignTagWithPreconditionFailed() {
+        // When & Then
+        ResponseStatusException foreign = assertThrows(ResponseStatusException.class, () -> VersionTags.parse("\"tasks-abc-3\""));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, foreign.getStatusCode());
+        ResponseStatusException malformed = assertThrows(ResponseStatusException.class, () -> VersionTags.parse("7"));
+        assertEquals(HttpStatus.BAD_REQUEST, malformed.getStatusCode());
+    }
+
+    @Test
+    void check_ShouldFailOnlyWhenExpectedVersionDiffers() {
+        // When & Then
+        assertDoesNotThrow(() -> VersionTags.check(null, 3L));
+        assertDoesNotThrow(() -> VersionTags.check(0L, null));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> VersionTags.check(2L, 3L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+    }
+}
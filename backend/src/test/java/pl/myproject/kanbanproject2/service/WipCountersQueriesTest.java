@@ -0,0 +1,97 @@
+package pl.myproject.kanbanproject2.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.model.Column;
+import pl.myproject.kanbanproject2.model.Row;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
+import pl.myproject.kanbanproject2.repository.UserRepository;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class WipCountersQueriesTest {
+
+    @Autowired
+    private ColumnRepository columnRepository;
+
+    @Autowired
+    private RowRepository rowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private WipCounters wipCounters;
+
+    @BeforeEach
+    void setUp() {
+        wipCounters = new WipCounters(columnRepository, rowRepository, userRepository,
+                mock(ApplicationEventPublisher.class), false);
+    }
+
+    @Test
+    void enter_ShouldTreatZeroLimitAsNoLimit() {
+        // Given - formularz tablicy zapisuje 0 jako "bez limitu"
+        Column column = column(0);
+        Row row = row(0);
+        entityManager.flush();
+
+        // When
+        wipCounters.enter(Collections.nCopies(3, new TaskLane(column.getId(), row.getId())));
+
+        // Then
+        assertEquals(3, activeTaskCount("columns", column.getId()));
+        assertEquals(3, activeTaskCount("rows", row.getId()));
+    }
+
+    @Test
+    void enter_ShouldRejectTasksOverPositiveLimit() {
+        // Given
+        Column column = column(1);
+        Row row = row(null);
+        entityManager.flush();
+        TaskLane lane = new TaskLane(column.getId(), row.getId());
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> wipCounters.enter(Collections.nCopies(2, lane)));
+        assertEquals(0, activeTaskCount("columns", column.getId()));
+    }
+
+    private int activeTaskCount(String table, Integer id) {
+        return jdbcTemplate.queryForObject("select active_task_count from " + table + " where id = ?", Integer.class, id);
+    }
+
+    private Column column(Integer wipLimit) {
+        Column column = new Column();
+        column.setName("Column");
+        column.setWipLimit(wipLimit);
+        entityManager.persist(column);
+        return column;
+    }
+
+    private Row row(Integer wipLimit) {
+        Row row = new Row();
+        row.setName("Row");
+        row.setWipLimit(wipLimit);
+        entityManager.persist(row);
+        return row;
+    }
+}
@@ -0,0 +1,124 @@
+package pl.myproject.kanbanproject2.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.myproject.kanbanproject2.dto.TaskLane;
+import pl.myproject.kanbanproject2.event.BoardEntityType;
+import pl.myproject.kanbanproject2.event.WipLimitExceededEvent;
+import pl.myproject.kanbanproject2.repository.ColumnRepository;
+import pl.myproject.kanbanproject2.repository.RowRepository;
+import pl.myproject.kanbanproject2.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WipCountersTest {
+
+    @Mock
+    private ColumnRepository columnRepository;
+
+    @Mock
+    private RowRepository rowRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void move_ShouldTouchOnlyRows_WhenTasksStayInTheirColumn() {
+        // Given
+        WipCounters wipCounters = new WipCounters(columnRepository, rowRepository, userRepository, eventPublisher, false);
+        when(rowRepository.admitActiveTasks(2, 1)).thenReturn(true);
+
+        // When
+        wipCounters.move(List.of(new TaskLane(1, 1)), List.of(new TaskLane(1, 2)));
+
+        // Then
+        verify(rowRepository).adjustActiveTaskCount(1, -1);
+        verify(rowRepository).admitActiveTasks(2, 1);
+        verifyNoInteractions(columnRepository);
+    }
+
+    @Test
+    void move_ShouldReleaseBeforeAdmitting() {
+        // Given
+        WipCounters wipCounters = new WipCounters(columnRepository, rowRepository, userRepository, eventPublisher, false);
+        when(columnRepository.admitActiveTasks(1, 1)).thenReturn(true);
+
+        // When
+        wipCounters.move(List.of(new TaskLane(2, null), new TaskLane(2, null)),
+                List.of(new TaskLane(1, null), new TaskLane(2, null)));
+
+        // Then
+        InOrder inOrder = inOrder(columnRepository);
+        inOrder.verify(columnRepository).adjustActiveTaskCount(2, -1);
+        inOrder.verify(columnRepository).admitActiveTasks(1, 1);
+        verifyNoInteractions(rowRepository);
+    }
+
+    @Test
+    void enter_ShouldThrowIllegalStateException_WhenLimitReached() {
+        // Given
+        WipCounters wipCounters = new WipCounters(columnRepository, rowRepository, userRepository, eventPublisher, false);
+        when(columnRepository.admitActiveTasks(1, 2)).thenReturn(false);
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> wipCounters.enter(List.of(new TaskLane(1, null), new TaskLane(1, null))));
+        assertEquals("Kolumna osiągnęła limit WIP", exception.getMessage());
+        verify(columnRepository, never()).adjustActiveTaskCount(anyInt(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void enter_ShouldCountAndFlagTasks_WhenLimitsAreSoft() {
+        // Given
+        WipCounters wipCounters = new WipCounters(columnRepository, rowRepository, userRepository, eventPublisher, true);
+        when(columnRepository.admitActiveTasks(1, 1)).thenReturn(true);
+        when(rowRepository.admitActiveTasks(3, 1)).thenReturn(false);
+
+        // When
+        wipCounters.enter(List.of(new TaskLane(1, 3)));
+
+        // Then
+        verify(rowRepository).adjustActiveTaskCount(3, 1);
+        verify(eventPublisher).publishEvent(new WipLimitExceededEvent(BoardEntityType.ROW, 3, 1));
+    }
+
+    @Test
+    void assign_ShouldAdmitAssignmentsGroupedByUser() {
+        // Given
+        WipCounters wipCounters = new WipCounters(columnRepository, rowRepository, userRepository, eventPublisher, false);
+        when(userRepository.admitActiveTasks(Map.of(7, 2, 8, 1))).thenReturn(List.of(8));
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> wipCounters.assign(List.of(8, 7, 7)));
+        assertEquals("Przypisanie przekroczyłoby limit WIP użytkownika", exception.getMessage());
+        verify(userRepository, never()).adjustActiveTaskCounts(any());
+    }
+
+    @Test
+    void unassign_ShouldDecrementEachUserOnce() {
+        // Given
+        WipCounters wipCounters = new WipCounters(columnRepository, rowRepository, userRepository, eventPublisher, false);
+
+        // When
+        wipCounters.unassign(List.of(7, 8, 7));
+
+        // Then
+        verify(userRepository).adjustActiveTaskCounts(Map.of(7, -2, 8, -1));
+        verifyNoInteractions(columnRepository, rowRepository);
+    }
+}